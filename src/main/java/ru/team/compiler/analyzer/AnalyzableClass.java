@@ -14,7 +14,6 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.function.Function;
-import java.util.stream.Collectors;
 
 public record AnalyzableClass(@NotNull ClassNode classNode,
                               @NotNull IdentifierNode name,
@@ -23,6 +22,8 @@ public record AnalyzableClass(@NotNull ClassNode classNode,
                               @NotNull Map<AnalyzableMethod.Key, AnalyzableMethod> methods,
                               @NotNull Map<AnalyzableField.Key, AnalyzableField> fields) {
 
+    private static final IdentifierNode CONSTRUCTOR_NAME = new IdentifierNode("<init>");
+
     public AnalyzableClass(@NotNull ClassNode classNode,
                            @NotNull IdentifierNode name,
                            @NotNull ReferenceNode parentClass,
@@ -38,24 +39,7 @@ public record AnalyzableClass(@NotNull ClassNode classNode,
     }
 
     public boolean isAssignableFrom(@NotNull AnalyzeContext context, @NotNull AnalyzableClass other) {
-        AnalyzableClass currentClass = other;
-
-        while (true) {
-            if (name().equals(currentClass.name())) {
-                return true;
-            } else if (currentClass.parentClass.value().equals("")) {
-                return false;
-            }
-
-            AnalyzableClass parentClass = context.classes().get(currentClass.parentClass());
-            if (parentClass == null) {
-                throw new AnalyzerException("Expression at '%s' is invalid: class '%s' extends unknown '%s'"
-                        .formatted(context.currentPath(), currentClass.name().value(),
-                                currentClass.parentClass().value()));
-            }
-
-            currentClass = parentClass;
-        }
+        return context.hierarchy().isAssignableFrom(context, this, other);
     }
 
     @Nullable
@@ -106,6 +90,7 @@ public record AnalyzableClass(@NotNull ClassNode classNode,
                                                          boolean checkInitialized) {
         return findMatchingExecutable(
                 context,
+                CONSTRUCTOR_NAME,
                 arguments,
                 currentClass -> new ArrayList<>(currentClass.constructors().values()),
                 AnalyzableConstructor::parameters,
@@ -118,23 +103,33 @@ public record AnalyzableClass(@NotNull ClassNode classNode,
                                                @NotNull ArgumentsNode arguments, boolean checkInitialized) {
         return findMatchingExecutable(
                 context,
+                name,
                 arguments,
-                currentClass -> currentClass.methods().values()
-                        .stream()
-                        .filter(m -> m.name().equals(name))
-                        .collect(Collectors.toList()),
+                currentClass -> context.methodTable().methods(currentClass, name),
                 AnalyzableMethod::parameters,
                 true,
                 checkInitialized);
     }
 
     @Nullable
-    private <E> E findMatchingExecutable(@NotNull AnalyzeContext context, @NotNull ArgumentsNode arguments,
+    private <E> E findMatchingExecutable(@NotNull AnalyzeContext context, @NotNull IdentifierNode name,
+                                         @NotNull ArgumentsNode arguments,
                                          @NotNull Function<AnalyzableClass, List<E>> entitiesFromClass,
                                          @NotNull Function<E, ParametersNode> entityParameters,
                                          boolean lookupParent, boolean checkInitialized) {
         List<ReferenceNode> argumentsTypes = context.argumentTypes(arguments, checkInitialized);
 
+        // The outcome only depends on the class table and the argument types, so equal call sites share it
+        MethodTable.CallSite callSite = new MethodTable.CallSite(name().asReference(), name, argumentsTypes);
+        return context.methodTable().resolve(callSite, () -> findMatchingExecutable(
+                context, argumentsTypes, entitiesFromClass, entityParameters, lookupParent));
+    }
+
+    @Nullable
+    private <E> E findMatchingExecutable(@NotNull AnalyzeContext context, @NotNull List<ReferenceNode> argumentsTypes,
+                                         @NotNull Function<AnalyzableClass, List<E>> entitiesFromClass,
+                                         @NotNull Function<E, ParametersNode> entityParameters,
+                                         boolean lookupParent) {
         E finalEntity = null;
 
         AnalyzableClass currentClass = this;
@@ -143,7 +138,7 @@ public record AnalyzableClass(@NotNull ClassNode classNode,
 
             for (E entity : entities) {
                 ParametersNode parameters = entityParameters.apply(entity);
-                int size = arguments.expressions().size();
+                int size = argumentsTypes.size();
                 if (size != parameters.pars().size()) {
                     continue;
                 }
@@ -2,6 +2,7 @@ package ru.team.compiler.analyzer;
 
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.Unmodifiable;
 import ru.team.compiler.exception.AnalyzerException;
 import ru.team.compiler.tree.node.clas.ClassNode;
 import ru.team.compiler.tree.node.clas.ConstructorNode;
@@ -18,9 +19,9 @@ import java.util.Set;
 import java.util.stream.Collectors;
 
 public record AnalyzeContext(@NotNull Map<ReferenceNode, AnalyzableClass> classes,
-                             @NotNull Map<ReferenceNode, AnalyzableVariable> variables,
-                             @NotNull Set<ReferenceNode> initializedVariables,
-                             @NotNull Set<ReferenceNode> initializedFields,
+                             @NotNull ClassHierarchy hierarchy,
+                             @NotNull MethodTable methodTable,
+                             @NotNull SymbolTable symbols,
                              @NotNull List<Exception> exceptions,
                              @NotNull String currentPath,
                              @Nullable AnalyzableClass currentClass,
@@ -28,9 +29,9 @@ public record AnalyzeContext(@NotNull Map<ReferenceNode, AnalyzableClass> classe
                              @Nullable AnalyzableConstructor currentConstructor) {
 
     public AnalyzeContext(@NotNull Map<ReferenceNode, AnalyzableClass> classes,
-                          @NotNull Map<ReferenceNode, AnalyzableVariable> variables,
-                          @NotNull Set<ReferenceNode> initializedVariables,
-                          @NotNull Set<ReferenceNode> initializedFields,
+                          @NotNull ClassHierarchy hierarchy,
+                          @NotNull MethodTable methodTable,
+                          @NotNull SymbolTable symbols,
                           @NotNull List<Exception> exceptions,
                           @NotNull String currentPath,
                           @Nullable AnalyzableClass currentClass,
@@ -41,9 +42,9 @@ public record AnalyzeContext(@NotNull Map<ReferenceNode, AnalyzableClass> classe
         }
 
         this.classes = Collections.unmodifiableMap(classes);
-        this.variables = Collections.unmodifiableMap(variables);
-        this.initializedVariables = Collections.unmodifiableSet(initializedVariables);
-        this.initializedFields = Collections.unmodifiableSet(initializedFields);
+        this.hierarchy = hierarchy;
+        this.methodTable = methodTable;
+        this.symbols = symbols;
         this.exceptions = Collections.unmodifiableList(exceptions);
         this.currentPath = currentPath;
         this.currentClass = currentClass;
@@ -56,13 +57,38 @@ public record AnalyzeContext(@NotNull Map<ReferenceNode, AnalyzableClass> classe
     }
 
     public boolean hasVariable(@NotNull ReferenceNode variableName) {
-        return variables.containsKey(variableName);
+        return symbols.variable(variableName) != null;
+    }
+
+    @Nullable
+    public AnalyzableVariable variable(@NotNull ReferenceNode variableName) {
+        return symbols.variable(variableName);
+    }
+
+    @NotNull
+    @Unmodifiable
+    public Map<ReferenceNode, AnalyzableVariable> variables() {
+        return symbols.variables();
+    }
+
+    public boolean isVariableInitialized(@NotNull ReferenceNode variableName) {
+        return symbols.isVariableInitialized(variableName);
+    }
+
+    public boolean isFieldInitialized(@NotNull ReferenceNode fieldName) {
+        return symbols.isFieldInitialized(fieldName);
+    }
+
+    @NotNull
+    @Unmodifiable
+    public Set<ReferenceNode> initializedFields() {
+        return symbols.initializedFields();
     }
 
     @NotNull
     public AnalyzeContext concatPath(@NotNull String path) {
         return new AnalyzeContext(
-                classes, variables, initializedVariables, initializedFields, exceptions,
+                classes, hierarchy, methodTable, symbols, exceptions,
                 currentPath.isEmpty() ? path : currentPath + "." + path, currentClass,
                 currentMethod, currentConstructor
         );
@@ -77,7 +103,7 @@ public record AnalyzeContext(@NotNull Map<ReferenceNode, AnalyzableClass> classe
 
         String path = classNode.name().value();
         return new AnalyzeContext(
-                classes, variables, initializedVariables, initializedFields, exceptions,
+                classes, hierarchy, methodTable, symbols, exceptions,
                 currentPath.isEmpty() ? path : currentPath + "." + path, analyzableClass,
                 currentMethod, currentConstructor
         );
@@ -100,7 +126,7 @@ public record AnalyzeContext(@NotNull Map<ReferenceNode, AnalyzableClass> classe
 
         String path = analyzableMethod.name().value() + "(" + key.parameterTypesAsString() + ")";
         return new AnalyzeContext(
-                classes, variables, initializedVariables, initializedFields, exceptions,
+                classes, hierarchy, methodTable, symbols.enterExecutable(), exceptions,
                 currentPath.isEmpty() ? path : currentPath + "." + path, currentClass,
                 analyzableMethod, null
         );
@@ -125,19 +151,19 @@ public record AnalyzeContext(@NotNull Map<ReferenceNode, AnalyzableClass> classe
 
         String path = "this(" + key.parameterTypesAsString() + ")";
         return new AnalyzeContext(
-                classes, variables, initializedVariables, initializedFields, exceptions,
+                classes, hierarchy, methodTable, symbols.enterExecutable(), exceptions,
                 currentPath.isEmpty() ? path : currentPath + "." + path, currentClass,
                 null, new AnalyzableConstructor(constructorNode, constructorNode.parameters(), currentClass)
         );
     }
 
     @NotNull
-    public AnalyzeContext withVariables(@NotNull Map<ReferenceNode, AnalyzableVariable> variables) {
+    public AnalyzeContext withSymbols(@NotNull SymbolTable symbols) {
         return new AnalyzeContext(
                 classes,
-                variables,
-                initializedVariables,
-                initializedFields,
+                hierarchy,
+                methodTable,
+                symbols,
                 exceptions,
                 currentPath,
                 currentClass,
@@ -147,42 +173,57 @@ public record AnalyzeContext(@NotNull Map<ReferenceNode, AnalyzableClass> classe
     }
 
     @NotNull
-    public AnalyzeContext withInitializedVariables(@NotNull Set<ReferenceNode> initializedVariables) {
-        return new AnalyzeContext(
-                classes,
-                variables,
-                initializedVariables,
-                initializedFields,
-                exceptions,
-                currentPath,
-                currentClass,
-                currentMethod,
-                currentConstructor
-        );
+    public AnalyzeContext withVariables(@NotNull Map<ReferenceNode, AnalyzableVariable> variables) {
+        return withSymbols(new CopyingSymbolTable(variables));
     }
 
     @NotNull
-    public AnalyzeContext withInitializedFields(@NotNull Set<ReferenceNode> initializedFields) {
-        return new AnalyzeContext(
-                classes,
-                variables,
-                initializedVariables,
-                initializedFields,
-                exceptions,
-                currentPath,
-                currentClass,
-                currentMethod,
-                currentConstructor
-        );
+    public AnalyzeContext withVariable(@NotNull AnalyzableVariable variable, boolean initialized) {
+        return withSymbols(symbols.declareVariable(variable, initialized));
+    }
+
+    @NotNull
+    public AnalyzeContext withInitializedVariable(@NotNull ReferenceNode variableName) {
+        return withSymbols(symbols.initializeVariable(variableName));
+    }
+
+    @NotNull
+    public AnalyzeContext withInitializedField(@NotNull ReferenceNode fieldName) {
+        return withSymbols(symbols.initializeField(fieldName));
+    }
+
+    @NotNull
+    public AnalyzeContext enterScope() {
+        return withSymbols(symbols.enterScope());
+    }
+
+    @NotNull
+    public AnalyzeContext exitScope(@NotNull AnalyzeContext scopeContext) {
+        return withSymbols(symbols.exitScope(scopeContext.symbols));
+    }
+
+    @NotNull
+    public AnalyzeContext enterBranch() {
+        return withSymbols(symbols.enterBranch());
+    }
+
+    @NotNull
+    public AnalyzeContext enterElseBranch(@NotNull AnalyzeContext thenContext) {
+        return withSymbols(symbols.enterElseBranch(thenContext.symbols));
+    }
+
+    @NotNull
+    public AnalyzeContext exitBranches(@NotNull AnalyzeContext thenContext, @Nullable AnalyzeContext elseContext) {
+        return withSymbols(symbols.exitBranches(thenContext.symbols, elseContext != null ? elseContext.symbols : null));
     }
 
     @NotNull
     public AnalyzeContext withExceptions(@NotNull List<Exception> exceptions) {
         return new AnalyzeContext(
                 classes,
-                variables,
-                initializedVariables,
-                initializedFields,
+                hierarchy,
+                methodTable,
+                symbols,
                 exceptions,
                 currentPath,
                 currentClass,
@@ -200,21 +241,29 @@ public record AnalyzeContext(@NotNull Map<ReferenceNode, AnalyzableClass> classe
 
     @NotNull
     public AnalyzeContext addExceptions(@NotNull List<Exception> exceptions) {
+        if (exceptions.isEmpty()) {
+            return this;
+        }
+
         List<Exception> newExceptions = new ArrayList<>(this.exceptions);
         newExceptions.addAll(exceptions);
         return withExceptions(newExceptions);
     }
 
     public boolean isAssignableFrom(@NotNull ReferenceNode requiredClassName, @NotNull ReferenceNode className) {
-        if (!hasClass(requiredClassName)) {
+        AnalyzableClass requiredClass = classes.get(requiredClassName);
+        if (requiredClass == null) {
             throw new AnalyzerException("Class '%s' cannot be found at '%s'"
                     .formatted(requiredClassName.value(), currentPath));
-        } else if (!hasClass(className)) {
+        }
+
+        AnalyzableClass analyzableClass = classes.get(className);
+        if (analyzableClass == null) {
             throw new AnalyzerException("Class '%s' cannot be found at '%s'"
                     .formatted(className.value(), currentPath));
         }
 
-        return classes.get(requiredClassName).isAssignableFrom(this, classes.get(className));
+        return hierarchy.isAssignableFrom(this, requiredClass, analyzableClass);
     }
 
     @NotNull
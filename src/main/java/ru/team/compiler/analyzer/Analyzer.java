@@ -2,9 +2,9 @@ package ru.team.compiler.analyzer;
 
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.Unmodifiable;
 import ru.team.compiler.exception.AnalyzerException;
-import ru.team.compiler.token.Token;
-import ru.team.compiler.token.Tokenizer;
+import ru.team.compiler.token.TokenStream;
 import ru.team.compiler.tree.node.clas.ClassMemberNode;
 import ru.team.compiler.tree.node.clas.ClassNode;
 import ru.team.compiler.tree.node.clas.ConstructorNode;
@@ -16,39 +16,37 @@ import ru.team.compiler.tree.node.clas.ProgramNode;
 import ru.team.compiler.tree.node.expression.IdentifierNode;
 import ru.team.compiler.tree.node.primary.ReferenceNode;
 
-import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.InputStreamReader;
-import java.nio.file.Files;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.Function;
 
 public final class Analyzer {
 
+    // Standard library model, built once per JVM and shared by every context
+    private static volatile Map<ReferenceNode, AnalyzableClass> stdClasses;
+
     private Analyzer() {
 
     }
 
     @NotNull
     private static Map<ReferenceNode, AnalyzableClass> loadClasses(@NotNull InputStream inputStream) throws IOException {
-        StringBuilder stringBuilder = new StringBuilder();
-        try (BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream))) {
-            while (reader.ready()) {
-                stringBuilder.append(reader.readLine()).append("\n");
-            }
+        String string;
+        try (inputStream) {
+            string = new String(inputStream.readAllBytes(), StandardCharsets.UTF_8);
         }
 
-        Tokenizer tokenizer = new Tokenizer(stringBuilder.toString());
-        List<Token> tokens = new ArrayList<>();
-        while (tokenizer.hasNext()) {
-            tokens.add(tokenizer.next());
-        }
+        TokenStream tokens = TokenStream.tokenizeDefault(string);
 
         ProgramNode programNode = ProgramNode.PARSER.parse(tokens);
         AnalyzeContext context = createContext(programNode, Map.of());
@@ -56,7 +54,24 @@ public final class Analyzer {
     }
 
     @NotNull
-    private static Map<ReferenceNode, AnalyzableClass> stdClasses() {
+    @Unmodifiable
+    public static Map<ReferenceNode, AnalyzableClass> stdClasses() {
+        Map<ReferenceNode, AnalyzableClass> classes = stdClasses;
+        if (classes == null) {
+            synchronized (Analyzer.class) {
+                classes = stdClasses;
+                if (classes == null) {
+                    classes = loadStdClasses();
+                    stdClasses = classes;
+                }
+            }
+        }
+
+        return classes;
+    }
+
+    @NotNull
+    private static Map<ReferenceNode, AnalyzableClass> loadStdClasses() {
         InputStream inputStream = Analyzer.class.getClassLoader().getResourceAsStream("std.o");
         if (inputStream == null) {
             throw new AnalyzerException("Cannot read standard library: file not found");
@@ -69,90 +84,75 @@ public final class Analyzer {
         }
     }
 
-    @Nullable
-    private static String hasCyclicDependency(@NotNull Map<ReferenceNode, AnalyzableClass> classes,
-                                              @NotNull ReferenceNode current, @NotNull ReferenceNode origin,
-                                              @Nullable List<String> path) {
-        if (path == null) {
-            path = new ArrayList<>();
-            path.add(origin.value());
-        }
-
-        AnalyzableClass analyzableClass = classes.get(current);
-        if (analyzableClass == null) {
-            return null;
-        }
+    @NotNull
+    public static AnalyzeContext createContext(@NotNull Path path, @NotNull ProgramNode programNode) {
+        return createContext(path, programNode, new HashSet<>());
+    }
 
-        ReferenceNode parent = analyzableClass.parentClass();
-        path.add(parent.value());
+    @NotNull
+    public static AnalyzeContext createContext(@NotNull Path path, @NotNull ProgramNode programNode,
+                                               @NotNull Set<Path> visited) {
+        return createContext(path, programNode, visited, TokenStream.tokenizer(false));
+    }
 
-        if (parent.equals(origin)) {
-            return String.join(" -> ", path);
-        }
+    // Included files are read with the tokenizer
+    @NotNull
+    public static AnalyzeContext createContext(@NotNull Path path, @NotNull ProgramNode programNode,
+                                               @NotNull Function<String, TokenStream> tokenizer) {
+        return createContext(path, programNode, new HashSet<>(), tokenizer);
+    }
 
-        return hasCyclicDependency(classes, parent, origin, path);
+    // Includes are taken from the graph the caller has loaded already
+    @NotNull
+    public static AnalyzeContext createContext(@NotNull Path path, @NotNull ProgramNode programNode,
+                                               @NotNull CompilationUnitCache.IncludeGraph graph,
+                                               @NotNull Function<String, TokenStream> tokenizer) {
+        return createContext(path, programNode, new HashSet<>(), new Includes(graph, new HashMap<>(), tokenizer));
     }
 
     @NotNull
-    public static AnalyzeContext createContext(@NotNull Path path, @NotNull ProgramNode programNode) {
-        Set<Path> visited = new HashSet<>();
-        visited.add(path.toAbsolutePath());
-        return createContext(path, programNode, visited);
+    private static AnalyzeContext createContext(@NotNull Path path, @NotNull ProgramNode programNode,
+                                                @NotNull Set<Path> visited,
+                                                @NotNull Function<String, TokenStream> tokenizer) {
+        CompilationUnitCache.IncludeGraph graph = CompilationUnitCache.shared()
+                .includeGraph(path, programNode, tokenizer);
+
+        return createContext(path, programNode, visited, new Includes(graph, new HashMap<>(), tokenizer));
     }
 
+    // visited holds the includes on the current chain. Files are parsed up front in parallel, then the
+    // include graph is walked in source order, so merging and diagnostics stay deterministic
     @NotNull
-    public static AnalyzeContext createContext(@NotNull Path path, @NotNull ProgramNode programNode,
-                                               @NotNull Set<Path> visited) {
+    private static AnalyzeContext createContext(@NotNull Path path, @NotNull ProgramNode programNode,
+                                                @NotNull Set<Path> visited, @NotNull Includes includes) {
         Map<ReferenceNode, AnalyzableClass> includedClasses = new HashMap<>(stdClasses());
 
+        Set<Path> includePaths = new HashSet<>(visited);
         for (IncludeNode includeNode : programNode.includeNodes()) {
             ReferenceNode referenceNode = includeNode.fileName();
             Path includePath = path.resolve(referenceNode.value() + ".olang");
-            if (!visited.add(includePath)) {
+            Path key = CompilationUnitCache.key(includePath);
+            if (!includePaths.add(key)) {
                 throw new AnalyzerException("Program includes '%s' that includes it too at '%s'"
                         .formatted(referenceNode.value(), includePath));
             }
 
-            if (!Files.exists(includePath)) {
-                throw new AnalyzerException("Program includes '%s' that cannot be found at '%s'"
-                        .formatted(referenceNode.value(), includePath));
-            }
-
-            if (Files.isDirectory(includePath)) {
-                throw new AnalyzerException("Program includes '%s' that is not a file at '%s'"
-                        .formatted(referenceNode.value(), includePath));
+            CompilationUnitCache.CompilationUnit unit = includes.graph().unit(includePath);
+            if (unit == null) {
+                unit = CompilationUnitCache.shared().include(referenceNode, includePath, includes.tokenizer());
             }
 
-            String string;
-            try {
-                string = Files.readString(includePath);
-            } catch (IOException e) {
-                throw new AnalyzerException("Program includes '%s' that could not be read from '%s': %s"
-                        .formatted(referenceNode.value(), includePath, e));
-            }
-
-            List<Token> tokens = new ArrayList<>();
-
-            try {
-                Tokenizer tokenizer = new Tokenizer(string);
-                while (tokenizer.hasNext()) {
-                    tokens.add(tokenizer.next());
-                }
-            } catch (Exception e) {
-                throw new AnalyzerException("Program includes '%s' that could not be tokenized from '%s': %s"
-                        .formatted(referenceNode.value(), includePath, e));
-            }
+            // Classes of every file are built once however many times it is included
+            Map<ReferenceNode, AnalyzableClass> classes = includes.classes().get(unit.path());
+            if (classes == null) {
+                Set<Path> unitVisited = new HashSet<>(visited);
+                unitVisited.add(unit.path());
 
-            ProgramNode includedProgramNode;
-            try {
-                includedProgramNode = ProgramNode.PARSER.parse(tokens);
-            } catch (Exception e) {
-                throw new AnalyzerException("Program includes '%s' that failed on syntax analysis from '%s': %s"
-                        .formatted(referenceNode.value(), includePath, e));
+                classes = createContext(path, unit.programNode(), unitVisited, includes).classes();
+                includes.classes().put(unit.path(), classes);
             }
 
-            AnalyzeContext context = createContext(path, includedProgramNode);
-            context.classes().forEach((k, v) -> {
+            classes.forEach((k, v) -> {
                 AnalyzableClass old = includedClasses.put(k, v);
                 if (old != null && !v.equals(old)) {
                     throw new AnalyzerException("Program includes '%s' that defined class '%s' in different way from '%s'"
@@ -160,7 +160,7 @@ public final class Analyzer {
                 }
             });
 
-            includedClasses.putAll(context.classes());
+            includedClasses.putAll(classes);
         }
 
         return createContext(programNode, includedClasses);
@@ -171,12 +171,16 @@ public final class Analyzer {
                                                 @NotNull Map<ReferenceNode, AnalyzableClass> includedClasses) {
         Map<ReferenceNode, AnalyzableClass> classes = new HashMap<>(includedClasses);
         List<Exception> exceptions = new ArrayList<>();
+        // Farther class on the parent chain of a class, see chainEnd
+        Map<ReferenceNode, ReferenceNode> chainEnds = new HashMap<>();
 
         for (ClassNode classNode : programNode.classes()) {
             ReferenceNode classReference = classNode.name().asReference();
             if (classes.containsKey(classReference)) {
                 exceptions.add(new AnalyzerException("Class '%s' is already defined"
                         .formatted(classNode.name().value())));
+                // The parent of the class changes, so the chains that went through it are no longer valid
+                chainEnds.clear();
             }
 
             Map<AnalyzableConstructor.Key, AnalyzableConstructor> constructors = new HashMap<>();
@@ -242,36 +246,133 @@ public final class Analyzer {
 
             classes.put(classReference, analyzableClass);
 
-            String path = hasCyclicDependency(classes, classReference, classReference, null);
-            if (path != null) {
+            // Every cycle added with the class goes through it, so its chain comes back to it
+            if (chainEnd(classes, chainEnds, analyzableClass.parentClass(), classReference).equals(classReference)) {
                 throw new AnalyzerException("Class '%s' has cyclic dependency: %s"
-                        .formatted(classNode.name().value(), path));
+                        .formatted(classNode.name().value(), cyclePath(classes, classReference)));
             }
+        }
+
+        checkInheritedFields(classes);
+
+        return new AnalyzeContext(
+                classes, ClassHierarchy.of(classes), MethodTable.of(classes), CopyingSymbolTable.empty(), exceptions,
+                "", null, null, null
+        );
+    }
+
+    // ===
 
+    // Follows the parent chain from the class until a class that is not defined yet or the origin. Visited
+    // classes remember where it ended, so the next walk through them skips straight there
+    @NotNull
+    private static ReferenceNode chainEnd(@NotNull Map<ReferenceNode, AnalyzableClass> classes,
+                                          @NotNull Map<ReferenceNode, ReferenceNode> chainEnds,
+                                          @NotNull ReferenceNode current, @NotNull ReferenceNode origin) {
+        List<ReferenceNode> visited = new ArrayList<>();
+        while (!current.equals(origin)) {
+            AnalyzableClass analyzableClass = classes.get(current);
+            if (analyzableClass == null) {
+                break;
+            }
+
+            visited.add(current);
+
+            ReferenceNode end = chainEnds.get(current);
+            current = end != null ? end : analyzableClass.parentClass();
         }
 
+        for (ReferenceNode referenceNode : visited) {
+            chainEnds.put(referenceNode, current);
+        }
+
+        return current;
+    }
+
+    @NotNull
+    private static String cyclePath(@NotNull Map<ReferenceNode, AnalyzableClass> classes,
+                                    @NotNull ReferenceNode origin) {
+        List<String> path = new ArrayList<>();
+        path.add(origin.value());
+
+        ReferenceNode current = origin;
+        do {
+            current = classes.get(current).parentClass();
+            path.add(current.value());
+        } while (!current.equals(origin));
+
+        return String.join(" -> ", path);
+    }
+
+    // Walks the inheritance forest from the roots keeping the nearest declaring class of every field, so each
+    // field is checked once. The error of the first class in the iteration order of classes is reported
+    private static void checkInheritedFields(@NotNull Map<ReferenceNode, AnalyzableClass> classes) {
+        Map<ReferenceNode, List<AnalyzableClass>> subclasses = new HashMap<>();
+        Deque<FieldScope> stack = new ArrayDeque<>();
         for (AnalyzableClass analyzableClass : classes.values()) {
-            for (AnalyzableField.Key key : analyzableClass.fields().keySet()) {
-                AnalyzableClass currentClass = analyzableClass;
+            ReferenceNode parentName = analyzableClass.parentClass();
+            if (classes.containsKey(parentName)) {
+                subclasses.computeIfAbsent(parentName, k -> new ArrayList<>()).add(analyzableClass);
+            } else {
+                stack.push(new FieldScope(analyzableClass, null));
+            }
+        }
 
-                while (true) {
-                    currentClass = classes.get(currentClass.parentClass());
-                    if (currentClass == null) {
-                        break;
-                    }
+        Map<AnalyzableField.Key, AnalyzableClass> declaringClasses = new HashMap<>();
+        Map<ReferenceNode, AnalyzerException> exceptions = new HashMap<>();
+
+        while (!stack.isEmpty()) {
+            FieldScope scope = stack.pop();
+            AnalyzableClass analyzableClass = scope.analyzableClass();
 
-                    if (currentClass.fields().containsKey(key)) {
-                        throw new AnalyzerException("Field '%s.%s' is already defined in super class '%s'"
-                                .formatted(analyzableClass.name().value(), key.name().value(), currentClass.name().value()));
+            if (scope.shadowed() != null) {
+                scope.shadowed().forEach((key, declaringClass) -> {
+                    if (declaringClass != null) {
+                        declaringClasses.put(key, declaringClass);
+                    } else {
+                        declaringClasses.remove(key);
                     }
+                });
+                continue;
+            }
+
+            ReferenceNode classReference = analyzableClass.name().asReference();
+            Map<AnalyzableField.Key, AnalyzableClass> shadowed = new HashMap<>();
+            for (AnalyzableField.Key key : analyzableClass.fields().keySet()) {
+                AnalyzableClass superClass = declaringClasses.put(key, analyzableClass);
+                shadowed.put(key, superClass);
+
+                if (superClass != null && !exceptions.containsKey(classReference)) {
+                    exceptions.put(classReference, new AnalyzerException(
+                            "Field '%s.%s' is already defined in super class '%s'"
+                                    .formatted(analyzableClass.name().value(), key.name().value(),
+                                            superClass.name().value())));
                 }
+            }
 
+            stack.push(new FieldScope(analyzableClass, shadowed));
+            for (AnalyzableClass subclass : subclasses.getOrDefault(classReference, List.of())) {
+                stack.push(new FieldScope(subclass, null));
             }
         }
 
-        return new AnalyzeContext(
-                classes, Map.of(), Set.of(), Set.of(), exceptions, "", null, null, null
-        );
+        for (AnalyzableClass analyzableClass : classes.values()) {
+            AnalyzerException exception = exceptions.get(analyzableClass.name().asReference());
+            if (exception != null) {
+                throw exception;
+            }
+        }
     }
 
+    // Fields a class shadowed while its subclasses are visited, null until the class is entered
+    private record FieldScope(@NotNull AnalyzableClass analyzableClass,
+                              @Nullable Map<AnalyzableField.Key, AnalyzableClass> shadowed) {
+
+    }
+
+    private record Includes(@NotNull CompilationUnitCache.IncludeGraph graph,
+                            @NotNull Map<Path, Map<ReferenceNode, AnalyzableClass>> classes,
+                            @NotNull Function<String, TokenStream> tokenizer) {
+
+    }
 }
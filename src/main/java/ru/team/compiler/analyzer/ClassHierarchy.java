@@ -0,0 +1,151 @@
+package ru.team.compiler.analyzer;
+
+import org.jetbrains.annotations.NotNull;
+import ru.team.compiler.exception.AnalyzerException;
+import ru.team.compiler.tree.node.primary.ReferenceNode;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public final class ClassHierarchy {
+
+    private static final int NOT_INDEXED = -1;
+
+    private final Map<ReferenceNode, Integer> indices;
+    // Pre-order number of every class and the last pre-order number inside its subtree, so a class
+    // is a subtype of another exactly when its number falls into the other's interval
+    private final int[] enter;
+    private final int[] exit;
+    private final int[] roots;
+    private final AnalyzableClass[] classes;
+    private final boolean[] extendsUnknown;
+
+    private ClassHierarchy(@NotNull Map<ReferenceNode, Integer> indices, @NotNull AnalyzableClass[] classes) {
+        this.indices = indices;
+        this.classes = classes;
+        this.enter = new int[classes.length];
+        this.exit = new int[classes.length];
+        this.roots = new int[classes.length];
+        this.extendsUnknown = new boolean[classes.length];
+
+        Arrays.fill(enter, NOT_INDEXED);
+    }
+
+    @NotNull
+    public static ClassHierarchy of(@NotNull Map<ReferenceNode, AnalyzableClass> classes) {
+        Map<ReferenceNode, Integer> indices = new HashMap<>();
+        AnalyzableClass[] array = new AnalyzableClass[classes.size()];
+        for (AnalyzableClass analyzableClass : classes.values()) {
+            indices.put(analyzableClass.name().asReference(), indices.size());
+            array[indices.size() - 1] = analyzableClass;
+        }
+
+        ClassHierarchy hierarchy = new ClassHierarchy(indices, array);
+
+        List<List<Integer>> children = new ArrayList<>();
+        List<Integer> roots = new ArrayList<>();
+        for (int i = 0; i < array.length; i++) {
+            children.add(new ArrayList<>());
+        }
+
+        for (int i = 0; i < array.length; i++) {
+            ReferenceNode parentClass = array[i].parentClass();
+            Integer parent = indices.get(parentClass);
+            if (parent != null) {
+                children.get(parent).add(i);
+            } else {
+                hierarchy.extendsUnknown[i] = !parentClass.value().isEmpty();
+                roots.add(i);
+            }
+        }
+
+        // Classes on a cycle are never reached and keep the parent chain walk
+        int counter = 0;
+        Deque<Integer> stack = new ArrayDeque<>();
+        for (int root : roots) {
+            stack.push(root);
+            while (!stack.isEmpty()) {
+                int current = stack.pop();
+                if (current < 0) {
+                    hierarchy.exit[~current] = counter - 1;
+                    continue;
+                }
+
+                hierarchy.enter[current] = counter++;
+                hierarchy.roots[current] = root;
+
+                stack.push(~current);
+                for (int child : children.get(current)) {
+                    stack.push(child);
+                }
+            }
+        }
+
+        return hierarchy;
+    }
+
+    public boolean isAssignableFrom(@NotNull AnalyzeContext context, @NotNull AnalyzableClass requiredClass,
+                                    @NotNull AnalyzableClass analyzableClass) {
+        int required = index(requiredClass);
+        int current = index(analyzableClass);
+        if (required == NOT_INDEXED || current == NOT_INDEXED) {
+            return walk(context, requiredClass, analyzableClass);
+        }
+
+        if (enter[required] <= enter[current] && enter[current] <= exit[required]) {
+            return true;
+        }
+
+        // The walk up from the class would reach its root and fail there
+        int root = roots[current];
+        if (extendsUnknown[root]) {
+            throw extendsUnknown(context, classes[root]);
+        }
+
+        return false;
+    }
+
+    // ===
+
+    private int index(@NotNull AnalyzableClass analyzableClass) {
+        Integer index = indices.get(analyzableClass.name().asReference());
+        if (index == null || enter[index] == NOT_INDEXED) {
+            return NOT_INDEXED;
+        }
+
+        return index;
+    }
+
+    private static boolean walk(@NotNull AnalyzeContext context, @NotNull AnalyzableClass requiredClass,
+                                @NotNull AnalyzableClass analyzableClass) {
+        AnalyzableClass currentClass = analyzableClass;
+
+        while (true) {
+            if (requiredClass.name().equals(currentClass.name())) {
+                return true;
+            } else if (currentClass.parentClass().value().equals("")) {
+                return false;
+            }
+
+            AnalyzableClass parentClass = context.classes().get(currentClass.parentClass());
+            if (parentClass == null) {
+                throw extendsUnknown(context, currentClass);
+            }
+
+            currentClass = parentClass;
+        }
+    }
+
+    @NotNull
+    private static AnalyzerException extendsUnknown(@NotNull AnalyzeContext context,
+                                                    @NotNull AnalyzableClass analyzableClass) {
+        return new AnalyzerException("Expression at '%s' is invalid: class '%s' extends unknown '%s'"
+                .formatted(context.currentPath(), analyzableClass.name().value(),
+                        analyzableClass.parentClass().value()));
+    }
+}
@@ -0,0 +1,265 @@
+package ru.team.compiler.analyzer;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import ru.team.compiler.exception.AnalyzerException;
+import ru.team.compiler.token.TokenStream;
+import ru.team.compiler.tree.node.clas.IncludeNode;
+import ru.team.compiler.tree.node.clas.ProgramNode;
+import ru.team.compiler.tree.node.primary.ReferenceNode;
+import ru.team.compiler.util.GeneralUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+// Parsed files by path. The shared cache lives as long as the process, so it keeps only the files used last
+public final class CompilationUnitCache {
+
+    private static final int MAX_UNITS = 256;
+    // Modification times are as coarse as two seconds on some file systems, a file changed within that time
+    // after it was read can keep both its time and size
+    private static final long RACY_MILLIS = 2000;
+
+    private static final CompilationUnitCache SHARED = new CompilationUnitCache(MAX_UNITS);
+
+    private final ConcurrentMap<Path, Entry> units = new ConcurrentHashMap<>();
+    private final AtomicLong uses = new AtomicLong();
+    private final int maxUnits;
+
+    public CompilationUnitCache() {
+        this(MAX_UNITS);
+    }
+
+    public CompilationUnitCache(int maxUnits) {
+        this.maxUnits = maxUnits;
+    }
+
+    @NotNull
+    public static CompilationUnitCache shared() {
+        return SHARED;
+    }
+
+    @NotNull
+    public CompilationUnit include(@NotNull ReferenceNode fileName, @NotNull Path includePath,
+                                   @NotNull Function<String, TokenStream> tokenizer) {
+        if (!Files.exists(includePath)) {
+            throw new AnalyzerException("Program includes '%s' that cannot be found at '%s'"
+                    .formatted(fileName.value(), includePath));
+        }
+
+        if (Files.isDirectory(includePath)) {
+            throw new AnalyzerException("Program includes '%s' that is not a file at '%s'"
+                    .formatted(fileName.value(), includePath));
+        }
+
+        Path path = key(includePath);
+        Entry entry = units.get(path);
+
+        BasicFileAttributes attributes;
+        String string;
+        long readMillis = System.currentTimeMillis();
+        try {
+            // A file with the same modification time and size is not read again, unless it was modified too
+            // shortly before it was read to tell a later change apart
+            attributes = Files.readAttributes(includePath, BasicFileAttributes.class);
+            if (entry != null && entry.isSameFile(attributes)) {
+                entry.lastUse = uses.incrementAndGet();
+                return entry.unit;
+            }
+
+            string = Files.readString(includePath);
+        } catch (IOException e) {
+            throw new AnalyzerException("Program includes '%s' that could not be read from '%s': %s"
+                    .formatted(fileName.value(), includePath, e));
+        }
+
+        String hash = GeneralUtils.sha256(string);
+        if (entry != null && entry.unit.hash().equals(hash)) {
+            put(path, new Entry(entry.unit, attributes, readMillis));
+            return entry.unit;
+        }
+
+        TokenStream tokens;
+        try {
+            tokens = tokenizer.apply(string);
+        } catch (Exception e) {
+            throw new AnalyzerException("Program includes '%s' that could not be tokenized from '%s': %s"
+                    .formatted(fileName.value(), includePath, e));
+        }
+
+        ProgramNode programNode;
+        try {
+            programNode = ProgramNode.PARSER.parse(tokens);
+        } catch (Exception e) {
+            throw new AnalyzerException("Program includes '%s' that failed on syntax analysis from '%s': %s"
+                    .formatted(fileName.value(), includePath, e));
+        }
+
+        CompilationUnit unit = new CompilationUnit(path, hash, programNode);
+        put(path, new Entry(unit, attributes, readMillis));
+        return unit;
+    }
+
+    // Reads, tokenizes and parses every file reachable through includes concurrently. Files that fail are
+    // recorded, the sequential walk over the graph reports them in the usual order
+    @NotNull
+    public IncludeGraph includeGraph(@NotNull Path path, @NotNull ProgramNode programNode,
+                                     @NotNull Function<String, TokenStream> tokenizer) {
+        if (programNode.includeNodes().isEmpty()) {
+            return new IncludeGraph(Map.of(), Map.of());
+        }
+
+        IncludeGraph graph = new IncludeGraph(new ConcurrentHashMap<>(), new ConcurrentHashMap<>());
+        Set<Path> discovered = ConcurrentHashMap.newKeySet();
+
+        ForkJoinPool.commonPool().invoke(new IncludesTask(path, programNode, tokenizer, graph, discovered));
+        return graph;
+    }
+
+    public int size() {
+        return units.size();
+    }
+
+    public void clear() {
+        units.clear();
+    }
+
+    @NotNull
+    public static Path key(@NotNull Path path) {
+        return path.toAbsolutePath().normalize();
+    }
+
+    // ===
+
+    // The least recently used files are dropped over the limit
+    private void put(@NotNull Path path, @NotNull Entry entry) {
+        entry.lastUse = uses.incrementAndGet();
+        units.put(path, entry);
+
+        while (units.size() > maxUnits) {
+            Map.Entry<Path, Entry> leastUsed = null;
+            for (Map.Entry<Path, Entry> unit : units.entrySet()) {
+                if (leastUsed == null || unit.getValue().lastUse < leastUsed.getValue().lastUse) {
+                    leastUsed = unit;
+                }
+            }
+
+            units.remove(leastUsed.getKey(), leastUsed.getValue());
+        }
+    }
+
+    private final class IncludesTask extends RecursiveAction {
+
+        private final Path path;
+        private final ProgramNode programNode;
+        private final Function<String, TokenStream> tokenizer;
+        private final IncludeGraph graph;
+        private final Set<Path> discovered;
+
+        private IncludesTask(@NotNull Path path, @NotNull ProgramNode programNode,
+                             @NotNull Function<String, TokenStream> tokenizer,
+                             @NotNull IncludeGraph graph, @NotNull Set<Path> discovered) {
+            this.path = path;
+            this.programNode = programNode;
+            this.tokenizer = tokenizer;
+            this.graph = graph;
+            this.discovered = discovered;
+        }
+
+        @Override
+        protected void compute() {
+            List<IncludeTask> tasks = new ArrayList<>();
+            for (IncludeNode includeNode : programNode.includeNodes()) {
+                Path includePath = path.resolve(includeNode.fileName().value() + ".olang");
+                if (discovered.add(key(includePath))) {
+                    tasks.add(new IncludeTask(includeNode.fileName(), includePath, this));
+                }
+            }
+
+            invokeAll(tasks);
+        }
+    }
+
+    private final class IncludeTask extends RecursiveAction {
+
+        private final ReferenceNode fileName;
+        private final Path includePath;
+        private final IncludesTask parent;
+
+        private IncludeTask(@NotNull ReferenceNode fileName, @NotNull Path includePath, @NotNull IncludesTask parent) {
+            this.fileName = fileName;
+            this.includePath = includePath;
+            this.parent = parent;
+        }
+
+        @Override
+        protected void compute() {
+            CompilationUnit unit;
+            try {
+                unit = include(fileName, includePath, parent.tokenizer);
+            } catch (AnalyzerException e) {
+                parent.graph.failures().put(key(includePath), e);
+                return;
+            }
+
+            parent.graph.units().put(unit.path(), unit);
+
+            new IncludesTask(parent.path, unit.programNode(), parent.tokenizer, parent.graph, parent.discovered)
+                    .compute();
+        }
+    }
+
+    public record CompilationUnit(@NotNull Path path, @NotNull String hash, @NotNull ProgramNode programNode) {
+
+    }
+
+    public record IncludeGraph(@NotNull Map<Path, CompilationUnit> units,
+                               @NotNull Map<Path, AnalyzerException> failures) {
+
+        // A file that failed to load is reported where it is included, with the error it failed with
+        @Nullable
+        public CompilationUnit unit(@NotNull Path includePath) {
+            Path key = key(includePath);
+
+            AnalyzerException failure = failures.get(key);
+            if (failure != null) {
+                throw failure;
+            }
+
+            return units.get(key);
+        }
+    }
+
+    private static final class Entry {
+
+        private final CompilationUnit unit;
+        private final FileTime lastModified;
+        private final long size;
+        private final boolean racy;
+        private volatile long lastUse;
+
+        private Entry(@NotNull CompilationUnit unit, @NotNull BasicFileAttributes attributes, long readMillis) {
+            this.unit = unit;
+            this.lastModified = attributes.lastModifiedTime();
+            this.size = attributes.size();
+            this.racy = lastModified.toMillis() > readMillis - RACY_MILLIS;
+        }
+
+        private boolean isSameFile(@NotNull BasicFileAttributes attributes) {
+            return !racy && lastModified.equals(attributes.lastModifiedTime()) && size == attributes.size();
+        }
+    }
+}
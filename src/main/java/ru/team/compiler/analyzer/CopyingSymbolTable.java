@@ -0,0 +1,227 @@
+package ru.team.compiler.analyzer;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.Unmodifiable;
+import ru.team.compiler.tree.node.primary.ReferenceNode;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+public final class CopyingSymbolTable implements SymbolTable {
+
+    // Shared by all tables of one executable, names keep their slot even after leaving a scope
+    private final Slots slots;
+    private final Map<ReferenceNode, AnalyzableVariable> variables;
+    private final DefiniteAssignment declaredVariables;
+    private final DefiniteAssignment initializedVariables;
+    private final DefiniteAssignment initializedFields;
+
+    public CopyingSymbolTable(@NotNull Map<ReferenceNode, AnalyzableVariable> variables) {
+        this.slots = new Slots();
+        this.variables = Collections.unmodifiableMap(variables);
+        this.declaredVariables = new DefiniteAssignment();
+        this.initializedVariables = new DefiniteAssignment();
+        this.initializedFields = new DefiniteAssignment();
+
+        for (ReferenceNode name : variables.keySet()) {
+            declaredVariables.assign(slots.variableSlot(name));
+        }
+    }
+
+    private CopyingSymbolTable(@NotNull Slots slots,
+                               @NotNull Map<ReferenceNode, AnalyzableVariable> variables,
+                               @NotNull DefiniteAssignment declaredVariables,
+                               @NotNull DefiniteAssignment initializedVariables,
+                               @NotNull DefiniteAssignment initializedFields) {
+        this.slots = slots;
+        this.variables = variables;
+        this.declaredVariables = declaredVariables;
+        this.initializedVariables = initializedVariables;
+        this.initializedFields = initializedFields;
+    }
+
+    @NotNull
+    public static CopyingSymbolTable empty() {
+        return new CopyingSymbolTable(Map.of());
+    }
+
+    @Override
+    @Nullable
+    public AnalyzableVariable variable(@NotNull ReferenceNode name) {
+        return variables.get(name);
+    }
+
+    @Override
+    @NotNull
+    @Unmodifiable
+    public Map<ReferenceNode, AnalyzableVariable> variables() {
+        return variables;
+    }
+
+    @Override
+    public boolean isVariableInitialized(@NotNull ReferenceNode name) {
+        Integer slot = slots.variableSlots.get(name);
+        return slot != null && initializedVariables.isAssigned(slot);
+    }
+
+    @Override
+    public boolean isFieldInitialized(@NotNull ReferenceNode name) {
+        Integer slot = slots.fieldSlots.get(name);
+        return slot != null && initializedFields.isAssigned(slot);
+    }
+
+    @Override
+    @NotNull
+    @Unmodifiable
+    public Set<ReferenceNode> initializedFields() {
+        Set<ReferenceNode> fields = new HashSet<>();
+
+        int slot = initializedFields.nextAssigned(0);
+        while (slot >= 0) {
+            fields.add(slots.fieldNames.get(slot));
+            slot = initializedFields.nextAssigned(slot + 1);
+        }
+
+        return Collections.unmodifiableSet(fields);
+    }
+
+    @Override
+    @NotNull
+    public CopyingSymbolTable declareVariable(@NotNull AnalyzableVariable variable, boolean initialized) {
+        ReferenceNode name = variable.name().asReference();
+        int slot = slots.variableSlot(name);
+
+        Map<ReferenceNode, AnalyzableVariable> newVariables = new HashMap<>(variables);
+        newVariables.put(name, variable);
+
+        DefiniteAssignment newDeclaredVariables = declaredVariables.copy();
+        newDeclaredVariables.assign(slot);
+
+        DefiniteAssignment newInitializedVariables = initializedVariables;
+        if (initialized) {
+            newInitializedVariables = initializedVariables.copy();
+            newInitializedVariables.assign(slot);
+        }
+
+        return new CopyingSymbolTable(slots, Collections.unmodifiableMap(newVariables), newDeclaredVariables,
+                newInitializedVariables, initializedFields);
+    }
+
+    @Override
+    @NotNull
+    public CopyingSymbolTable initializeVariable(@NotNull ReferenceNode name) {
+        int slot = slots.variableSlot(name);
+        if (initializedVariables.isAssigned(slot)) {
+            return this;
+        }
+
+        DefiniteAssignment newInitializedVariables = initializedVariables.copy();
+        newInitializedVariables.assign(slot);
+        return new CopyingSymbolTable(slots, variables, declaredVariables, newInitializedVariables, initializedFields);
+    }
+
+    @Override
+    @NotNull
+    public CopyingSymbolTable initializeField(@NotNull ReferenceNode name) {
+        int slot = slots.fieldSlot(name);
+        if (initializedFields.isAssigned(slot)) {
+            return this;
+        }
+
+        DefiniteAssignment newInitializedFields = initializedFields.copy();
+        newInitializedFields.assign(slot);
+        return new CopyingSymbolTable(slots, variables, declaredVariables, initializedVariables, newInitializedFields);
+    }
+
+    @Override
+    @NotNull
+    public CopyingSymbolTable enterExecutable() {
+        return empty();
+    }
+
+    @Override
+    @NotNull
+    public CopyingSymbolTable enterScope() {
+        return this;
+    }
+
+    @Override
+    @NotNull
+    public CopyingSymbolTable exitScope(@NotNull SymbolTable scope) {
+        CopyingSymbolTable scopeTable = (CopyingSymbolTable) scope;
+
+        // Variables declared inside the scope are forgotten, assignments to outer ones are kept
+        DefiniteAssignment newInitializedVariables = DefiniteAssignment.meet(
+                scopeTable.initializedVariables, declaredVariables);
+        newInitializedVariables.join(initializedVariables);
+
+        DefiniteAssignment newInitializedFields = DefiniteAssignment.join(
+                initializedFields, scopeTable.initializedFields);
+
+        return new CopyingSymbolTable(slots, variables, declaredVariables, newInitializedVariables,
+                newInitializedFields);
+    }
+
+    @Override
+    @NotNull
+    public CopyingSymbolTable enterBranch() {
+        return this;
+    }
+
+    @Override
+    @NotNull
+    public CopyingSymbolTable enterElseBranch(@NotNull SymbolTable thenBranch) {
+        return this;
+    }
+
+    @Override
+    @NotNull
+    public CopyingSymbolTable exitBranches(@NotNull SymbolTable thenBranch, @Nullable SymbolTable elseBranch) {
+        if (elseBranch == null) {
+            return this;
+        }
+
+        CopyingSymbolTable thenTable = (CopyingSymbolTable) thenBranch;
+        CopyingSymbolTable elseTable = (CopyingSymbolTable) elseBranch;
+
+        DefiniteAssignment newInitializedFields = DefiniteAssignment.meet(
+                thenTable.initializedFields, elseTable.initializedFields);
+        newInitializedFields.join(initializedFields);
+
+        // TODO: check that this variable in the final scope
+        DefiniteAssignment newInitializedVariables = DefiniteAssignment.meet(
+                thenTable.initializedVariables, elseTable.initializedVariables);
+        newInitializedVariables.join(initializedVariables);
+
+        return new CopyingSymbolTable(slots, variables, declaredVariables, newInitializedVariables,
+                newInitializedFields);
+    }
+
+    private static final class Slots {
+
+        private final Map<ReferenceNode, Integer> variableSlots = new HashMap<>();
+        private final Map<ReferenceNode, Integer> fieldSlots = new HashMap<>();
+        private final List<ReferenceNode> fieldNames = new ArrayList<>();
+
+        private int variableSlot(@NotNull ReferenceNode name) {
+            return variableSlots.computeIfAbsent(name, key -> variableSlots.size());
+        }
+
+        private int fieldSlot(@NotNull ReferenceNode name) {
+            Integer slot = fieldSlots.get(name);
+            if (slot == null) {
+                slot = fieldNames.size();
+                fieldNames.add(name);
+                fieldSlots.put(name, slot);
+            }
+
+            return slot;
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package ru.team.compiler.analyzer;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+
+// Set of definitely assigned slots, slots are numbered per executable.
+// Merging two control flow paths is a word-wise AND (meet), collecting is a word-wise OR (join)
+public final class DefiniteAssignment {
+
+    private static final long[] EMPTY_WORDS = new long[0];
+
+    private long[] words;
+
+    public DefiniteAssignment() {
+        this.words = EMPTY_WORDS;
+    }
+
+    private DefiniteAssignment(long @NotNull [] words) {
+        this.words = words;
+    }
+
+    public boolean isAssigned(int slot) {
+        int word = slot >>> 6;
+        return word < words.length && (words[word] & (1L << slot)) != 0;
+    }
+
+    public boolean isEmpty() {
+        for (long word : words) {
+            if (word != 0) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    public int nextAssigned(int fromSlot) {
+        int word = fromSlot >>> 6;
+        if (word >= words.length) {
+            return -1;
+        }
+
+        long bits = words[word] & (-1L << fromSlot);
+        while (true) {
+            if (bits != 0) {
+                return (word << 6) + Long.numberOfTrailingZeros(bits);
+            }
+
+            if (++word == words.length) {
+                return -1;
+            }
+
+            bits = words[word];
+        }
+    }
+
+    public void assign(int slot) {
+        int word = slot >>> 6;
+        if (word >= words.length) {
+            words = Arrays.copyOf(words, Math.max(word + 1, words.length * 2));
+        }
+
+        words[word] |= 1L << slot;
+    }
+
+    // Forgets every slot starting from the given one, used when a scope is left
+    public void truncate(int fromSlot) {
+        int word = fromSlot >>> 6;
+        if (word >= words.length) {
+            return;
+        }
+
+        words[word] &= ~(-1L << fromSlot);
+        Arrays.fill(words, word + 1, words.length, 0L);
+    }
+
+    public void meet(@NotNull DefiniteAssignment other) {
+        long[] otherWords = other.words;
+        for (int i = 0; i < words.length; i++) {
+            words[i] &= i < otherWords.length ? otherWords[i] : 0L;
+        }
+    }
+
+    public void join(@NotNull DefiniteAssignment other) {
+        long[] otherWords = other.words;
+        if (otherWords.length > words.length) {
+            words = Arrays.copyOf(words, otherWords.length);
+        }
+
+        for (int i = 0; i < otherWords.length; i++) {
+            words[i] |= otherWords[i];
+        }
+    }
+
+    public void set(@NotNull DefiniteAssignment other) {
+        words = other.words.length == 0 ? EMPTY_WORDS : other.words.clone();
+    }
+
+    @NotNull
+    public DefiniteAssignment copy() {
+        return new DefiniteAssignment(words.length == 0 ? EMPTY_WORDS : words.clone());
+    }
+
+    @NotNull
+    public static DefiniteAssignment meet(@NotNull DefiniteAssignment a, @NotNull DefiniteAssignment b) {
+        DefiniteAssignment result = a.copy();
+        result.meet(b);
+        return result;
+    }
+
+    @NotNull
+    public static DefiniteAssignment join(@NotNull DefiniteAssignment a, @NotNull DefiniteAssignment b) {
+        DefiniteAssignment result = a.copy();
+        result.join(b);
+        return result;
+    }
+
+    @Override
+    public boolean equals(Object object) {
+        if (this == object) {
+            return true;
+        }
+        if (object == null || getClass() != object.getClass()) {
+            return false;
+        }
+        DefiniteAssignment that = (DefiniteAssignment) object;
+
+        long[] longer = words.length >= that.words.length ? words : that.words;
+        long[] shorter = longer == words ? that.words : words;
+        for (int i = 0; i < longer.length; i++) {
+            if (longer[i] != (i < shorter.length ? shorter[i] : 0L)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        int length = words.length;
+        while (length > 0 && words[length - 1] == 0) {
+            length--;
+        }
+
+        return Arrays.hashCode(Arrays.copyOf(words, length));
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder stringBuilder = new StringBuilder("DefiniteAssignment{");
+        for (int slot = nextAssigned(0); slot >= 0; slot = nextAssigned(slot + 1)) {
+            if (stringBuilder.charAt(stringBuilder.length() - 1) != '{') {
+                stringBuilder.append(", ");
+            }
+
+            stringBuilder.append(slot);
+        }
+
+        return stringBuilder.append('}').toString();
+    }
+}
@@ -0,0 +1,173 @@
+package ru.team.compiler.analyzer;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.Unmodifiable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+// Flattened view of the methods of a class, built from the layout of its parent so every class is
+// visited once however deep the hierarchy is
+public final class MethodLayout {
+
+    private final AnalyzableClass analyzableClass;
+    private final int depth;
+    private final Map<AnalyzableMethod.Key, AnalyzableMethod> methods;
+    private final Map<AnalyzableMethod.Key, List<Declaration>> declarations;
+    private final List<AnalyzableMethod> bridges;
+    private final Map<AnalyzableMethod.Key, AnalyzableClass> missingMethods;
+    private final AnalyzableClass unknownParentClass;
+
+    // Methods of the run of abstract classes starting at this one, a concrete subclass has to implement
+    // every abstract one that is not implemented somewhere in that run
+    private final Map<AnalyzableMethod.Key, AnalyzableClass> abstractRunMethods;
+    private final Set<AnalyzableMethod.Key> concreteRunMethods;
+    private final AnalyzableClass abstractRunUnknownParentClass;
+
+    private MethodLayout(@NotNull AnalyzableClass analyzableClass, @Nullable MethodLayout parent,
+                         boolean unknownParent) {
+        this.analyzableClass = analyzableClass;
+        this.depth = parent != null ? parent.depth + 1 : 0;
+
+        boolean abstractParent = parent != null && parent.analyzableClass.classNode().isAbstract();
+
+        Map<AnalyzableMethod.Key, AnalyzableMethod> methods = new HashMap<>();
+        Map<AnalyzableMethod.Key, List<Declaration>> declarations = new HashMap<>();
+        if (parent != null) {
+            methods.putAll(parent.methods);
+            declarations.putAll(parent.declarations);
+        }
+
+        List<Declaration> bridgeDeclarations = new ArrayList<>();
+
+        int index = 0;
+        for (AnalyzableMethod method : analyzableClass.methods().values()) {
+            AnalyzableMethod.Key key = method.key();
+            methods.put(key, method);
+
+            List<Declaration> inherited = declarations.getOrDefault(key, List.of());
+            for (Declaration declaration : inherited) {
+                if (!Objects.equals(method.returnType(), declaration.method().returnType())) {
+                    bridgeDeclarations.add(declaration);
+                }
+            }
+
+            // Nearest declaration first, one per return type
+            List<Declaration> keyDeclarations = new ArrayList<>(inherited.size() + 1);
+            keyDeclarations.add(new Declaration(method, depth, index++));
+            for (Declaration declaration : inherited) {
+                if (!Objects.equals(method.returnType(), declaration.method().returnType())) {
+                    keyDeclarations.add(declaration);
+                }
+            }
+
+            declarations.put(key, Collections.unmodifiableList(keyDeclarations));
+        }
+
+        // Same order as walking the ancestors from the nearest one
+        bridgeDeclarations.sort(Comparator.comparingInt((Declaration declaration) -> -declaration.depth())
+                .thenComparingInt(Declaration::index));
+
+        this.methods = Collections.unmodifiableMap(methods);
+        this.declarations = declarations;
+        this.bridges = bridgeDeclarations.stream()
+                .map(Declaration::method)
+                .toList();
+
+        if (unknownParent) {
+            unknownParentClass = analyzableClass;
+        } else if (abstractParent) {
+            unknownParentClass = parent.abstractRunUnknownParentClass;
+        } else {
+            unknownParentClass = null;
+        }
+
+        Map<AnalyzableMethod.Key, AnalyzableClass> inheritedAbstractMethods = abstractParent
+                ? parent.abstractRunMethods
+                : Map.of();
+        Set<AnalyzableMethod.Key> inheritedConcreteMethods = abstractParent
+                ? parent.concreteRunMethods
+                : Set.of();
+
+        Map<AnalyzableMethod.Key, AnalyzableClass> missingMethods = new HashMap<>();
+        for (var entry : inheritedAbstractMethods.entrySet()) {
+            AnalyzableMethod.Key key = entry.getKey();
+            if (!analyzableClass.methods().containsKey(key) && !inheritedConcreteMethods.contains(key)) {
+                missingMethods.put(key, entry.getValue());
+            }
+        }
+
+        this.missingMethods = Collections.unmodifiableMap(missingMethods);
+
+        if (analyzableClass.classNode().isAbstract()) {
+            // The farthest abstract class that declares a method is the one reported
+            Map<AnalyzableMethod.Key, AnalyzableClass> abstractRunMethods = new HashMap<>(inheritedAbstractMethods);
+            Set<AnalyzableMethod.Key> concreteRunMethods = new HashSet<>(inheritedConcreteMethods);
+            for (AnalyzableMethod method : analyzableClass.methods().values()) {
+                if (method.methodNode().isAbstract()) {
+                    abstractRunMethods.putIfAbsent(method.key(), analyzableClass);
+                } else {
+                    concreteRunMethods.add(method.key());
+                }
+            }
+
+            this.abstractRunMethods = abstractRunMethods;
+            this.concreteRunMethods = concreteRunMethods;
+            this.abstractRunUnknownParentClass = unknownParentClass;
+        } else {
+            this.abstractRunMethods = Map.of();
+            this.concreteRunMethods = Set.of();
+            this.abstractRunUnknownParentClass = null;
+        }
+    }
+
+    @NotNull
+    static MethodLayout of(@NotNull AnalyzableClass analyzableClass, @Nullable MethodLayout parent,
+                           boolean unknownParent) {
+        return new MethodLayout(analyzableClass, parent, unknownParent);
+    }
+
+    @NotNull
+    public AnalyzableClass analyzableClass() {
+        return analyzableClass;
+    }
+
+    // Most derived declaration of every method visible in the class
+    @NotNull
+    @Unmodifiable
+    public Map<AnalyzableMethod.Key, AnalyzableMethod> methods() {
+        return methods;
+    }
+
+    // Inherited declarations overridden in the class with another return type, every one needs a bridge
+    @NotNull
+    @Unmodifiable
+    public List<AnalyzableMethod> bridges() {
+        return bridges;
+    }
+
+    // Abstract methods of the abstract superclasses right above the class that it does not implement
+    @NotNull
+    @Unmodifiable
+    public Map<AnalyzableMethod.Key, AnalyzableClass> missingMethods() {
+        return missingMethods;
+    }
+
+    // Class between this one and its abstract superclasses that extends an unknown one
+    @Nullable
+    public AnalyzableClass unknownParentClass() {
+        return unknownParentClass;
+    }
+
+    private record Declaration(@NotNull AnalyzableMethod method, int depth, int index) {
+
+    }
+}
@@ -0,0 +1,167 @@
+package ru.team.compiler.analyzer;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.Unmodifiable;
+import ru.team.compiler.tree.node.TreeNode;
+import ru.team.compiler.tree.node.expression.IdentifierNode;
+import ru.team.compiler.tree.node.primary.ReferenceNode;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+public final class MethodTable {
+
+    private final Map<ReferenceNode, AnalyzableClass> classes;
+    private final Map<ReferenceNode, Map<IdentifierNode, List<AnalyzableMethod>>> methods;
+    // Shared by every context built from the same class table, so it is filled concurrently by the
+    // parallel analyzer. Failed resolutions are not stored, they are reported again at every call site
+    private final ConcurrentMap<CallSite, Optional<Object>> resolutions = new ConcurrentHashMap<>();
+    private final ConcurrentMap<ReferenceNode, MethodLayout> layouts = new ConcurrentHashMap<>();
+    // What the analysis resolved for a node against these classes, read back by compile. Parsed files are shared
+    // by every compilation that includes them, so this is kept here and not on the nodes
+    private final ConcurrentMap<NodeKey, Object> attributes = new ConcurrentHashMap<>();
+
+    private MethodTable(@NotNull Map<ReferenceNode, AnalyzableClass> classes,
+                        @NotNull Map<ReferenceNode, Map<IdentifierNode, List<AnalyzableMethod>>> methods) {
+        this.classes = classes;
+        this.methods = methods;
+    }
+
+    @NotNull
+    public static MethodTable of(@NotNull Map<ReferenceNode, AnalyzableClass> classes) {
+        Map<ReferenceNode, Map<IdentifierNode, List<AnalyzableMethod>>> methods = new HashMap<>();
+        for (AnalyzableClass analyzableClass : classes.values()) {
+            methods.put(analyzableClass.name().asReference(), index(analyzableClass));
+        }
+
+        return new MethodTable(Map.copyOf(classes), methods);
+    }
+
+    // Overloads keep the iteration order of AnalyzableClass.methods(), the first matching one wins
+    @NotNull
+    @Unmodifiable
+    public List<AnalyzableMethod> methods(@NotNull AnalyzableClass analyzableClass, @NotNull IdentifierNode name) {
+        Map<IdentifierNode, List<AnalyzableMethod>> classMethods = methods.get(analyzableClass.name().asReference());
+        if (classMethods == null) {
+            classMethods = index(analyzableClass);
+        }
+
+        return classMethods.getOrDefault(name, List.of());
+    }
+
+    @Nullable
+    @SuppressWarnings("unchecked")
+    public <E> E resolve(@NotNull CallSite callSite, @NotNull Supplier<E> resolver) {
+        return (E) resolutions.computeIfAbsent(callSite, key -> Optional.ofNullable(resolver.get())).orElse(null);
+    }
+
+    // Layouts of the class and its ancestors are built top-down once and shared by their subclasses
+    @NotNull
+    public MethodLayout layout(@NotNull AnalyzableClass analyzableClass) {
+        MethodLayout layout = layouts.get(analyzableClass.name().asReference());
+        if (layout != null) {
+            return layout;
+        }
+
+        Deque<AnalyzableClass> chain = new ArrayDeque<>();
+        MethodLayout parentLayout = null;
+        boolean unknownParent = false;
+
+        AnalyzableClass currentClass = analyzableClass;
+        while (true) {
+            chain.push(currentClass);
+            if (chain.size() > classes.size() + 1) {
+                throw new IllegalStateException("Class '%s' has cyclic dependency"
+                        .formatted(analyzableClass.name().value()));
+            }
+
+            ReferenceNode parentName = currentClass.parentClass();
+            if (currentClass.name().value().equals("Any") || parentName.value().isEmpty()) {
+                break;
+            }
+
+            AnalyzableClass parentClass = classes.get(parentName);
+            if (parentClass == null) {
+                unknownParent = true;
+                break;
+            }
+
+            parentLayout = layouts.get(parentName);
+            if (parentLayout != null) {
+                break;
+            }
+
+            currentClass = parentClass;
+        }
+
+        while (!chain.isEmpty()) {
+            currentClass = chain.pop();
+
+            MethodLayout newLayout = MethodLayout.of(currentClass, parentLayout, unknownParent);
+            layout = layouts.putIfAbsent(currentClass.name().asReference(), newLayout);
+            if (layout == null) {
+                layout = newLayout;
+            }
+
+            parentLayout = layout;
+            unknownParent = false;
+        }
+
+        return layout;
+    }
+
+    @Nullable
+    public <A> A attributes(@NotNull TreeNode node, @NotNull Class<A> type) {
+        return type.cast(attributes.get(new NodeKey(node)));
+    }
+
+    public void attribute(@NotNull TreeNode node, @NotNull Object nodeAttributes) {
+        attributes.put(new NodeKey(node), nodeAttributes);
+    }
+
+    public int size() {
+        return resolutions.size();
+    }
+
+    // ===
+
+    @NotNull
+    private static Map<IdentifierNode, List<AnalyzableMethod>> index(@NotNull AnalyzableClass analyzableClass) {
+        Map<IdentifierNode, List<AnalyzableMethod>> methods = new HashMap<>();
+        for (AnalyzableMethod method : analyzableClass.methods().values()) {
+            methods.computeIfAbsent(method.name(), name -> new ArrayList<>()).add(method);
+        }
+
+        methods.replaceAll((name, list) -> Collections.unmodifiableList(list));
+        return methods;
+    }
+
+    public record CallSite(@NotNull ReferenceNode receiver, @NotNull IdentifierNode name,
+                           @NotNull List<ReferenceNode> argumentTypes) {
+
+    }
+
+    // Equal nodes at different places have their own attributes
+    private record NodeKey(@NotNull TreeNode node) {
+
+        @Override
+        public boolean equals(Object object) {
+            return object instanceof NodeKey key && key.node == node;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(node);
+        }
+    }
+}
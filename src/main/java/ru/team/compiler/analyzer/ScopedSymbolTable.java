@@ -0,0 +1,257 @@
+package ru.team.compiler.analyzer;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.Unmodifiable;
+import ru.team.compiler.tree.node.primary.ReferenceNode;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+public final class ScopedSymbolTable implements SymbolTable {
+
+    private static final int NO_SLOT = -1;
+
+    // Name -> topmost slot, older slots with the same name are linked through shadowedSlots
+    private final Map<ReferenceNode, Integer> slots = new HashMap<>();
+    private ReferenceNode[] slotNames = new ReferenceNode[16];
+    // null for names that were assigned without declaration, they still count as initialized
+    private AnalyzableVariable[] slotVariables = new AnalyzableVariable[16];
+    private int[] shadowedSlots = new int[16];
+    private final DefiniteAssignment initializedSlots = new DefiniteAssignment();
+    private int size;
+
+    private int[] scopes = new int[8];
+    private int depth;
+
+    private final Map<ReferenceNode, Integer> fieldSlots = new HashMap<>();
+    private ReferenceNode[] fieldNames = new ReferenceNode[16];
+    private final DefiniteAssignment initializedFieldSlots = new DefiniteAssignment();
+
+    private final Deque<Branch> branches = new ArrayDeque<>();
+
+    @Override
+    @Nullable
+    public AnalyzableVariable variable(@NotNull ReferenceNode name) {
+        int slot = realSlot(name);
+        return slot != NO_SLOT ? slotVariables[slot] : null;
+    }
+
+    @Override
+    @NotNull
+    @Unmodifiable
+    public Map<ReferenceNode, AnalyzableVariable> variables() {
+        Map<ReferenceNode, AnalyzableVariable> variables = new HashMap<>();
+        for (int slot = 0; slot < size; slot++) {
+            if (slotVariables[slot] != null) {
+                variables.put(slotNames[slot], slotVariables[slot]);
+            }
+        }
+
+        return Collections.unmodifiableMap(variables);
+    }
+
+    @Override
+    public boolean isVariableInitialized(@NotNull ReferenceNode name) {
+        for (int slot = topSlot(name); slot != NO_SLOT; slot = shadowedSlots[slot]) {
+            if (initializedSlots.isAssigned(slot)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    @Override
+    public boolean isFieldInitialized(@NotNull ReferenceNode name) {
+        Integer slot = fieldSlots.get(name);
+        return slot != null && initializedFieldSlots.isAssigned(slot);
+    }
+
+    @Override
+    @NotNull
+    @Unmodifiable
+    public Set<ReferenceNode> initializedFields() {
+        Set<ReferenceNode> initializedFields = new HashSet<>();
+        int slot = initializedFieldSlots.nextAssigned(0);
+        while (slot >= 0) {
+            initializedFields.add(fieldNames[slot]);
+            slot = initializedFieldSlots.nextAssigned(slot + 1);
+        }
+
+        return Collections.unmodifiableSet(initializedFields);
+    }
+
+    @Override
+    @NotNull
+    public ScopedSymbolTable declareVariable(@NotNull AnalyzableVariable variable, boolean initialized) {
+        int slot = push(variable.name().asReference(), variable);
+        if (initialized) {
+            initializedSlots.assign(slot);
+        }
+
+        return this;
+    }
+
+    @Override
+    @NotNull
+    public ScopedSymbolTable initializeVariable(@NotNull ReferenceNode name) {
+        int slot = realSlot(name);
+        if (slot == NO_SLOT) {
+            slot = topSlot(name);
+        }
+
+        if (slot == NO_SLOT) {
+            slot = push(name, null);
+        }
+
+        initializedSlots.assign(slot);
+        return this;
+    }
+
+    @Override
+    @NotNull
+    public ScopedSymbolTable initializeField(@NotNull ReferenceNode name) {
+        Integer slot = fieldSlots.get(name);
+        if (slot == null) {
+            slot = fieldSlots.size();
+            if (slot == fieldNames.length) {
+                fieldNames = Arrays.copyOf(fieldNames, slot * 2);
+            }
+
+            fieldNames[slot] = name;
+            fieldSlots.put(name, slot);
+        }
+
+        initializedFieldSlots.assign(slot);
+        return this;
+    }
+
+    @Override
+    @NotNull
+    public ScopedSymbolTable enterExecutable() {
+        return new ScopedSymbolTable();
+    }
+
+    @Override
+    @NotNull
+    public ScopedSymbolTable enterScope() {
+        if (depth == scopes.length) {
+            scopes = Arrays.copyOf(scopes, depth * 2);
+        }
+
+        scopes[depth++] = size;
+        return this;
+    }
+
+    @Override
+    @NotNull
+    public ScopedSymbolTable exitScope(@NotNull SymbolTable scope) {
+        int scopeStart = scopes[--depth];
+
+        while (size > scopeStart) {
+            int slot = --size;
+
+            ReferenceNode name = slotNames[slot];
+            if (shadowedSlots[slot] != NO_SLOT) {
+                slots.put(name, shadowedSlots[slot]);
+            } else {
+                slots.remove(name);
+            }
+
+            slotNames[slot] = null;
+            slotVariables[slot] = null;
+        }
+
+        initializedSlots.truncate(scopeStart);
+
+        return this;
+    }
+
+    @Override
+    @NotNull
+    public ScopedSymbolTable enterBranch() {
+        branches.push(new Branch(initializedSlots.copy(), initializedFieldSlots.copy()));
+        return this;
+    }
+
+    @Override
+    @NotNull
+    public ScopedSymbolTable enterElseBranch(@NotNull SymbolTable thenBranch) {
+        Branch branch = branches.element();
+        branch.thenSlots = initializedSlots.copy();
+        branch.thenFieldSlots = initializedFieldSlots.copy();
+
+        initializedSlots.set(branch.slots);
+        initializedFieldSlots.set(branch.fieldSlots);
+        return this;
+    }
+
+    @Override
+    @NotNull
+    public ScopedSymbolTable exitBranches(@NotNull SymbolTable thenBranch, @Nullable SymbolTable elseBranch) {
+        Branch branch = branches.pop();
+
+        if (elseBranch == null) {
+            initializedSlots.set(branch.slots);
+            initializedFieldSlots.set(branch.fieldSlots);
+        } else {
+            initializedSlots.meet(branch.thenSlots);
+            initializedFieldSlots.meet(branch.thenFieldSlots);
+        }
+
+        return this;
+    }
+
+    // ===
+
+    private int topSlot(@NotNull ReferenceNode name) {
+        Integer slot = slots.get(name);
+        return slot != null ? slot : NO_SLOT;
+    }
+
+    private int realSlot(@NotNull ReferenceNode name) {
+        for (int slot = topSlot(name); slot != NO_SLOT; slot = shadowedSlots[slot]) {
+            if (slotVariables[slot] != null) {
+                return slot;
+            }
+        }
+
+        return NO_SLOT;
+    }
+
+    private int push(@NotNull ReferenceNode name, @Nullable AnalyzableVariable variable) {
+        int slot = size++;
+        if (slot == slotNames.length) {
+            slotNames = Arrays.copyOf(slotNames, slot * 2);
+            slotVariables = Arrays.copyOf(slotVariables, slot * 2);
+            shadowedSlots = Arrays.copyOf(shadowedSlots, slot * 2);
+        }
+
+        slotNames[slot] = name;
+        slotVariables[slot] = variable;
+        shadowedSlots[slot] = topSlot(name);
+        slots.put(name, slot);
+
+        return slot;
+    }
+
+    private static final class Branch {
+
+        private final DefiniteAssignment slots;
+        private final DefiniteAssignment fieldSlots;
+        private DefiniteAssignment thenSlots;
+        private DefiniteAssignment thenFieldSlots;
+
+        private Branch(@NotNull DefiniteAssignment slots, @NotNull DefiniteAssignment fieldSlots) {
+            this.slots = slots;
+            this.fieldSlots = fieldSlots;
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package ru.team.compiler.analyzer;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.Unmodifiable;
+import ru.team.compiler.tree.node.primary.ReferenceNode;
+
+import java.util.Map;
+import java.util.Set;
+
+// Always continue with the returned table: CopyingSymbolTable returns a new one,
+// ScopedSymbolTable is mutated in place and returns itself
+public sealed interface SymbolTable permits CopyingSymbolTable, ScopedSymbolTable {
+
+    @Nullable
+    AnalyzableVariable variable(@NotNull ReferenceNode name);
+
+    @NotNull
+    @Unmodifiable
+    Map<ReferenceNode, AnalyzableVariable> variables();
+
+    boolean isVariableInitialized(@NotNull ReferenceNode name);
+
+    boolean isFieldInitialized(@NotNull ReferenceNode name);
+
+    @NotNull
+    @Unmodifiable
+    Set<ReferenceNode> initializedFields();
+
+    @NotNull
+    SymbolTable declareVariable(@NotNull AnalyzableVariable variable, boolean initialized);
+
+    @NotNull
+    SymbolTable initializeVariable(@NotNull ReferenceNode name);
+
+    @NotNull
+    SymbolTable initializeField(@NotNull ReferenceNode name);
+
+    @NotNull
+    SymbolTable enterExecutable();
+
+    @NotNull
+    SymbolTable enterScope();
+
+    @NotNull
+    SymbolTable exitScope(@NotNull SymbolTable scope);
+
+    @NotNull
+    SymbolTable enterBranch();
+
+    @NotNull
+    SymbolTable enterElseBranch(@NotNull SymbolTable thenBranch);
+
+    @NotNull
+    SymbolTable exitBranches(@NotNull SymbolTable thenBranch, @Nullable SymbolTable elseBranch);
+}
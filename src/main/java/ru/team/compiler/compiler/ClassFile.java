@@ -5,6 +5,7 @@ import org.jetbrains.annotations.Nullable;
 import ru.team.compiler.analyzer.AnalyzableClass;
 import ru.team.compiler.analyzer.AnalyzableMethod;
 import ru.team.compiler.analyzer.AnalyzeContext;
+import ru.team.compiler.compiler.attribute.BytecodeBuffer;
 import ru.team.compiler.compiler.attribute.CodeAttribute;
 import ru.team.compiler.compiler.constant.ClassConstant;
 import ru.team.compiler.compiler.constant.ConstantPool;
@@ -23,19 +24,12 @@ import ru.team.compiler.tree.node.primary.ThisNode;
 import ru.team.compiler.tree.node.statement.BodyNode;
 import ru.team.compiler.tree.node.statement.MethodCallNode;
 import ru.team.compiler.tree.node.statement.ReturnNode;
-import ru.team.compiler.util.Pair;
 
-import java.io.ByteArrayOutputStream;
 import java.io.DataOutput;
-import java.io.DataOutputStream;
 import java.io.IOException;
 import java.lang.reflect.Modifier;
 import java.util.ArrayList;
-import java.util.HashSet;
 import java.util.List;
-import java.util.Map;
-import java.util.Objects;
-import java.util.Set;
 import java.util.stream.Collectors;
 
 public record ClassFile(@NotNull ConstantPool constantPool, boolean isAbstract,
@@ -43,6 +37,11 @@ public record ClassFile(@NotNull ConstantPool constantPool, boolean isAbstract,
                         @NotNull List<CompilationField> fields,
                         @NotNull List<CompilationMethod> methods) {
 
+    public static final int MAJOR_VERSION = 61;
+    // Revision of the emitted code, raised whenever the same program compiles to other class files. Class files
+    // recorded by an incremental compilation with another revision are emitted again
+    public static final int CODEGEN_VERSION = 2;
+
     @NotNull
     public static ClassFile fromNode(@NotNull AnalyzeContext analyzeContext, @NotNull ClassNode classNode) {
         ReferenceNode parentName = classNode.parentName();
@@ -67,62 +66,37 @@ public record ClassFile(@NotNull ConstantPool constantPool, boolean isAbstract,
 
         AnalyzableClass currentClass = analyzeContext.classes().get(classNode.name().asReference());
 
-        Map<AnalyzableMethod.Key, AnalyzableMethod> thisMethods = currentClass.methods();
-
-        AnalyzableClass currentParentClass = currentClass;
-        while (true) {
-            currentParentClass = currentParentClass.findParentClass(analyzeContext, "Class");
-            if (currentParentClass == null) {
-                break;
-            }
-
-            Set<Pair<AnalyzableMethod.Key, ReferenceNode>> bridges = new HashSet<>();
-
-            for (AnalyzableMethod superMethod : currentParentClass.methods().values()) {
-                AnalyzableMethod.Key key = superMethod.key();
-                AnalyzableMethod thisMethod = thisMethods.get(key);
-                if (thisMethod == null) {
-                    continue;
-                }
-
-                Pair<AnalyzableMethod.Key, ReferenceNode> pair = Pair.of(key, superMethod.returnType());
-                if (!bridges.add(pair)) {
-                    continue;
-                }
-
-                IdentifierNode methodName = superMethod.name();
-                Utf8Constant name = constantPool.getUtf(methodName.value());
-                Utf8Constant descriptor = constantPool.getUtf(CompilationUtils.descriptor(superMethod.methodNode()));
-
-                ReferenceNode returnType = superMethod.returnType();
-                if (!Objects.equals(thisMethod.returnType(), returnType)) {
-                    ParametersNode parameters = superMethod.parameters();
-
-                    ExpressionNode expression = new ExpressionNode(
-                            new ThisNode(),
-                            List.of(new ExpressionNode.IdArg(
-                                    methodName,
-                                    new ArgumentsNode(
-                                            parameters.pars().stream()
-                                                    .map(par -> new ExpressionNode(par.type(), List.of()))
-                                                    .collect(Collectors.toList())))));
-
-                    MethodNode methodNode = new MethodNode(
-                            false, false, methodName, parameters, returnType,
-                            new BodyNode(List.of(
-                                    returnType != null
-                                            ? new ReturnNode(expression)
-                                            : new MethodCallNode(expression))));
-
-                    CodeAttribute codeAttribute = new CodeAttribute(constantPool, classNode,
-                            methodNode);
-
-                    // Bridge and synthetic
-                    int modifiers = 0x0040 | 0x1000;
-
-                    methods.add(new CompilationMethod(name, descriptor, codeAttribute, modifiers));
-                }
-            }
+        for (AnalyzableMethod superMethod : analyzeContext.methodTable().layout(currentClass).bridges()) {
+            IdentifierNode methodName = superMethod.name();
+            Utf8Constant name = constantPool.getUtf(methodName.value());
+            Utf8Constant descriptor = constantPool.getUtf(CompilationUtils.descriptor(superMethod.methodNode()));
+
+            ReferenceNode returnType = superMethod.returnType();
+            ParametersNode parameters = superMethod.parameters();
+
+            ExpressionNode expression = new ExpressionNode(
+                    new ThisNode(),
+                    List.of(new ExpressionNode.IdArg(
+                            methodName,
+                            new ArgumentsNode(
+                                    parameters.pars().stream()
+                                            .map(par -> new ExpressionNode(par.type(), List.of()))
+                                            .collect(Collectors.toList())))));
+
+            MethodNode methodNode = new MethodNode(
+                    false, false, methodName, parameters, returnType,
+                    new BodyNode(List.of(
+                            returnType != null
+                                    ? new ReturnNode(expression)
+                                    : new MethodCallNode(expression))));
+
+            CodeAttribute codeAttribute = new CodeAttribute(constantPool, classNode,
+                    methodNode);
+
+            // Bridge and synthetic
+            int modifiers = 0x0040 | 0x1000;
+
+            methods.add(new CompilationMethod(name, descriptor, codeAttribute, modifiers));
         }
 
         return new ClassFile(
@@ -142,8 +116,8 @@ public record ClassFile(@NotNull ConstantPool constantPool, boolean isAbstract,
     public void compile(@NotNull CompilationContext context, @NotNull DataOutput dataOutput) throws IOException {
         dataOutput.writeInt(0xCAFEBABE);
 
-        dataOutput.writeShort(0); // Java 6
-        dataOutput.writeShort(50);
+        dataOutput.writeShort(0); // Java 17, methods carry StackMapTable frames for the type checking verifier
+        dataOutput.writeShort(MAJOR_VERSION);
 
         ClassConstant thisClass = CompilationUtils.oClass(constantPool, className);
 
@@ -159,8 +133,7 @@ public record ClassFile(@NotNull ConstantPool constantPool, boolean isAbstract,
         }
 
         // Firstly, compile methods and fields, because they change ConstantPool
-        ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream(1024);
-        DataOutputStream byteDataOutput = new DataOutputStream(byteArrayOutputStream);
+        BytecodeBuffer byteDataOutput = new BytecodeBuffer(4096);
 
         byteDataOutput.writeShort(accessFlags());
 
@@ -188,6 +161,6 @@ public record ClassFile(@NotNull ConstantPool constantPool, boolean isAbstract,
         // Secondly, compile ConstantPool and add everything else
         constantPool.compile(dataOutput);
 
-        dataOutput.write(byteArrayOutputStream.toByteArray());
+        byteDataOutput.writeTo(dataOutput);
     }
 }
@@ -0,0 +1,207 @@
+package ru.team.compiler.compiler;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import ru.team.compiler.analyzer.AnalyzableMethod;
+import ru.team.compiler.compiler.attribute.BytecodeBuffer;
+import ru.team.compiler.compiler.constant.ClassConstant;
+import ru.team.compiler.compiler.constant.ConstantPool;
+import ru.team.compiler.compiler.constant.MethodRefConstant;
+import ru.team.compiler.tree.node.expression.IdentifierNode;
+import ru.team.compiler.tree.node.primary.ReferenceNode;
+import ru.team.compiler.util.Bytes;
+import ru.team.compiler.util.Opcodes;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Standard classes wrapping a JVM primitive. Their values are kept unboxed in locals and on the stack and
+// their methods are emitted as instructions, an olang object is created only where the value escapes
+public enum PrimitiveType {
+
+    INTEGER("Integer", "I"),
+    REAL("Real", "F"),
+    BOOLEAN("Boolean", "Z");
+
+    private static final Map<PrimitiveType, Map<AnalyzableMethod.Key, Operation>> OPERATIONS =
+            new EnumMap<>(PrimitiveType.class);
+
+    static {
+        for (PrimitiveType primitiveType : values()) {
+            OPERATIONS.put(primitiveType, new HashMap<>());
+        }
+
+        binary(INTEGER, "add", INTEGER, Opcodes.IADD);
+        binary(INTEGER, "subtract", INTEGER, Opcodes.ISUB);
+        binary(INTEGER, "multiply", INTEGER, Opcodes.IMUL);
+        binary(INTEGER, "divide", INTEGER, Opcodes.IDIV);
+        comparison(INTEGER, "equal", Opcodes.IF_ICMPEQ);
+        comparison(INTEGER, "greater", Opcodes.IF_ICMPGT);
+        comparison(INTEGER, "greaterOrEqual", Opcodes.IF_ICMPGE);
+        comparison(INTEGER, "lower", Opcodes.IF_ICMPLT);
+        comparison(INTEGER, "lowerOrEqual", Opcodes.IF_ICMPLE);
+        unary(INTEGER, "toReal", REAL, Opcodes.I2F);
+
+        binary(REAL, "add", REAL, Opcodes.FADD);
+        binary(REAL, "subtract", REAL, Opcodes.FSUB);
+        binary(REAL, "multiply", REAL, Opcodes.FMUL);
+        binary(REAL, "divide", REAL, Opcodes.FDIV);
+        // fcmpl and fcmpg push -1 and 1 for NaN, so every comparison with NaN is false like in Java
+        comparison(REAL, "equal", Opcodes.FCMPL, Opcodes.IFEQ);
+        comparison(REAL, "greater", Opcodes.FCMPL, Opcodes.IFGT);
+        comparison(REAL, "greaterOrEqual", Opcodes.FCMPL, Opcodes.IFGE);
+        comparison(REAL, "lower", Opcodes.FCMPG, Opcodes.IFLT);
+        comparison(REAL, "lowerOrEqual", Opcodes.FCMPG, Opcodes.IFLE);
+        unary(REAL, "toInteger", INTEGER, Opcodes.F2I);
+
+        // Both operands are evaluated before the call, as they are for the methods
+        binary(BOOLEAN, "and", BOOLEAN, Opcodes.IAND);
+        binary(BOOLEAN, "or", BOOLEAN, Opcodes.IOR);
+        binary(BOOLEAN, "xor", BOOLEAN, Opcodes.IXOR);
+        operation(BOOLEAN, "not", List.of(), new Operation(BOOLEAN,
+                Bytes.of((byte) Opcodes.ICONST_1, (byte) Opcodes.IXOR), Operation.NO_BRANCH));
+    }
+
+    private final ReferenceNode type;
+    private final String descriptor;
+
+    PrimitiveType(@NotNull String type, @NotNull String descriptor) {
+        this.type = new ReferenceNode(type);
+        this.descriptor = descriptor;
+    }
+
+    @NotNull
+    public ReferenceNode type() {
+        return type;
+    }
+
+    @Nullable
+    public static PrimitiveType of(@NotNull ReferenceNode type) {
+        for (PrimitiveType primitiveType : values()) {
+            if (primitiveType.type.equals(type)) {
+                return primitiveType;
+            }
+        }
+
+        return null;
+    }
+
+    // Instructions for a call of the method on an unboxed receiver of the type, null for a regular call
+    @Nullable
+    public Operation operation(@NotNull AnalyzableMethod method) {
+        if (!method.declaredClass().name().asReference().equals(type)) {
+            return null;
+        }
+
+        return OPERATIONS.get(this).get(method.key());
+    }
+
+    // value -> olang object
+    public void box(@NotNull CompilationContext context, @NotNull ConstantPool constantPool,
+                    @NotNull DataOutput dataOutput) throws IOException {
+        // new (#X)
+        ClassConstant oClass = CompilationUtils.oClass(constantPool, type.value());
+        dataOutput.writeByte(Opcodes.NEW);
+        dataOutput.writeShort(oClass.index());
+
+        // dup_x1, so we will have: object | value | object at the stack
+        dataOutput.writeByte(Opcodes.DUP_X1);
+        // and swap them to get: object | object | value
+        dataOutput.writeByte(Opcodes.SWAP);
+
+        context.incrementStackSize(2); // new + dup_x1
+
+        // invokespecial (#X.<init>(X))
+        MethodRefConstant oMethod = CompilationUtils.oMethod(constantPool, type.value(), "<init>",
+                "(" + descriptor + ")V");
+        dataOutput.writeByte(Opcodes.INVOKESPECIAL);
+        dataOutput.writeShort(oMethod.index());
+
+        context.decrementStackSize(2); // invokespecial for this and value
+    }
+
+    // olang object -> value
+    public void unbox(@NotNull ConstantPool constantPool, @NotNull DataOutput dataOutput) throws IOException {
+        // invokevirtual (#X.java$value()X)
+        MethodRefConstant oMethod = CompilationUtils.oMethod(constantPool, type.value(), "java$value",
+                "()" + descriptor);
+        dataOutput.writeByte(Opcodes.INVOKEVIRTUAL);
+        dataOutput.writeShort(oMethod.index());
+    }
+
+    public byte @NotNull [] load(@NotNull ConstantPool constantPool, int index) {
+        return this == REAL ? Opcodes.fload(constantPool, index) : Opcodes.iload(constantPool, index);
+    }
+
+    public byte @NotNull [] store(@NotNull ConstantPool constantPool, int index) {
+        return this == REAL ? Opcodes.fstore(constantPool, index) : Opcodes.istore(constantPool, index);
+    }
+
+    private static void binary(@NotNull PrimitiveType receiverType, @NotNull String name,
+                               @NotNull PrimitiveType resultType, int opcode) {
+        operation(receiverType, name, List.of(receiverType.type),
+                new Operation(resultType, Bytes.of((byte) opcode), Operation.NO_BRANCH));
+    }
+
+    private static void unary(@NotNull PrimitiveType receiverType, @NotNull String name,
+                              @NotNull PrimitiveType resultType, int opcode) {
+        operation(receiverType, name, List.of(), new Operation(resultType, Bytes.of((byte) opcode),
+                Operation.NO_BRANCH));
+    }
+
+    private static void comparison(@NotNull PrimitiveType receiverType, @NotNull String name, int branchOpcode) {
+        operation(receiverType, name, List.of(receiverType.type), new Operation(BOOLEAN, Bytes.of(), branchOpcode));
+    }
+
+    private static void comparison(@NotNull PrimitiveType receiverType, @NotNull String name, int opcode,
+                                   int branchOpcode) {
+        operation(receiverType, name, List.of(receiverType.type), new Operation(BOOLEAN, Bytes.of((byte) opcode),
+                branchOpcode));
+    }
+
+    private static void operation(@NotNull PrimitiveType receiverType, @NotNull String name,
+                                  @NotNull List<ReferenceNode> parameterTypes, @NotNull Operation operation) {
+        OPERATIONS.get(receiverType).put(new AnalyzableMethod.Key(new IdentifierNode(name), parameterTypes),
+                operation);
+    }
+
+    // Code run on the unboxed receiver and arguments. Comparisons end with a branch taken when the result
+    // is true
+    public record Operation(@NotNull PrimitiveType resultType, byte @NotNull [] code, int branchOpcode) {
+
+        public static final int NO_BRANCH = -1;
+
+        public boolean isComparison() {
+            return branchOpcode != NO_BRANCH;
+        }
+
+        // Only integer division throws, on a zero divisor
+        public boolean canFail() {
+            return code.length == 1 && code[0] == (byte) Opcodes.IDIV;
+        }
+
+        public void compile(@NotNull CompilationContext context, int arguments,
+                            @NotNull BytecodeBuffer dataOutput) throws IOException {
+            dataOutput.write(code);
+
+            if (isComparison()) {
+                BytecodeBuffer.Label trueLabel = dataOutput.newLabel();
+                BytecodeBuffer.Label endLabel = dataOutput.newLabel();
+
+                // if<cond> (#true); iconst_0; goto (#end); true: iconst_1; end:
+                dataOutput.jump(branchOpcode, trueLabel);
+                dataOutput.writeByte(Opcodes.ICONST_0);
+                dataOutput.jump(Opcodes.GOTO, endLabel);
+                dataOutput.mark(trueLabel);
+                dataOutput.writeByte(Opcodes.ICONST_1);
+                dataOutput.mark(endLabel);
+            }
+
+            context.decrementStackSize(arguments); // arguments are consumed with the receiver, result is left
+        }
+    }
+}
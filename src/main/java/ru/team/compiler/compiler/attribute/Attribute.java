@@ -8,7 +8,7 @@ import ru.team.compiler.compiler.constant.Utf8Constant;
 import java.io.DataOutput;
 import java.io.IOException;
 
-public abstract sealed class Attribute permits CodeAttribute {
+public abstract sealed class Attribute permits CodeAttribute, StackMapTableAttribute {
 
     protected final Utf8Constant attributeName;
 
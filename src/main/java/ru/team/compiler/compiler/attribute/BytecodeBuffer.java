@@ -0,0 +1,326 @@
+package ru.team.compiler.compiler.attribute;
+
+import org.jetbrains.annotations.NotNull;
+import ru.team.compiler.util.Opcodes;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.UTFDataFormatException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Growable output for the code of a method. Jumps refer to labels and their offsets are written once the label
+// is placed, so nested statements are emitted in place instead of being compiled apart and copied.
+//
+// Jumps are emitted in their short forms. When an offset does not fit into 16 bits, the code is relaxed as it is
+// taken out: such a goto becomes goto_w and such an if<cond> becomes if<!cond> over a goto_w
+public final class BytecodeBuffer implements DataOutput {
+
+    private static final int GOTO_W_GROWTH = 2;
+    private static final int CONDITIONAL_GROWTH = 5;
+
+    private byte[] bytes;
+    private int size;
+
+    private final List<Jump> jumps = new ArrayList<>();
+    private boolean overflow;
+
+    public BytecodeBuffer() {
+        this(1024);
+    }
+
+    public BytecodeBuffer(int capacity) {
+        this.bytes = new byte[capacity];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    @NotNull
+    public Label newLabel() {
+        return new Label();
+    }
+
+    // Places the label at the current position and writes the offsets of the jumps to it emitted before
+    public void mark(@NotNull Label label) {
+        if (label.position != -1) {
+            throw new IllegalStateException("Label is already placed at " + label.position);
+        }
+
+        label.position = size;
+        for (int jump : label.pendingJumps) {
+            putOffset(jump, size - jump);
+        }
+
+        label.pendingJumps.clear();
+    }
+
+    // <opcode> (#label), the offset is relative to the jump
+    public void jump(int opcode, @NotNull Label label) {
+        int position = size;
+        jumps.add(new Jump(position, opcode, label));
+
+        writeByte(opcode);
+        writeShort(0);
+
+        if (label.position != -1) {
+            putOffset(position, label.position - position);
+        } else {
+            label.pendingJumps.add(position);
+        }
+    }
+
+    public byte @NotNull [] toByteArray() {
+        return overflow ? relax() : Arrays.copyOf(bytes, size);
+    }
+
+    public void writeTo(@NotNull DataOutput dataOutput) throws IOException {
+        if (overflow) {
+            dataOutput.write(relax());
+        } else {
+            dataOutput.write(bytes, 0, size);
+        }
+    }
+
+    private void putOffset(int jump, int offset) {
+        if (!isShort(offset)) {
+            // Written by the relaxation
+            overflow = true;
+            return;
+        }
+
+        putShort(bytes, jump + 1, offset);
+    }
+
+    // Widening a jump moves the code after it, which can push other offsets out of 16 bits, so jumps are widened
+    // until the offsets of the remaining short ones fit. Jumps only grow, so it ends
+    private byte @NotNull [] relax() {
+        int count = jumps.size();
+        boolean[] wide = new boolean[count];
+        // Growth of the code before the jump, the last one is the growth of the whole code
+        int[] shifts = new int[count + 1];
+
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+
+            for (int i = 0; i < count; i++) {
+                Jump jump = jumps.get(i);
+                shifts[i + 1] = shifts[i] + (wide[i] ? growth(jump.opcode()) : 0);
+            }
+
+            for (int i = 0; i < count; i++) {
+                Jump jump = jumps.get(i);
+                if (!wide[i] && !isShort(relaxedPosition(jump.label(), shifts) - (jump.position() + shifts[i]))) {
+                    wide[i] = true;
+                    changed = true;
+                }
+            }
+        }
+
+        byte[] relaxed = new byte[size + shifts[count]];
+        int from = 0;
+        int to = 0;
+        for (int i = 0; i < count; i++) {
+            Jump jump = jumps.get(i);
+
+            System.arraycopy(bytes, from, relaxed, to, jump.position() - from);
+            to += jump.position() - from;
+            from = jump.position() + 3;
+
+            int target = relaxedPosition(jump.label(), shifts);
+            if (!wide[i]) {
+                relaxed[to] = (byte) jump.opcode();
+                putShort(relaxed, to + 1, target - to);
+                to += 3;
+            } else if (jump.opcode() == Opcodes.GOTO) {
+                // goto_w (#label)
+                relaxed[to] = (byte) Opcodes.GOTO_W;
+                putInt(relaxed, to + 1, target - to);
+                to += 5;
+            } else {
+                // if<!cond> (#next); goto_w (#label); next:
+                relaxed[to] = (byte) Opcodes.negate(jump.opcode());
+                putShort(relaxed, to + 1, 8);
+                relaxed[to + 3] = (byte) Opcodes.GOTO_W;
+                putInt(relaxed, to + 4, target - (to + 3));
+                to += 8;
+            }
+        }
+
+        System.arraycopy(bytes, from, relaxed, to, size - from);
+        return relaxed;
+    }
+
+    private int relaxedPosition(@NotNull Label label, int @NotNull [] shifts) {
+        if (label.position == -1) {
+            throw new IllegalStateException("Label is not placed");
+        }
+
+        // Jumps before the position move it, a jump at the position stays after it
+        int low = 0;
+        int high = jumps.size();
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (jumps.get(middle).position() < label.position) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+
+        return label.position + shifts[low];
+    }
+
+    private static int growth(int opcode) {
+        return opcode == Opcodes.GOTO ? GOTO_W_GROWTH : CONDITIONAL_GROWTH;
+    }
+
+    private static boolean isShort(int offset) {
+        return offset >= Short.MIN_VALUE && offset <= Short.MAX_VALUE;
+    }
+
+    private static void putShort(byte @NotNull [] bytes, int index, int value) {
+        bytes[index] = (byte) (value >> 8);
+        bytes[index + 1] = (byte) value;
+    }
+
+    private static void putInt(byte @NotNull [] bytes, int index, int value) {
+        bytes[index] = (byte) (value >> 24);
+        bytes[index + 1] = (byte) (value >> 16);
+        bytes[index + 2] = (byte) (value >> 8);
+        bytes[index + 3] = (byte) value;
+    }
+
+    private void ensureCapacity(int additional) {
+        if (size + additional > bytes.length) {
+            bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, size + additional));
+        }
+    }
+
+    @Override
+    public void write(int b) {
+        ensureCapacity(1);
+        bytes[size++] = (byte) b;
+    }
+
+    @Override
+    public void write(byte @NotNull [] b) {
+        write(b, 0, b.length);
+    }
+
+    @Override
+    public void write(byte @NotNull [] b, int off, int len) {
+        ensureCapacity(len);
+        System.arraycopy(b, off, bytes, size, len);
+        size += len;
+    }
+
+    @Override
+    public void writeBoolean(boolean v) {
+        write(v ? 1 : 0);
+    }
+
+    @Override
+    public void writeByte(int v) {
+        write(v);
+    }
+
+    @Override
+    public void writeShort(int v) {
+        ensureCapacity(2);
+        bytes[size++] = (byte) (v >> 8);
+        bytes[size++] = (byte) v;
+    }
+
+    @Override
+    public void writeChar(int v) {
+        writeShort(v);
+    }
+
+    @Override
+    public void writeInt(int v) {
+        ensureCapacity(4);
+        bytes[size++] = (byte) (v >> 24);
+        bytes[size++] = (byte) (v >> 16);
+        bytes[size++] = (byte) (v >> 8);
+        bytes[size++] = (byte) v;
+    }
+
+    @Override
+    public void writeLong(long v) {
+        writeInt((int) (v >> 32));
+        writeInt((int) v);
+    }
+
+    @Override
+    public void writeFloat(float v) {
+        writeInt(Float.floatToIntBits(v));
+    }
+
+    @Override
+    public void writeDouble(double v) {
+        writeLong(Double.doubleToLongBits(v));
+    }
+
+    @Override
+    public void writeBytes(@NotNull String s) {
+        for (int i = 0; i < s.length(); i++) {
+            write(s.charAt(i));
+        }
+    }
+
+    @Override
+    public void writeChars(@NotNull String s) {
+        for (int i = 0; i < s.length(); i++) {
+            writeChar(s.charAt(i));
+        }
+    }
+
+    // Modified UTF-8 as in DataOutputStream: the null character and surrogates take two and three bytes
+    @Override
+    public void writeUTF(@NotNull String s) throws IOException {
+        int length = 0;
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            length += c >= 0x0001 && c <= 0x007F ? 1 : c <= 0x07FF ? 2 : 3;
+        }
+
+        if (length > 0xFFFF) {
+            throw new UTFDataFormatException("Encoded string is too long: " + length + " bytes");
+        }
+
+        writeShort(length);
+        ensureCapacity(length);
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c >= 0x0001 && c <= 0x007F) {
+                bytes[size++] = (byte) c;
+            } else if (c <= 0x07FF) {
+                bytes[size++] = (byte) (0xC0 | (c >> 6));
+                bytes[size++] = (byte) (0x80 | (c & 0x3F));
+            } else {
+                bytes[size++] = (byte) (0xE0 | (c >> 12));
+                bytes[size++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                bytes[size++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+    }
+
+    // Position in the code a jump can refer to before it is known
+    public static final class Label {
+
+        private int position = -1;
+        private final List<Integer> pendingJumps = new ArrayList<>();
+
+        private Label() {
+
+        }
+    }
+
+    private record Jump(int position, int opcode, @NotNull Label label) {
+
+    }
+}
@@ -1,8 +1,13 @@
 package ru.team.compiler.compiler.attribute;
 
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import ru.team.compiler.analyzer.AnalyzableClass;
 import ru.team.compiler.analyzer.AnalyzableVariable;
+import ru.team.compiler.analyzer.AnalyzeContext;
 import ru.team.compiler.compiler.CompilationContext;
+import ru.team.compiler.compiler.CompilationUtils;
+import ru.team.compiler.compiler.PrimitiveType;
 import ru.team.compiler.compiler.constant.ConstantPool;
 import ru.team.compiler.tree.node.clas.ClassNode;
 import ru.team.compiler.tree.node.clas.ConstructorNode;
@@ -10,6 +15,7 @@ import ru.team.compiler.tree.node.clas.MethodNode;
 import ru.team.compiler.tree.node.clas.ParametersNode;
 import ru.team.compiler.tree.node.expression.IdentifierNode;
 import ru.team.compiler.tree.node.primary.ReferenceNode;
+import ru.team.compiler.tree.node.statement.AssignmentNode;
 import ru.team.compiler.tree.node.statement.BodyNode;
 import ru.team.compiler.tree.node.statement.ReturnNode;
 import ru.team.compiler.tree.node.statement.StatementNode;
@@ -17,14 +23,14 @@ import ru.team.compiler.tree.node.statement.VariableDeclarationNode;
 import ru.team.compiler.util.Opcodes;
 import ru.team.compiler.util.Unsigned;
 
-import java.io.ByteArrayOutputStream;
 import java.io.DataOutput;
-import java.io.DataOutputStream;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 public final class CodeAttribute extends Attribute {
@@ -34,36 +40,45 @@ public final class CodeAttribute extends Attribute {
     private final ParametersNode parametersNode;
     private final BodyNode bodyNode;
     private final CompilationExecutable compilationExecutable;
+    private final MethodNode methodNode;
+    private final ConstructorNode constructorNode;
 
     public CodeAttribute(@NotNull ConstantPool constantPool, @NotNull ClassNode classNode,
                          @NotNull IdentifierNode name, @NotNull ParametersNode parametersNode,
                          @NotNull BodyNode bodyNode) {
-        super(constantPool.getUtf("Code"));
-
-        this.classNode = classNode;
-        this.name = name;
-        this.parametersNode = parametersNode;
-        this.bodyNode = bodyNode;
-        this.compilationExecutable = new CompilationExecutable(classNode, name, parametersNode);
+        this(constantPool, classNode, name, parametersNode, bodyNode, null, null);
     }
 
     public CodeAttribute(@NotNull ConstantPool constantPool, @NotNull ClassNode classNode,
                          @NotNull MethodNode methodNode) {
-        this(constantPool, classNode, methodNode.name(), methodNode.parameters(), methodNode.body());
+        this(constantPool, classNode, methodNode.name(), methodNode.parameters(), methodNode.body(),
+                methodNode, null);
     }
 
     public CodeAttribute(@NotNull ConstantPool constantPool, @NotNull ClassNode classNode,
                          @NotNull ConstructorNode constructorNode) {
         this(constantPool, classNode, new IdentifierNode("<init>"), constructorNode.parameters(),
-                constructorNode.body());
+                constructorNode.body(), null, constructorNode);
+    }
+
+    private CodeAttribute(@NotNull ConstantPool constantPool, @NotNull ClassNode classNode,
+                          @NotNull IdentifierNode name, @NotNull ParametersNode parametersNode,
+                          @NotNull BodyNode bodyNode, @Nullable MethodNode methodNode,
+                          @Nullable ConstructorNode constructorNode) {
+        super(constantPool.getUtf("Code"));
+
+        this.classNode = classNode;
+        this.name = name;
+        this.parametersNode = parametersNode;
+        this.bodyNode = bodyNode;
+        this.compilationExecutable = new CompilationExecutable(classNode, name, parametersNode);
+        this.methodNode = methodNode;
+        this.constructorNode = constructorNode;
     }
 
     @Override
     public void compile(@NotNull CompilationContext context, @NotNull ConstantPool constantPool,
                         @NotNull DataOutput dataOutput) throws IOException {
-        ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream(1024);
-        DataOutput byteDataOutput = new DataOutputStream(byteArrayOutputStream);
-
         List<AnalyzableVariable> locals = new ArrayList<>();
 
         locals.addAll(parametersNode.pars().stream()
@@ -89,56 +104,152 @@ public final class CodeAttribute extends Attribute {
             variables.put(local.name().asReference(), local);
         }
 
-        // Code
-        context = new CompilationContext(context.analyzeContext()
-                .withClass(classNode)
-                .withVariables(variables));
-        byte[] bytes = compileBodyNode(context, constantPool, variablePool);
-        byteDataOutput.writeInt(bytes.length);
-        byteDataOutput.write(bytes);
+        // Code, expressions that were not analyzed are attributed against this context
+        AnalyzeContext analyzeContext = context.analyzeContext().withClass(classNode);
+        if (methodNode != null) {
+            analyzeContext = analyzeContext.withMethod(methodNode);
+        } else if (constructorNode != null) {
+            analyzeContext = analyzeContext.withConstructor(constructorNode);
+        }
 
-        // Exceptions
-        byteDataOutput.writeShort(0);
+        context = new CompilationContext(analyzeContext.withVariables(variables));
+        unboxVariables(context, variablePool);
 
-        // Attributes
-        byteDataOutput.writeShort(0);
+        BytecodeBuffer code = new BytecodeBuffer();
+        compileBodyNode(context, constantPool, variablePool, code);
+        byte[] bytes = code.toByteArray();
+        if (bytes.length > Unsigned.MAX_SHORT) {
+            throw new IOException("There can be at maximum %d bytes of code, got %d"
+                    .formatted(Unsigned.MAX_SHORT, bytes.length));
+        }
+
+        // Frames are computed before the code is written, unreachable code is replaced there
+        List<VerificationType> initialLocals = new ArrayList<>();
+        initialLocals.add(name.value().equals("<init>")
+                ? VerificationType.UNINITIALIZED_THIS
+                : VerificationType.object(CompilationUtils.OLANG_PACKAGE + "/" + classNode.name().value()));
+        for (ParametersNode.Par par : parametersNode.pars()) {
+            initialLocals.add(VerificationType.object(CompilationUtils.OLANG_PACKAGE + "/" + par.type().value()));
+        }
+
+        AnalyzeContext classesContext = context.analyzeContext();
+        List<StackMapTableAttribute.Frame> frames = FrameComputation.compute(bytes, constantPool,
+                CompilationUtils.OLANG_PACKAGE + "/" + classNode.name().value(), initialLocals, maxLocals,
+                className -> superClass(classesContext, className));
+
+        // Attributes, the size of the frames is needed before they are written
+        BytecodeBuffer attributes = new BytecodeBuffer(frames.isEmpty() ? 2 : 64);
+        if (frames.isEmpty()) {
+            attributes.writeShort(0);
+        } else {
+            attributes.writeShort(1);
+
+            StackMapTableAttribute stackMapTable = new StackMapTableAttribute(constantPool,
+                    new StackMapTableAttribute.Frame(-1, FrameComputation.trim(
+                            initialLocals.toArray(VerificationType[]::new)), List.of()),
+                    frames);
+            stackMapTable.compile(context, constantPool, attributes);
+        }
 
         // ---
 
         dataOutput.writeShort(attributeName.index());
 
-        dataOutput.writeInt(4 + byteArrayOutputStream.size()); // maxStacks + maxLocals + code
+        // maxStacks + maxLocals + code + exceptions + attributes
+        dataOutput.writeInt(2 + 2 + 4 + bytes.length + 2 + attributes.size());
 
         int maxStack = context.maxStackSize().get();
 
         dataOutput.writeShort(maxStack);
         dataOutput.writeShort(maxLocals);
 
-        dataOutput.write(byteArrayOutputStream.toByteArray());
+        dataOutput.writeInt(bytes.length);
+        dataOutput.write(bytes);
+
+        // Exceptions
+        dataOutput.writeShort(0);
+
+        attributes.writeTo(dataOutput);
+    }
+
+    @Nullable
+    private static String superClass(@NotNull AnalyzeContext context, @NotNull String className) {
+        String prefix = CompilationUtils.OLANG_PACKAGE + "/";
+        if (!className.startsWith(prefix)) {
+            return className.equals("java/lang/Object") ? null : "java/lang/Object";
+        }
+
+        AnalyzableClass analyzableClass = context.classes().get(new ReferenceNode(className.substring(prefix.length())));
+        if (analyzableClass == null || analyzableClass.name().value().equals("Any")
+                || analyzableClass.parentClass().value().isEmpty()) {
+            return "java/lang/Object";
+        }
+
+        return prefix + analyzableClass.parentClass().value();
     }
 
-    private byte @NotNull [] compileBodyNode(@NotNull CompilationContext context, @NotNull ConstantPool constantPool,
-                                             @NotNull CodeAttribute.VariablePool variablePool) throws IOException {
-        ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream(1024);
-        DataOutputStream byteDataOutput = new DataOutputStream(byteArrayOutputStream);
+    // Variables of the standard primitive types are kept unboxed when every value assigned to them is produced
+    // unboxed, a variable assigned the result of a regular call keeps the object it gets
+    private void unboxVariables(@NotNull CompilationContext context, @NotNull VariablePool variablePool) {
+        List<StatementNode> statements = bodyNode.flatStatements();
+
+        Map<String, PrimitiveType> primitiveTypes = new HashMap<>();
+        Set<String> boxed = new HashSet<>();
+        for (ParametersNode.Par par : parametersNode.pars()) {
+            boxed.add(par.name().value());
+        }
+
+        for (StatementNode statementNode : statements) {
+            if (statementNode instanceof VariableDeclarationNode declaration) {
+                String name = declaration.name().value();
+                PrimitiveType primitiveType = PrimitiveType.of(declaration.type());
+
+                // Variables of different blocks share the slot of their name
+                PrimitiveType previous = primitiveTypes.put(name, primitiveType);
+                if (primitiveType == null || (previous != null && previous != primitiveType)) {
+                    boxed.add(name);
+                }
+            }
+        }
 
+        primitiveTypes.keySet().removeAll(boxed);
+
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            for (StatementNode statementNode : statements) {
+                if (statementNode instanceof AssignmentNode assignment && assignment.isLocal()
+                        && primitiveTypes.containsKey(assignment.referenceNode().value())
+                        && !assignment.valueExpression().isPrimitive(context, primitiveTypes::containsKey)) {
+                    primitiveTypes.remove(assignment.referenceNode().value());
+                    changed = true;
+                }
+            }
+        }
+
+        primitiveTypes.forEach(variablePool::setPrimitiveType);
+    }
+
+    // Statements of the whole method are emitted into the one buffer
+    private void compileBodyNode(@NotNull CompilationContext context, @NotNull ConstantPool constantPool,
+                                 @NotNull CodeAttribute.VariablePool variablePool,
+                                 @NotNull BytecodeBuffer code) throws IOException {
         StatementNode lastStatement = null;
         for (StatementNode statementNode : bodyNode.statements()) {
-            statementNode.compile(context, classNode, constantPool, variablePool, compilationExecutable, byteDataOutput);
+            statementNode.compile(context, classNode, constantPool, variablePool, compilationExecutable, code);
             lastStatement = statementNode;
         }
 
         if (!(lastStatement instanceof ReturnNode)) {
-            byteDataOutput.writeByte(Opcodes.RETURN);
+            code.writeByte(Opcodes.RETURN);
         }
-
-        return byteArrayOutputStream.toByteArray();
     }
 
     public static final class VariablePool {
 
         private final List<String> variables = new ArrayList<>();
         private final Map<String, Integer> variableToIndex = new HashMap<>();
+        private final Map<String, PrimitiveType> primitiveTypes = new HashMap<>();
 
         public void add(@NotNull String variable) {
             variableToIndex.computeIfAbsent(variable, k -> {
@@ -165,5 +276,20 @@ public final class CodeAttribute extends Attribute {
             return index;
         }
 
+        public void setPrimitiveType(@NotNull String variable, @NotNull PrimitiveType primitiveType) {
+            getIndex(variable);
+            primitiveTypes.put(variable, primitiveType);
+        }
+
+        // Type of the value held unboxed by the variable, null when it holds an olang object
+        @Nullable
+        public PrimitiveType getPrimitiveType(@NotNull String variable) {
+            return primitiveTypes.get(variable);
+        }
+
+        public boolean isUnboxed(@NotNull String variable) {
+            return primitiveTypes.containsKey(variable);
+        }
+
     }
 }
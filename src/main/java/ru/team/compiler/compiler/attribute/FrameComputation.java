@@ -0,0 +1,374 @@
+package ru.team.compiler.compiler.attribute;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import ru.team.compiler.compiler.constant.ClassConstant;
+import ru.team.compiler.compiler.constant.Constant;
+import ru.team.compiler.compiler.constant.ConstantPool;
+import ru.team.compiler.compiler.constant.FieldRefConstant;
+import ru.team.compiler.compiler.constant.FloatConstant;
+import ru.team.compiler.compiler.constant.MethodRefConstant;
+import ru.team.compiler.util.Opcodes;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+
+// Follows every path through the code of a method the way the type checking verifier does and keeps the types
+// of the locals and the stack where paths join. Code that no path reaches is replaced by nops ending with
+// athrow, as the verifier needs a frame for it too
+final class FrameComputation {
+
+    private static final String THROWABLE = "java/lang/Throwable";
+    private static final String OBJECT = "java/lang/Object";
+
+    private final byte[] code;
+    private final ConstantPool constantPool;
+    private final String className;
+    private final Function<String, String> superClassFunction;
+
+    // Types before every instruction, null while it was not reached
+    private final State[] states;
+    private final boolean[] targets;
+    private final Deque<Integer> queue = new ArrayDeque<>();
+
+    private FrameComputation(byte @NotNull [] code, @NotNull ConstantPool constantPool, @NotNull String className,
+                             @NotNull Function<String, String> superClassFunction) {
+        this.code = code;
+        this.constantPool = constantPool;
+        this.className = className;
+        this.superClassFunction = superClassFunction;
+        this.states = new State[code.length];
+        this.targets = new boolean[code.length];
+    }
+
+    // Frames at every branch target and start of unreachable code, superClassFunction gives the internal name
+    // of the super class of a class or null for java/lang/Object
+    @NotNull
+    static List<StackMapTableAttribute.Frame> compute(byte @NotNull [] code, @NotNull ConstantPool constantPool,
+                                                      @NotNull String className,
+                                                      @NotNull List<VerificationType> initialLocals, int maxLocals,
+                                                      @NotNull Function<String, String> superClassFunction) {
+        FrameComputation computation = new FrameComputation(code, constantPool, className, superClassFunction);
+
+        VerificationType[] locals = new VerificationType[maxLocals];
+        Arrays.fill(locals, VerificationType.TOP);
+        for (int i = 0; i < initialLocals.size(); i++) {
+            locals[i] = initialLocals.get(i);
+        }
+
+        computation.states[0] = new State(locals, new ArrayList<>());
+        computation.queue.push(0);
+        while (!computation.queue.isEmpty()) {
+            computation.run(computation.queue.pop());
+        }
+
+        return computation.frames();
+    }
+
+    @NotNull
+    static List<VerificationType> trim(@NotNull VerificationType @NotNull [] locals) {
+        int size = locals.length;
+        while (size > 0 && locals[size - 1] == VerificationType.TOP) {
+            size--;
+        }
+
+        return List.of(Arrays.copyOf(locals, size));
+    }
+
+    // ===
+
+    // Interprets instructions from the offset until the path ends or joins one that was already followed
+    private void run(int offset) {
+        State state = states[offset].copy();
+
+        while (true) {
+            int opcode = code[offset] & 0xFF;
+            int next = offset + length(opcode, offset);
+
+            Integer target = execute(state, opcode, offset);
+            if (target != null) {
+                targets[target] = true;
+                merge(target, state);
+            }
+
+            if (opcode == Opcodes.GOTO || opcode == Opcodes.GOTO_W || opcode == Opcodes.ARETURN
+                    || opcode == Opcodes.RETURN || opcode == Opcodes.ATHROW) {
+                return;
+            }
+
+            if (states[next] != null) {
+                merge(next, state);
+                return;
+            }
+
+            states[next] = state.copy();
+            offset = next;
+        }
+    }
+
+    private void merge(int offset, @NotNull State state) {
+        State previous = states[offset];
+        if (previous == null) {
+            states[offset] = state.copy();
+            queue.push(offset);
+            return;
+        }
+
+        if (previous.stack.size() != state.stack.size()) {
+            throw new IllegalStateException("Stack sizes %d and %d meet at %d"
+                    .formatted(previous.stack.size(), state.stack.size(), offset));
+        }
+
+        boolean changed = false;
+        for (int i = 0; i < previous.locals.length; i++) {
+            VerificationType type = merge(previous.locals[i], state.locals[i]);
+            changed |= !type.equals(previous.locals[i]);
+            previous.locals[i] = type;
+        }
+
+        for (int i = 0; i < previous.stack.size(); i++) {
+            VerificationType type = merge(previous.stack.get(i), state.stack.get(i));
+            if (type == VerificationType.TOP) {
+                throw new IllegalStateException("Stack types %s and %s meet at %d"
+                        .formatted(previous.stack.get(i), state.stack.get(i), offset));
+            }
+
+            changed |= !type.equals(previous.stack.get(i));
+            previous.stack.set(i, type);
+        }
+
+        if (changed) {
+            queue.push(offset);
+        }
+    }
+
+    @NotNull
+    private VerificationType merge(@NotNull VerificationType first, @NotNull VerificationType second) {
+        if (first.equals(second)) {
+            return first;
+        } else if (first.isObject() && second.isObject()) {
+            return VerificationType.object(commonSuperClass(first.className(), second.className()));
+        }
+
+        return VerificationType.TOP;
+    }
+
+    @NotNull
+    private String commonSuperClass(@NotNull String first, @NotNull String second) {
+        Set<String> firstClasses = new HashSet<>();
+        for (String current = first; current != null; current = superClassFunction.apply(current)) {
+            firstClasses.add(current);
+        }
+
+        for (String current = second; current != null; current = superClassFunction.apply(current)) {
+            if (firstClasses.contains(current)) {
+                return current;
+            }
+        }
+
+        return OBJECT;
+    }
+
+    // Applies the instruction to the state and returns the offset it can jump to
+    @Nullable
+    private Integer execute(@NotNull State state, int opcode, int offset) {
+        List<VerificationType> stack = state.stack;
+
+        switch (opcode) {
+            case Opcodes.NOP -> {
+            }
+            case Opcodes.ICONST_M1, Opcodes.ICONST_0, Opcodes.ICONST_1, Opcodes.ICONST_2, Opcodes.ICONST_3,
+                    Opcodes.ICONST_4, Opcodes.ICONST_5, Opcodes.BIPUSH, Opcodes.SIPUSH ->
+                    stack.add(VerificationType.INTEGER);
+            case Opcodes.FCONST_0, Opcodes.FCONST_1, Opcodes.FCONST_2 -> stack.add(VerificationType.FLOAT);
+            case Opcodes.LDC, Opcodes.LDC_W -> {
+                int index = opcode == Opcodes.LDC ? code[offset + 1] & 0xFF : unsignedShort(offset + 1);
+                stack.add(constant(index) instanceof FloatConstant ? VerificationType.FLOAT : VerificationType.INTEGER);
+            }
+            case Opcodes.ILOAD, Opcodes.FLOAD, Opcodes.ALOAD -> stack.add(state.locals[code[offset + 1] & 0xFF]);
+            case Opcodes.ILOAD_0, Opcodes.ILOAD_1, Opcodes.ILOAD_2, Opcodes.ILOAD_3 ->
+                    stack.add(state.locals[opcode - Opcodes.ILOAD_0]);
+            case Opcodes.FLOAD_0, Opcodes.FLOAD_1, Opcodes.FLOAD_2, Opcodes.FLOAD_3 ->
+                    stack.add(state.locals[opcode - Opcodes.FLOAD_0]);
+            case Opcodes.ALOAD_0, Opcodes.ALOAD_1, Opcodes.ALOAD_2, Opcodes.ALOAD_3 ->
+                    stack.add(state.locals[opcode - Opcodes.ALOAD_0]);
+            case Opcodes.ISTORE, Opcodes.FSTORE, Opcodes.ASTORE -> state.locals[code[offset + 1] & 0xFF] = pop(stack);
+            case Opcodes.ISTORE_0, Opcodes.ISTORE_1, Opcodes.ISTORE_2, Opcodes.ISTORE_3 ->
+                    state.locals[opcode - Opcodes.ISTORE_0] = pop(stack);
+            case Opcodes.FSTORE_0, Opcodes.FSTORE_1, Opcodes.FSTORE_2, Opcodes.FSTORE_3 ->
+                    state.locals[opcode - Opcodes.FSTORE_0] = pop(stack);
+            case Opcodes.ASTORE_0, Opcodes.ASTORE_1, Opcodes.ASTORE_2, Opcodes.ASTORE_3 ->
+                    state.locals[opcode - Opcodes.ASTORE_0] = pop(stack);
+            case Opcodes.POP -> pop(stack);
+            case Opcodes.DUP -> stack.add(stack.get(stack.size() - 1));
+            case Opcodes.DUP_X1 -> stack.add(stack.size() - 2, stack.get(stack.size() - 1));
+            case Opcodes.SWAP -> stack.add(stack.size() - 2, pop(stack));
+            case Opcodes.IADD, Opcodes.ISUB, Opcodes.IMUL, Opcodes.IDIV, Opcodes.IAND, Opcodes.IOR, Opcodes.IXOR,
+                    Opcodes.FADD, Opcodes.FSUB, Opcodes.FMUL, Opcodes.FDIV -> pop(stack);
+            case Opcodes.I2F -> stack.set(stack.size() - 1, VerificationType.FLOAT);
+            case Opcodes.F2I -> stack.set(stack.size() - 1, VerificationType.INTEGER);
+            case Opcodes.FCMPL, Opcodes.FCMPG -> {
+                pop(stack);
+                stack.set(stack.size() - 1, VerificationType.INTEGER);
+            }
+            case Opcodes.IFEQ, Opcodes.IFNE, Opcodes.IFLT, Opcodes.IFGE, Opcodes.IFGT, Opcodes.IFLE -> {
+                pop(stack);
+                return offset + code[offset + 1] * 256 + (code[offset + 2] & 0xFF);
+            }
+            case Opcodes.IF_ICMPEQ, Opcodes.IF_ICMPNE, Opcodes.IF_ICMPLT, Opcodes.IF_ICMPGE, Opcodes.IF_ICMPGT,
+                    Opcodes.IF_ICMPLE -> {
+                pop(stack);
+                pop(stack);
+                return offset + code[offset + 1] * 256 + (code[offset + 2] & 0xFF);
+            }
+            case Opcodes.GOTO -> {
+                return offset + code[offset + 1] * 256 + (code[offset + 2] & 0xFF);
+            }
+            case Opcodes.GOTO_W -> {
+                return offset + (unsignedShort(offset + 1) << 16 | unsignedShort(offset + 3));
+            }
+            case Opcodes.ARETURN, Opcodes.ATHROW -> pop(stack);
+            case Opcodes.RETURN -> {
+            }
+            case Opcodes.GETFIELD -> {
+                pop(stack);
+                stack.add(VerificationType.fromDescriptor(descriptor(unsignedShort(offset + 1))));
+            }
+            case Opcodes.PUTFIELD -> {
+                pop(stack);
+                pop(stack);
+            }
+            case Opcodes.INVOKEVIRTUAL, Opcodes.INVOKESPECIAL -> invoke(state, unsignedShort(offset + 1));
+            case Opcodes.NEW -> stack.add(VerificationType.uninitialized(offset));
+            case Opcodes.CHECKCAST -> {
+                pop(stack);
+                stack.add(VerificationType.object(className(unsignedShort(offset + 1))));
+            }
+            case Opcodes.INSTANCEOF -> stack.set(stack.size() - 1, VerificationType.INTEGER);
+            default -> throw new IllegalStateException("Unsupported opcode %d at %d".formatted(opcode, offset));
+        }
+
+        return null;
+    }
+
+    private void invoke(@NotNull State state, int index) {
+        MethodRefConstant method = (MethodRefConstant) constant(index);
+        String name = method.value().getRight().value().getLeft().value();
+        String descriptor = method.value().getRight().value().getRight().value();
+
+        int end = descriptor.indexOf(')');
+        for (int i = 1; i < end; i++) {
+            pop(state.stack);
+            if (descriptor.charAt(i) == 'L') {
+                i = descriptor.indexOf(';', i);
+            }
+        }
+
+        VerificationType receiver = pop(state.stack);
+
+        if (name.equals("<init>")) {
+            VerificationType initialized = VerificationType.object(
+                    receiver.tag() == VerificationType.UNINITIALIZED_THIS_TAG
+                            ? className
+                            : method.value().getLeft().value().value());
+
+            // Every copy of the reference is initialized at once
+            Arrays.asList(state.locals).replaceAll(type -> type.equals(receiver) ? initialized : type);
+            state.stack.replaceAll(type -> type.equals(receiver) ? initialized : type);
+        }
+
+        String returnType = descriptor.substring(end + 1);
+        if (!returnType.equals("V")) {
+            state.stack.add(VerificationType.fromDescriptor(returnType));
+        }
+    }
+
+    @NotNull
+    private List<StackMapTableAttribute.Frame> frames() {
+        List<StackMapTableAttribute.Frame> frames = new ArrayList<>();
+
+        int offset = 0;
+        while (offset < code.length) {
+            int opcode = code[offset] & 0xFF;
+            int next = offset + length(opcode, offset);
+
+            if (states[offset] == null) {
+                int end = next;
+                while (end < code.length && states[end] == null) {
+                    end += length(code[end] & 0xFF, end);
+                }
+
+                Arrays.fill(code, offset, end - 1, (byte) Opcodes.NOP);
+                code[end - 1] = (byte) Opcodes.ATHROW;
+
+                frames.add(new StackMapTableAttribute.Frame(offset, List.of(),
+                        List.of(VerificationType.object(THROWABLE))));
+
+                offset = end;
+                continue;
+            }
+
+            if (targets[offset]) {
+                State state = states[offset];
+                frames.add(new StackMapTableAttribute.Frame(offset, trim(state.locals), List.copyOf(state.stack)));
+            }
+
+            offset = next;
+        }
+
+        return frames;
+    }
+
+    private int length(int opcode, int offset) {
+        return switch (opcode) {
+            case Opcodes.BIPUSH, Opcodes.LDC, Opcodes.ILOAD, Opcodes.FLOAD, Opcodes.ALOAD, Opcodes.ISTORE,
+                    Opcodes.FSTORE, Opcodes.ASTORE -> 2;
+            case Opcodes.SIPUSH, Opcodes.LDC_W, Opcodes.IFEQ, Opcodes.IFNE, Opcodes.IFLT, Opcodes.IFGE, Opcodes.IFGT,
+                    Opcodes.IFLE, Opcodes.IF_ICMPEQ, Opcodes.IF_ICMPNE, Opcodes.IF_ICMPLT, Opcodes.IF_ICMPGE,
+                    Opcodes.IF_ICMPGT, Opcodes.IF_ICMPLE, Opcodes.GOTO, Opcodes.GETFIELD, Opcodes.PUTFIELD,
+                    Opcodes.INVOKEVIRTUAL, Opcodes.INVOKESPECIAL, Opcodes.NEW, Opcodes.CHECKCAST,
+                    Opcodes.INSTANCEOF -> 3;
+            case Opcodes.GOTO_W -> 5;
+            default -> 1;
+        };
+    }
+
+    private int unsignedShort(int offset) {
+        return (code[offset] & 0xFF) << 8 | (code[offset + 1] & 0xFF);
+    }
+
+    @NotNull
+    private Constant<?> constant(int index) {
+        return constantPool.constants().get(index - 1);
+    }
+
+    @NotNull
+    private String descriptor(int index) {
+        FieldRefConstant field = (FieldRefConstant) constant(index);
+        return field.value().getRight().value().getRight().value();
+    }
+
+    @NotNull
+    private String className(int index) {
+        return ((ClassConstant) constant(index)).value().value();
+    }
+
+    @NotNull
+    private static VerificationType pop(@NotNull List<VerificationType> stack) {
+        return stack.remove(stack.size() - 1);
+    }
+
+    private record State(@NotNull VerificationType @NotNull [] locals, @NotNull List<VerificationType> stack) {
+
+        @NotNull
+        State copy() {
+            return new State(locals.clone(), new ArrayList<>(stack));
+        }
+    }
+}
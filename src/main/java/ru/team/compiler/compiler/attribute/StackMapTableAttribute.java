@@ -0,0 +1,124 @@
+package ru.team.compiler.compiler.attribute;
+
+import org.jetbrains.annotations.NotNull;
+import ru.team.compiler.compiler.CompilationContext;
+import ru.team.compiler.compiler.constant.ConstantPool;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.List;
+
+public final class StackMapTableAttribute extends Attribute {
+
+    private final Frame initialFrame;
+    private final List<Frame> frames;
+
+    public StackMapTableAttribute(@NotNull ConstantPool constantPool, @NotNull Frame initialFrame,
+                                  @NotNull List<Frame> frames) {
+        super(constantPool.getUtf("StackMapTable"));
+
+        this.initialFrame = initialFrame;
+        this.frames = frames;
+    }
+
+    @Override
+    public void compile(@NotNull CompilationContext context, @NotNull ConstantPool constantPool,
+                        @NotNull DataOutput dataOutput) throws IOException {
+        BytecodeBuffer byteDataOutput = new BytecodeBuffer(64);
+
+        byteDataOutput.writeShort(frames.size());
+
+        Frame previousFrame = initialFrame;
+        for (Frame frame : frames) {
+            // Offset of the first frame is stored as is, the next ones as the distance minus one
+            int offsetDelta = previousFrame == initialFrame ? frame.offset() : frame.offset() - previousFrame.offset() - 1;
+            compileFrame(constantPool, byteDataOutput, previousFrame.locals(), frame, offsetDelta);
+
+            previousFrame = frame;
+        }
+
+        dataOutput.writeShort(attributeName.index());
+        dataOutput.writeInt(byteDataOutput.size());
+        byteDataOutput.writeTo(dataOutput);
+    }
+
+    private static void compileFrame(@NotNull ConstantPool constantPool, @NotNull DataOutput dataOutput,
+                                     @NotNull List<VerificationType> previousLocals, @NotNull Frame frame,
+                                     int offsetDelta) throws IOException {
+        List<VerificationType> locals = frame.locals();
+        List<VerificationType> stack = frame.stack();
+
+        if (locals.equals(previousLocals) && stack.size() <= 1) {
+            if (stack.isEmpty()) {
+                if (offsetDelta < 64) {
+                    // same_frame
+                    dataOutput.writeByte(offsetDelta);
+                } else {
+                    // same_frame_extended
+                    dataOutput.writeByte(251);
+                    dataOutput.writeShort(offsetDelta);
+                }
+            } else {
+                if (offsetDelta < 64) {
+                    // same_locals_1_stack_item_frame
+                    dataOutput.writeByte(64 + offsetDelta);
+                } else {
+                    // same_locals_1_stack_item_frame_extended
+                    dataOutput.writeByte(247);
+                    dataOutput.writeShort(offsetDelta);
+                }
+
+                compileType(constantPool, dataOutput, stack.get(0));
+            }
+
+            return;
+        }
+
+        int difference = locals.size() - previousLocals.size();
+        if (stack.isEmpty() && difference != 0 && Math.abs(difference) <= 3
+                && (difference < 0
+                ? previousLocals.subList(0, locals.size()).equals(locals)
+                : locals.subList(0, previousLocals.size()).equals(previousLocals))) {
+            // chop_frame / append_frame
+            dataOutput.writeByte(251 + difference);
+            dataOutput.writeShort(offsetDelta);
+
+            for (VerificationType type : locals.subList(Math.min(locals.size(), previousLocals.size()),
+                    locals.size())) {
+                compileType(constantPool, dataOutput, type);
+            }
+
+            return;
+        }
+
+        // full_frame
+        dataOutput.writeByte(255);
+        dataOutput.writeShort(offsetDelta);
+
+        dataOutput.writeShort(locals.size());
+        for (VerificationType type : locals) {
+            compileType(constantPool, dataOutput, type);
+        }
+
+        dataOutput.writeShort(stack.size());
+        for (VerificationType type : stack) {
+            compileType(constantPool, dataOutput, type);
+        }
+    }
+
+    private static void compileType(@NotNull ConstantPool constantPool, @NotNull DataOutput dataOutput,
+                                     @NotNull VerificationType type) throws IOException {
+        dataOutput.writeByte(type.tag());
+
+        if (type.tag() == VerificationType.OBJECT_TAG) {
+            dataOutput.writeShort(constantPool.getClass(constantPool.getUtf(type.className())).index());
+        } else if (type.tag() == VerificationType.UNINITIALIZED_TAG) {
+            dataOutput.writeShort(type.offset());
+        }
+    }
+
+    // Types of the locals, without the trailing unused ones, and of the stack before the instruction at offset
+    public record Frame(int offset, @NotNull List<VerificationType> locals, @NotNull List<VerificationType> stack) {
+
+    }
+}
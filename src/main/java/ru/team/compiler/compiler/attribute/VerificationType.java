@@ -0,0 +1,46 @@
+package ru.team.compiler.compiler.attribute;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+// Type of a local or stack slot in a StackMapTable frame, className is the internal name of an object type and
+// offset is the position of the 'new' instruction of an uninitialized one
+public record VerificationType(int tag, @Nullable String className, int offset) {
+
+    public static final int TOP_TAG = 0;
+    public static final int INTEGER_TAG = 1;
+    public static final int FLOAT_TAG = 2;
+    public static final int UNINITIALIZED_THIS_TAG = 6;
+    public static final int OBJECT_TAG = 7;
+    public static final int UNINITIALIZED_TAG = 8;
+
+    public static final VerificationType TOP = new VerificationType(TOP_TAG, null, 0);
+    public static final VerificationType INTEGER = new VerificationType(INTEGER_TAG, null, 0);
+    public static final VerificationType FLOAT = new VerificationType(FLOAT_TAG, null, 0);
+    public static final VerificationType UNINITIALIZED_THIS = new VerificationType(UNINITIALIZED_THIS_TAG, null, 0);
+
+    @NotNull
+    public static VerificationType object(@NotNull String className) {
+        return new VerificationType(OBJECT_TAG, className, 0);
+    }
+
+    @NotNull
+    public static VerificationType uninitialized(int offset) {
+        return new VerificationType(UNINITIALIZED_TAG, null, offset);
+    }
+
+    // Type of a value with the field descriptor, 'Lolang/X;', 'I', 'F' or 'Z'
+    @NotNull
+    public static VerificationType fromDescriptor(@NotNull String descriptor) {
+        return switch (descriptor.charAt(0)) {
+            case 'I', 'Z' -> INTEGER;
+            case 'F' -> FLOAT;
+            case 'L' -> object(descriptor.substring(1, descriptor.length() - 1));
+            default -> throw new IllegalArgumentException("Unsupported descriptor: " + descriptor);
+        };
+    }
+
+    public boolean isObject() {
+        return tag == OBJECT_TAG;
+    }
+}
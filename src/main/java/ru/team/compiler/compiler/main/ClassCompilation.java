@@ -4,21 +4,23 @@ import olang.Any;
 import org.jetbrains.annotations.NotNull;
 import ru.team.compiler.analyzer.AnalyzeContext;
 import ru.team.compiler.analyzer.Analyzer;
+import ru.team.compiler.analyzer.CompilationUnitCache;
+import ru.team.compiler.analyzer.ScopedSymbolTable;
 import ru.team.compiler.compiler.ClassFile;
 import ru.team.compiler.compiler.CompilationContext;
 import ru.team.compiler.exception.AnalyzerException;
-import ru.team.compiler.token.Token;
-import ru.team.compiler.token.Tokenizer;
+import ru.team.compiler.token.TokenStream;
 import ru.team.compiler.tree.node.clas.ClassNode;
 import ru.team.compiler.tree.node.clas.IncludeNode;
 import ru.team.compiler.tree.node.clas.ProgramNode;
 import ru.team.compiler.tree.node.primary.ReferenceNode;
 import ru.team.compiler.util.GeneralUtils;
 
+import java.io.ByteArrayOutputStream;
 import java.io.DataOutputStream;
 import java.io.File;
 import java.io.IOException;
-import java.io.OutputStream;
+import java.io.PrintStream;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.nio.file.DirectoryStream;
@@ -41,13 +43,24 @@ public final class ClassCompilation {
 
     }
 
-    public static void compile(@NotNull Path path, @NotNull Set<String> options) {
+    public static boolean compile(@NotNull Path path, @NotNull Set<String> options) {
+        return compile(path, options, System.out, System.err);
+    }
+
+    // Returns whether every class file was written, diagnostics go to the given streams
+    public static boolean compile(@NotNull Path path, @NotNull Set<String> options, @NotNull PrintStream out,
+                                  @NotNull PrintStream err) {
         boolean jar = options.contains("-jar");
         boolean bundle = options.contains("-bundle");
+        Function<String, TokenStream> tokenizer = TokenStream.tokenizer(options.contains("-fast-tokenizer"));
+        boolean scopedAnalyzer = options.contains("-scoped-analyzer");
+        boolean parallelAnalyzer = options.contains("-parallel-analyzer");
+        // Only plain class files in the output directory are compiled incrementally
+        boolean incremental = options.contains("-incremental") && !jar && !bundle;
 
         if (Files.isDirectory(path)) {
-            System.err.println("[ERROR] " + path + " | Must be file");
-            return;
+            err.println("[ERROR] " + path + " | Must be file");
+            return false;
         }
 
         Path outputPath = path.resolveSibling("out");
@@ -55,8 +68,17 @@ public final class ClassCompilation {
             try {
                 Files.createDirectories(outputPath);
             } catch (IOException e) {
-                System.err.println("[ERROR] " + outputPath + " | Failed on directory creation: " + e);
-                return;
+                err.println("[ERROR] " + outputPath + " | Failed on directory creation: " + e);
+                return false;
+            }
+        }
+
+        Path programPath = CompilationUnitCache.key(path);
+        CompilationIndex index = null;
+        if (incremental) {
+            index = CompilationIndex.load(CompilationIndex.indexPath(outputPath));
+            if (index.isUpToDate(programPath, outputPath::resolve)) {
+                return true;
             }
         }
 
@@ -64,57 +86,67 @@ public final class ClassCompilation {
         try {
             string = Files.readString(path);
         } catch (IOException e) {
-            System.err.println("[ERROR] " + outputPath + " | Failed on file reading: " + e);
-            return;
+            err.println("[ERROR] " + outputPath + " | Failed on file reading: " + e);
+            return false;
         }
 
-        List<Token> tokens = new ArrayList<>();
-
+        TokenStream tokens;
         try {
-            Tokenizer tokenizer = new Tokenizer(string);
-            while (tokenizer.hasNext()) {
-                tokens.add(tokenizer.next());
-            }
+            tokens = tokenizer.apply(string);
         } catch (Exception e) {
-            System.err.println("[ERROR] " + path + " | Failed on tokenization: " + e);
-            return;
+            err.println("[ERROR] " + path + " | Failed on tokenization: " + e);
+            return false;
         }
 
         ProgramNode programNode;
         try {
             programNode = ProgramNode.PARSER.parse(tokens);
         } catch (Exception e) {
-            System.err.println("[ERROR] " + path + " | Failed on syntax analysis: " + e);
-            return;
+            err.println("[ERROR] " + path + " | Failed on syntax analysis: " + e);
+            return false;
+        }
+
+        // Loaded once, the hashes of the included files and the analyzer both use it
+        CompilationUnitCache.IncludeGraph includeGraph = CompilationUnitCache.shared()
+                .includeGraph(path.toAbsolutePath().getParent(), programNode, tokenizer);
+
+        Map<Path, String> files = new HashMap<>();
+        if (incremental) {
+            files.put(programPath, GeneralUtils.sha256(string));
+            includeGraph.units().forEach((includePath, unit) -> files.put(includePath, unit.hash()));
         }
 
         if (bundle) {
-            programNode = flatProgramNode(path.getParent(), programNode);
+            programNode = flatProgramNode(path.getParent(), programNode, includeGraph, tokenizer);
         }
 
         AnalyzeContext context;
         try {
-            context = Analyzer.createContext(path.toAbsolutePath().getParent(), programNode);
-            context = programNode.analyze(context);
+            context = Analyzer.createContext(path.toAbsolutePath().getParent(), programNode, includeGraph, tokenizer);
+            if (scopedAnalyzer) {
+                context = context.withSymbols(new ScopedSymbolTable());
+            }
+
+            context = programNode.analyze(context, parallelAnalyzer);
 
             List<Exception> exceptions = context.exceptions();
             if (!exceptions.isEmpty()) {
-                System.err.println("[ERROR] " + path + " | Failed on semantic analysis:\n\n");
+                err.println("[ERROR] " + path + " | Failed on semantic analysis:\n\n");
                 for (Exception exception : exceptions) {
-                    System.out.println(exception);
+                    out.println(exception);
                 }
-                return;
+                return false;
             }
         } catch (Exception e) {
-            System.err.println("[ERROR] " + path + " | Failed on semantic analysis: " + e);
-            return;
+            err.println("[ERROR] " + path + " | Failed on semantic analysis: " + e);
+            return false;
         }
 
         try {
             programNode = programNode.optimize();
         } catch (Exception e) {
-            System.err.println("[ERROR] " + path + " | Failed on optimization: " + e);
-            return;
+            err.println("[ERROR] " + path + " | Failed on optimization: " + e);
+            return false;
         }
 
         // ---
@@ -127,8 +159,8 @@ public final class ClassCompilation {
                 try {
                     Files.deleteIfExists(jarOutputPath);
                 } catch (IOException e) {
-                    System.err.println("[ERROR] " + jarOutputPath + " | Failed on old jar deletion: " + e);
-                    return;
+                    err.println("[ERROR] " + jarOutputPath + " | Failed on old jar deletion: " + e);
+                    return false;
                 }
 
                 Map<String, String> env = new HashMap<>();
@@ -146,8 +178,8 @@ public final class ClassCompilation {
                         return finalFileSystem.getPath("/olang/").resolve(name);
                     };
                 } catch (URISyntaxException | IOException e) {
-                    System.err.println("[ERROR] " + jarOutputPath + " | Failed on jar create: " + e);
-                    return;
+                    err.println("[ERROR] " + jarOutputPath + " | Failed on jar create: " + e);
+                    return false;
                 }
             } else {
                 classOutputPathFunction = outputPath::resolve;
@@ -169,31 +201,69 @@ public final class ClassCompilation {
                         }
                     }
                 } catch (URISyntaxException | IOException e) {
-                    System.err.println("[ERROR] " + path + " | Failed on std bundling: " + e);
-                    return;
+                    err.println("[ERROR] " + path + " | Failed on std bundling: " + e);
+                    return false;
                 }
             }
 
+            CompilationIndex.Fingerprints fingerprints = incremental
+                    ? new CompilationIndex.Fingerprints(context.classes())
+                    : null;
+            List<CompilationIndex.ClassRecord> records = new ArrayList<>();
+
             for (ClassNode classNode : programNode.classes()) {
                 Path classOutputPath = classOutputPathFunction.apply(classNode.name().value() + ".class");
 
-                try (OutputStream outputStream = Files.newOutputStream(classOutputPath);
+                CompilationIndex.ClassRecord record = null;
+                if (incremental) {
+                    record = fingerprints.record(classNode);
+
+                    CompilationIndex.ClassRecord oldRecord = index.unchanged(programPath, record,
+                            classOutputPathFunction);
+                    if (oldRecord != null) {
+                        records.add(oldRecord);
+                        continue;
+                    }
+                }
+
+                try (ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
                      DataOutputStream dataOutputStream = new DataOutputStream(outputStream)) {
 
                     ClassFile classFile = ClassFile.fromNode(context, classNode);
 
                     classFile.compile(new CompilationContext(context), dataOutputStream);
+                    dataOutputStream.flush();
+
+                    byte[] bytes = outputStream.toByteArray();
+                    Files.write(classOutputPath, bytes);
+
+                    if (record != null) {
+                        records.add(record.withOutput(bytes));
+                    }
                 } catch (Exception e) {
-                    System.err.println("[ERROR] " + path + " | Failed on compilation: " + e);
-                    return;
+                    err.println("[ERROR] " + path + " | Failed on compilation: " + e);
+                    return false;
+                }
+            }
+
+            if (incremental) {
+                index.put(programPath, files, records);
+                try {
+                    index.save();
+                } catch (IOException e) {
+                    err.println("[ERROR] " + path + " | Failed on index saving: " + e);
+                    return false;
                 }
             }
+
+            return true;
         } finally {
             if (fileSystem != null) {
                 try {
                     fileSystem.close();
                 } catch (IOException e) {
-                    System.err.println("[ERROR] " + path + " | Failed on jar close: " + e);
+                    err.println("[ERROR] " + path + " | Failed on jar close: " + e);
+                    return false;
                 }
             }
         }
@@ -201,14 +271,31 @@ public final class ClassCompilation {
 
     @NotNull
     public static ProgramNode flatProgramNode(@NotNull Path path, @NotNull ProgramNode programNode) {
+        return flatProgramNode(path, programNode, TokenStream.tokenizer(false));
+    }
+
+    @NotNull
+    public static ProgramNode flatProgramNode(@NotNull Path path, @NotNull ProgramNode programNode,
+                                              @NotNull Function<String, TokenStream> tokenizer) {
+        CompilationUnitCache.IncludeGraph graph = CompilationUnitCache.shared()
+                .includeGraph(path, programNode, tokenizer);
+        return flatProgramNode(path, programNode, graph, tokenizer);
+    }
+
+    @NotNull
+    private static ProgramNode flatProgramNode(@NotNull Path path, @NotNull ProgramNode programNode,
+                                               @NotNull CompilationUnitCache.IncludeGraph graph,
+                                               @NotNull Function<String, TokenStream> tokenizer) {
         Set<Path> visited = new HashSet<>();
         visited.add(path.toAbsolutePath());
-        return flatProgramNode(path, programNode, visited);
+        return flatProgramNode(path, programNode, visited, graph, tokenizer);
     }
 
     @NotNull
     private static ProgramNode flatProgramNode(@NotNull Path path, @NotNull ProgramNode programNode,
-                                               @NotNull Set<Path> visited) {
+                                               @NotNull Set<Path> visited,
+                                               @NotNull CompilationUnitCache.IncludeGraph graph,
+                                               @NotNull Function<String, TokenStream> tokenizer) {
         List<ClassNode> newClassNodes = new ArrayList<>();
 
         for (IncludeNode includeNode : programNode.includeNodes()) {
@@ -220,43 +307,12 @@ public final class ClassCompilation {
                         .formatted(referenceNode.value(), includePath));
             }
 
-            if (!Files.exists(includePath)) {
-                throw new AnalyzerException("Program includes '%s' that cannot be found at '%s'"
-                        .formatted(referenceNode.value(), includePath));
-            }
-
-            if (Files.isDirectory(includePath)) {
-                throw new AnalyzerException("Program includes '%s' that is not a file at '%s'"
-                        .formatted(referenceNode.value(), includePath));
-            }
-
-            String string;
-            try {
-                string = Files.readString(includePath);
-            } catch (IOException e) {
-                throw new AnalyzerException("Program includes '%s' that could not be read from '%s': %s"
-                        .formatted(referenceNode.value(), includePath, e));
-            }
-
-            List<Token> tokens = new ArrayList<>();
-
-            try {
-                Tokenizer tokenizer = new Tokenizer(string);
-                while (tokenizer.hasNext()) {
-                    tokens.add(tokenizer.next());
-                }
-            } catch (Exception e) {
-                throw new AnalyzerException("Program includes '%s' that could not be tokenized from '%s': %s"
-                        .formatted(referenceNode.value(), includePath, e));
+            CompilationUnitCache.CompilationUnit unit = graph.unit(includePath);
+            if (unit == null) {
+                unit = CompilationUnitCache.shared().include(referenceNode, includePath, tokenizer);
             }
 
-            ProgramNode includedProgramNode;
-            try {
-                includedProgramNode = ProgramNode.PARSER.parse(tokens);
-            } catch (Exception e) {
-                throw new AnalyzerException("Program includes '%s' that failed on syntax analysis from '%s': %s"
-                        .formatted(referenceNode.value(), includePath, e));
-            }
+            ProgramNode includedProgramNode = unit.programNode();
 
             newClassNodes.addAll(includedProgramNode.classes());
         }
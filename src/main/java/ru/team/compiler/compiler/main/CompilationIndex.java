@@ -0,0 +1,321 @@
+package ru.team.compiler.compiler.main;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import ru.team.compiler.analyzer.AnalyzableClass;
+import ru.team.compiler.analyzer.AnalyzableConstructor;
+import ru.team.compiler.analyzer.AnalyzableField;
+import ru.team.compiler.analyzer.AnalyzableMethod;
+import ru.team.compiler.compiler.ClassFile;
+import ru.team.compiler.tree.node.NodeToStringHelper;
+import ru.team.compiler.tree.node.TreeNode;
+import ru.team.compiler.tree.node.clas.ClassNode;
+import ru.team.compiler.tree.node.clas.ParametersNode;
+import ru.team.compiler.tree.node.expression.ExpressionNode;
+import ru.team.compiler.tree.node.primary.ReferenceNode;
+import ru.team.compiler.util.GeneralUtils;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Function;
+
+// Index of the previous compilations persisted next to the output directory. Every program keeps the hashes
+// of the files it was built from and, per class, the hash of its node, of the signatures of every class it
+// can reach and of the emitted class file
+public final class CompilationIndex {
+
+    // An index written by another version of the code generator is dropped, its class files are emitted again
+    private static final String HEADER = "olang-index 2\tcodegen " + ClassFile.MAJOR_VERSION + "."
+            + ClassFile.CODEGEN_VERSION;
+
+    private final Path indexPath;
+    private final Map<Path, Entry> entries;
+
+    private CompilationIndex(@NotNull Path indexPath, @NotNull Map<Path, Entry> entries) {
+        this.indexPath = indexPath;
+        this.entries = entries;
+    }
+
+    @NotNull
+    public static Path indexPath(@NotNull Path outputPath) {
+        return outputPath.resolveSibling(outputPath.getFileName() + ".index");
+    }
+
+    // A missing or malformed index is treated as empty, everything is compiled again
+    @NotNull
+    public static CompilationIndex load(@NotNull Path indexPath) {
+        Map<Path, Entry> entries = new LinkedHashMap<>();
+        if (!Files.isRegularFile(indexPath)) {
+            return new CompilationIndex(indexPath, entries);
+        }
+
+        try {
+            List<String> lines = Files.readAllLines(indexPath);
+            if (lines.isEmpty() || !lines.get(0).equals(HEADER)) {
+                return new CompilationIndex(indexPath, entries);
+            }
+
+            Path program = null;
+            Map<Path, String> files = null;
+            Map<String, ClassRecord> classes = null;
+            for (String line : lines.subList(1, lines.size())) {
+                String[] parts = line.split("\t");
+                switch (parts[0]) {
+                    case "program" -> {
+                        program = Path.of(parts[1]);
+                        files = new LinkedHashMap<>();
+                        classes = new LinkedHashMap<>();
+                        entries.put(program, new Entry(files, classes));
+                    }
+                    case "file" -> files.put(Path.of(parts[2]), parts[1]);
+                    case "class" -> classes.put(parts[1], new ClassRecord(parts[1], parts[2], parts[3], parts[4]));
+                    default -> throw new IllegalArgumentException(line);
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            entries.clear();
+        }
+
+        return new CompilationIndex(indexPath, entries);
+    }
+
+    // Nothing has to be parsed when the files of the program and the class files it emitted are unchanged
+    public boolean isUpToDate(@NotNull Path program, @NotNull Function<String, Path> classOutputPathFunction) {
+        Entry entry = entries.get(program);
+        if (entry == null) {
+            return false;
+        }
+
+        for (Map.Entry<Path, String> file : entry.files().entrySet()) {
+            String hash = hash(file.getKey(), false);
+            if (!file.getValue().equals(hash)) {
+                return false;
+            }
+        }
+
+        for (ClassRecord record : entry.classes().values()) {
+            if (!isEmitted(record, classOutputPathFunction)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    // Previous record of the class when neither its node nor the signatures it depends on changed and its
+    // class file was not overwritten since
+    @Nullable
+    public ClassRecord unchanged(@NotNull Path program, @NotNull ClassRecord record,
+                                 @NotNull Function<String, Path> classOutputPathFunction) {
+        Entry entry = entries.get(program);
+        ClassRecord oldRecord = entry != null ? entry.classes().get(record.name()) : null;
+        if (oldRecord == null
+                || !oldRecord.source().equals(record.source())
+                || !oldRecord.dependencies().equals(record.dependencies())
+                || !isEmitted(oldRecord, classOutputPathFunction)) {
+            return null;
+        }
+
+        return oldRecord;
+    }
+
+    public void put(@NotNull Path program, @NotNull Map<Path, String> files, @NotNull List<ClassRecord> classes) {
+        Map<String, ClassRecord> classRecords = new LinkedHashMap<>();
+        for (ClassRecord record : classes) {
+            classRecords.put(record.name(), record);
+        }
+
+        entries.put(program, new Entry(Map.copyOf(files), classRecords));
+    }
+
+    public void save() throws IOException {
+        List<String> lines = new ArrayList<>();
+        lines.add(HEADER);
+        for (Map.Entry<Path, Entry> entry : entries.entrySet()) {
+            lines.add("program\t" + entry.getKey());
+            for (Map.Entry<Path, String> file : entry.getValue().files().entrySet()) {
+                lines.add("file\t" + file.getValue() + "\t" + file.getKey());
+            }
+
+            for (ClassRecord record : entry.getValue().classes().values()) {
+                lines.add("class\t" + record.name() + "\t" + record.source() + "\t" + record.dependencies()
+                        + "\t" + record.output());
+            }
+        }
+
+        Path temporaryPath = indexPath.resolveSibling(indexPath.getFileName() + ".tmp");
+        Files.write(temporaryPath, lines);
+        Files.move(temporaryPath, indexPath, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    // ===
+
+    private static boolean isEmitted(@NotNull ClassRecord record,
+                                     @NotNull Function<String, Path> classOutputPathFunction) {
+        return record.output().equals(hash(classOutputPathFunction.apply(record.name() + ".class"), true));
+    }
+
+    @Nullable
+    private static String hash(@NotNull Path path, boolean binary) {
+        try {
+            return binary ? GeneralUtils.sha256(Files.readAllBytes(path)) : GeneralUtils.sha256(Files.readString(path));
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private record Entry(@NotNull Map<Path, String> files, @NotNull Map<String, ClassRecord> classes) {
+
+    }
+
+    public record ClassRecord(@NotNull String name, @NotNull String source, @NotNull String dependencies,
+                              @NotNull String output) {
+
+        @NotNull
+        public ClassRecord withOutput(byte @NotNull [] bytes) {
+            return new ClassRecord(name, source, dependencies, GeneralUtils.sha256(bytes));
+        }
+    }
+
+    // Hashes of the classes of one analyzed program. The dependencies of a class are the classes it names and,
+    // transitively, every class named by their parents and member signatures, which covers the type of every
+    // expression the class can contain
+    public static final class Fingerprints {
+
+        private static final List<ReferenceNode> LITERAL_TYPES = List.of(
+                new ReferenceNode("Integer"), new ReferenceNode("Real"), new ReferenceNode("Boolean"));
+
+        private final Map<ReferenceNode, AnalyzableClass> classes;
+        private final Map<ReferenceNode, String> signatures = new HashMap<>();
+
+        public Fingerprints(@NotNull Map<ReferenceNode, AnalyzableClass> classes) {
+            this.classes = classes;
+        }
+
+        @NotNull
+        public ClassRecord record(@NotNull ClassNode classNode) {
+            String source = GeneralUtils.sha256(NodeToStringHelper.toString(classNode, false));
+
+            Set<ReferenceNode> references = new HashSet<>();
+            references.add(classNode.name().asReference());
+            references.addAll(LITERAL_TYPES);
+            collectReferences(classNode, references);
+
+            Map<String, String> dependencies = new TreeMap<>();
+            Deque<ReferenceNode> queue = new ArrayDeque<>(references);
+            while (!queue.isEmpty()) {
+                ReferenceNode reference = queue.poll();
+
+                AnalyzableClass analyzableClass = classes.get(reference);
+                dependencies.put(reference.value(), analyzableClass != null ? signature(analyzableClass) : "?");
+                if (analyzableClass == null) {
+                    continue;
+                }
+
+                for (ReferenceNode signatureReference : signatureReferences(analyzableClass)) {
+                    if (references.add(signatureReference)) {
+                        queue.add(signatureReference);
+                    }
+                }
+            }
+
+            StringBuilder stringBuilder = new StringBuilder();
+            dependencies.forEach((name, signature) -> stringBuilder.append(name).append(' ').append(signature)
+                    .append('\n'));
+
+            return new ClassRecord(classNode.name().value(), source,
+                    GeneralUtils.sha256(stringBuilder.toString()), "");
+        }
+
+        @NotNull
+        private String signature(@NotNull AnalyzableClass analyzableClass) {
+            return signatures.computeIfAbsent(analyzableClass.name().asReference(), key -> {
+                List<String> members = new ArrayList<>();
+                for (AnalyzableField field : analyzableClass.fields().values()) {
+                    members.add("field " + field.name().value() + ":" + field.type().value());
+                }
+
+                for (AnalyzableMethod method : analyzableClass.methods().values()) {
+                    members.add("method " + (method.methodNode().isAbstract() ? "abstract " : "")
+                            + method.name().value() + "(" + method.key().parameterTypesAsString() + "):"
+                            + (method.returnType() != null ? method.returnType().value() : ""));
+                }
+
+                for (AnalyzableConstructor constructor : analyzableClass.constructors().values()) {
+                    members.add("this(" + constructor.key().parameterTypesAsString() + ")");
+                }
+
+                members.sort(null);
+
+                return GeneralUtils.sha256((analyzableClass.classNode().isAbstract() ? "abstract " : "")
+                        + analyzableClass.parentClass().value() + "\n" + String.join("\n", members));
+            });
+        }
+
+        @NotNull
+        private static List<ReferenceNode> signatureReferences(@NotNull AnalyzableClass analyzableClass) {
+            List<ReferenceNode> references = new ArrayList<>();
+            references.add(analyzableClass.parentClass());
+            for (AnalyzableField field : analyzableClass.fields().values()) {
+                references.add(field.type());
+            }
+
+            for (AnalyzableMethod method : analyzableClass.methods().values()) {
+                if (method.returnType() != null) {
+                    references.add(method.returnType());
+                }
+
+                references.addAll(method.key().parameterTypes());
+            }
+
+            for (AnalyzableConstructor constructor : analyzableClass.constructors().values()) {
+                references.addAll(constructor.key().parameterTypes());
+            }
+
+            return references;
+        }
+
+        // Walks the node the same way NodeToStringHelper prints it
+        private static void collectReferences(@Nullable Object object, @NotNull Set<ReferenceNode> references) {
+            if (object instanceof ReferenceNode referenceNode) {
+                references.add(referenceNode);
+            } else if (object instanceof TreeNode treeNode) {
+                for (Field field : treeNode.getClass().getDeclaredFields()) {
+                    if (Modifier.isStatic(field.getModifiers())
+                            || field.getAnnotation(NodeToStringHelper.Ignore.class) != null) {
+                        continue;
+                    }
+
+                    field.setAccessible(true);
+                    try {
+                        collectReferences(field.get(treeNode), references);
+                    } catch (IllegalAccessException e) {
+                        throw new IllegalStateException(e);
+                    }
+                }
+            } else if (object instanceof ExpressionNode.IdArg idArg) {
+                collectReferences(idArg.arguments(), references);
+            } else if (object instanceof ParametersNode.Par par) {
+                references.add(par.type());
+            } else if (object instanceof List<?> list) {
+                for (Object element : list) {
+                    collectReferences(element, references);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package ru.team.compiler.compiler.main;
+
+import org.jetbrains.annotations.NotNull;
+import ru.team.compiler.analyzer.CompilationUnitCache;
+import ru.team.compiler.exception.AnalyzerException;
+import ru.team.compiler.token.TokenStream;
+import ru.team.compiler.tree.node.clas.IncludeNode;
+import ru.team.compiler.tree.node.clas.ProgramNode;
+import ru.team.compiler.tree.node.primary.ReferenceNode;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+// Compiles a file again whenever it or a file it includes changes. Compilations are incremental, included
+// files are parsed again only when their content changed and only the affected classes are emitted
+public final class CompilationWatcher implements Closeable {
+
+    // Editors save several files or write one several times in a row, so changes are collected until none comes
+    // for this long and then compiled once
+    private static final long SETTLE_MILLIS = Long.getLong("olang.watch.settleMillis", 100);
+
+    private final Path path;
+    private final Set<String> options;
+    private final Function<String, TokenStream> tokenizer;
+    private final PrintStream out;
+    private final PrintStream err;
+    private final WatchService watchService;
+
+    private final Map<Path, WatchKey> directories = new HashMap<>();
+    private Set<Path> files = Set.of();
+
+    private CompilationWatcher(@NotNull Path path, @NotNull Set<String> options, @NotNull PrintStream out,
+                               @NotNull PrintStream err, @NotNull WatchService watchService) {
+        this.path = path;
+        this.options = options;
+        this.tokenizer = TokenStream.tokenizer(options.contains("-fast-tokenizer"));
+        this.out = out;
+        this.err = err;
+        this.watchService = watchService;
+    }
+
+    @NotNull
+    public static CompilationWatcher open(@NotNull Path path, @NotNull Set<String> options,
+                                          @NotNull PrintStream out, @NotNull PrintStream err) throws IOException {
+        // An edit usually touches one class, so only the classes it affects are emitted again
+        Set<String> compileOptions = new HashSet<>(options);
+        compileOptions.add("-incremental");
+
+        return new CompilationWatcher(path, Set.copyOf(compileOptions), out, err,
+                path.toAbsolutePath().getFileSystem().newWatchService());
+    }
+
+    // Runs until the watcher is closed or the thread is interrupted
+    public void run() throws IOException {
+        try {
+            compile();
+
+            while (true) {
+                boolean changed = changed(watchService.take());
+                WatchKey key;
+                while ((key = watchService.poll(SETTLE_MILLIS, TimeUnit.MILLISECONDS)) != null) {
+                    changed |= changed(key);
+                }
+
+                if (changed) {
+                    compile();
+                }
+            }
+        } catch (ClosedWatchServiceException e) {
+            // Closed by another thread
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        watchService.close();
+    }
+
+    // ===
+
+    // Files are watched before they are read, a change made during the compilation triggers another one
+    private void compile() throws IOException {
+        watch(watchedFiles());
+
+        long start = System.nanoTime();
+        boolean success = ClassCompilation.compile(path, options, out, err);
+        long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        out.println("[WATCH] " + path + " | " + (success ? "Compiled" : "Failed") + " in " + millis + " ms");
+    }
+
+    private boolean changed(@NotNull WatchKey key) {
+        boolean changed = false;
+        Path directory = (Path) key.watchable();
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW
+                    || files.contains(CompilationUnitCache.key(directory.resolve((Path) event.context())))) {
+                changed = true;
+            }
+        }
+
+        key.reset();
+        return changed;
+    }
+
+    // The file, every file it includes and the ones it includes that are missing for now
+    @NotNull
+    private Set<Path> watchedFiles() {
+        Path programPath = CompilationUnitCache.key(path);
+        Path directory = programPath.getParent();
+
+        Set<Path> watchedFiles = new HashSet<>();
+        watchedFiles.add(programPath);
+
+        CompilationUnitCache cache = CompilationUnitCache.shared();
+
+        List<ProgramNode> programNodes = new ArrayList<>();
+        try {
+            ReferenceNode referenceNode = new ReferenceNode(programPath.getFileName().toString());
+            ProgramNode programNode = cache.include(referenceNode, programPath, tokenizer).programNode();
+
+            programNodes.add(programNode);
+            for (CompilationUnitCache.CompilationUnit unit
+                    : cache.includeGraph(directory, programNode, tokenizer).units().values()) {
+                programNodes.add(unit.programNode());
+            }
+        } catch (AnalyzerException e) {
+            // Cannot be parsed now, keep watching what it included before
+            watchedFiles.addAll(files);
+        }
+
+        for (ProgramNode programNode : programNodes) {
+            for (IncludeNode includeNode : programNode.includeNodes()) {
+                watchedFiles.add(CompilationUnitCache.key(
+                        directory.resolve(includeNode.fileName().value() + ".olang")));
+            }
+        }
+
+        return watchedFiles;
+    }
+
+    private void watch(@NotNull Set<Path> watchedFiles) throws IOException {
+        Set<Path> watchedDirectories = new HashSet<>();
+        for (Path file : watchedFiles) {
+            watchedDirectories.add(file.getParent());
+        }
+
+        for (Path directory : watchedDirectories) {
+            if (!directories.containsKey(directory)) {
+                directories.put(directory, directory.register(watchService,
+                        StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY,
+                        StandardWatchEventKinds.ENTRY_DELETE));
+            }
+        }
+
+        directories.entrySet().removeIf(entry -> {
+            if (watchedDirectories.contains(entry.getKey())) {
+                return false;
+            }
+
+            entry.getValue().cancel();
+            return true;
+        });
+
+        files = watchedFiles;
+    }
+}
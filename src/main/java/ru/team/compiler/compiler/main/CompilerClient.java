@@ -0,0 +1,55 @@
+package ru.team.compiler.compiler.main;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.net.UnixDomainSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+
+// Sends one request to a CompilerDaemon and replays its response
+public final class CompilerClient {
+
+    private CompilerClient() {
+
+    }
+
+    // Returns the exit code of the request, 1 when the daemon cannot be reached
+    public static int send(@NotNull Path socketPath, @NotNull List<String> arguments, @NotNull PrintStream out,
+                           @NotNull PrintStream err) {
+        try (SocketChannel channel = SocketChannel.open(UnixDomainSocketAddress.of(socketPath))) {
+            ByteBuffer request = ByteBuffer.wrap((String.join("\t", arguments) + "\n")
+                    .getBytes(StandardCharsets.UTF_8));
+            while (request.hasRemaining()) {
+                channel.write(request);
+            }
+
+            BufferedReader reader = new BufferedReader(new InputStreamReader(
+                    Channels.newInputStream(channel), StandardCharsets.UTF_8));
+
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.startsWith("out ")) {
+                    out.println(line.substring(4));
+                } else if (line.startsWith("err ")) {
+                    err.println(line.substring(4));
+                } else if (line.startsWith("exit ")) {
+                    return Integer.parseInt(line.substring(5));
+                }
+            }
+
+            err.println("[ERROR] " + socketPath + " | Daemon closed the connection");
+            return 1;
+        } catch (IOException | NumberFormatException e) {
+            err.println("[ERROR] " + socketPath + " | Failed on daemon request: " + e);
+            return 1;
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package ru.team.compiler.compiler.main;
+
+import org.jetbrains.annotations.NotNull;
+import ru.team.compiler.analyzer.Analyzer;
+import ru.team.compiler.analyzer.CompilationUnitCache;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+// Compiles files on request from a Unix domain socket, so the standard library model, the parsed includes
+// and the compiled compiler code stay warm between compilations.
+//
+// A request is one line with the command line arguments separated by tabs, the file path being absolute.
+// Every line of the response starts with "out " or "err ", the stream the line was printed to, and the
+// last one is "exit " followed by 0 when every class file was written and 1 otherwise. A request with
+// the single argument -stop shuts the daemon down
+public final class CompilerDaemon {
+
+    public static final String STOP = "-stop";
+
+    private final ServerSocketChannel serverChannel;
+    private final ExecutorService executor;
+    // Compilations into the same output directory would race on its class files and index
+    private final ConcurrentMap<Path, Object> outputLocks = new ConcurrentHashMap<>();
+
+    private CompilerDaemon(@NotNull ServerSocketChannel serverChannel, @NotNull ExecutorService executor) {
+        this.serverChannel = serverChannel;
+        this.executor = executor;
+    }
+
+    public static void serve(@NotNull Path socketPath) throws IOException {
+        Analyzer.stdClasses();
+
+        // The socket is bound under another name and moved once it listens, so clients that wait for the
+        // file to appear are never refused
+        Path bindPath = socketPath.resolveSibling(socketPath.getFileName() + ".bind");
+        Files.deleteIfExists(socketPath);
+        Files.deleteIfExists(bindPath);
+
+        ExecutorService executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+        try (ServerSocketChannel serverChannel = ServerSocketChannel.open(StandardProtocolFamily.UNIX)) {
+            serverChannel.bind(UnixDomainSocketAddress.of(bindPath));
+            try {
+                Files.setPosixFilePermissions(bindPath, PosixFilePermissions.fromString("rw-------"));
+            } catch (UnsupportedOperationException e) {
+                // Not a POSIX file system, the permissions of the directory apply
+            }
+
+            Files.move(bindPath, socketPath, StandardCopyOption.ATOMIC_MOVE);
+
+            new CompilerDaemon(serverChannel, executor).acceptLoop();
+        } finally {
+            executor.shutdown();
+            try {
+                executor.awaitTermination(1, TimeUnit.MINUTES);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+
+            Files.deleteIfExists(bindPath);
+            Files.deleteIfExists(socketPath);
+        }
+    }
+
+    // ===
+
+    private void acceptLoop() throws IOException {
+        while (true) {
+            SocketChannel channel;
+            try {
+                channel = serverChannel.accept();
+            } catch (ClosedChannelException e) {
+                // Closed by a stop request
+                return;
+            }
+
+            executor.execute(() -> handle(channel));
+        }
+    }
+
+    private void handle(@NotNull SocketChannel channel) {
+        try (channel;
+             BufferedReader reader = new BufferedReader(new InputStreamReader(
+                     Channels.newInputStream(channel), StandardCharsets.UTF_8));
+             OutputStream outputStream = new BufferedOutputStream(Channels.newOutputStream(channel))) {
+
+            String line = reader.readLine();
+            if (line == null) {
+                return;
+            }
+
+            PrintStream out = new PrintStream(new TaggedOutputStream(outputStream, "out "), true,
+                    StandardCharsets.UTF_8);
+            PrintStream err = new PrintStream(new TaggedOutputStream(outputStream, "err "), true,
+                    StandardCharsets.UTF_8);
+
+            boolean success;
+            try {
+                success = handle(line, out, err);
+            } catch (RuntimeException e) {
+                // Only this request failed, the client gets the error and the daemon keeps serving
+                err.println("[ERROR] " + line + " | Failed on request: " + e);
+                success = false;
+            }
+
+            outputStream.write(("exit " + (success ? 0 : 1) + "\n").getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            // The client went away, there is nobody to report to
+        }
+    }
+
+    private boolean handle(@NotNull String line, @NotNull PrintStream out, @NotNull PrintStream err)
+            throws IOException {
+        List<String> arguments = new ArrayList<>();
+        Set<String> options = new HashSet<>();
+        for (String arg : line.split("\t")) {
+            if (arg.startsWith("-")) {
+                options.add(arg);
+            } else if (!arg.isEmpty()) {
+                arguments.add(arg);
+            }
+        }
+
+        if (options.contains(STOP)) {
+            serverChannel.close();
+            return true;
+        }
+
+        if (arguments.size() != 1) {
+            err.println("[ERROR] " + line + " | Request must contain one file");
+            return false;
+        }
+
+        Path path = Path.of(arguments.get(0));
+        Object lock = outputLocks.computeIfAbsent(CompilationUnitCache.key(path).resolveSibling("out"),
+                key -> new Object());
+        synchronized (lock) {
+            return ClassCompilation.compile(path, options, out, err);
+        }
+    }
+
+    // Writes the tag at the start of every line, lines of both streams of a response share one output
+    private static final class TaggedOutputStream extends OutputStream {
+
+        private final OutputStream outputStream;
+        private final byte[] tag;
+        private boolean lineStart = true;
+
+        private TaggedOutputStream(@NotNull OutputStream outputStream, @NotNull String tag) {
+            this.outputStream = outputStream;
+            this.tag = tag.getBytes(StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            synchronized (outputStream) {
+                if (lineStart) {
+                    outputStream.write(tag);
+                }
+
+                outputStream.write(b);
+                lineStart = b == '\n';
+            }
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package ru.team.compiler.compiler.main;
 
+import java.io.IOException;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.HashSet;
@@ -24,6 +25,35 @@ public final class CompilerMain {
             }
         }
 
+        if (options.remove("-daemon")) {
+            if (arguments.size() != 1 || !options.isEmpty()) {
+                printUsage();
+                return;
+            }
+
+            try {
+                CompilerDaemon.serve(Path.of(arguments.get(0)));
+            } catch (IOException e) {
+                System.err.println("[ERROR] " + arguments.get(0) + " | Failed on daemon start: " + e);
+            }
+            return;
+        }
+
+        if (options.remove("-client")) {
+            // The socket, then the file unless the daemon is stopped
+            if (arguments.size() != (options.contains(CompilerDaemon.STOP) ? 1 : 2)) {
+                printUsage();
+                return;
+            }
+
+            List<String> request = new ArrayList<>(options);
+            if (arguments.size() == 2) {
+                request.add(Path.of(arguments.get(1)).toAbsolutePath().toString());
+            }
+
+            System.exit(CompilerClient.send(Path.of(arguments.get(0)), request, System.out, System.err));
+        }
+
         if (arguments.size() != 1) {
             printUsage();
             return;
@@ -31,11 +61,23 @@ public final class CompilerMain {
 
         Path path = Path.of(arguments.get(0));
 
+        if (options.remove("-watch")) {
+            try (CompilationWatcher watcher = CompilationWatcher.open(path, options, System.out, System.err)) {
+                watcher.run();
+            } catch (IOException e) {
+                System.err.println("[ERROR] " + path + " | Failed on watching: " + e);
+            }
+            return;
+        }
+
         ClassCompilation.compile(path, options);
     }
 
     private static void printUsage() {
-        System.out.println("Usage: java -jar olang [-bundle] [-jar] <file>");
+        System.out.println("Usage: java -jar olang [-bundle] [-jar] [-fast-tokenizer] [-scoped-analyzer] [-parallel-analyzer] [-incremental] [-watch] <file>");
+        System.out.println("       java -jar olang -daemon <socket>");
+        System.out.println("       java -jar olang -client <socket> [options] <file>");
+        System.out.println("       java -jar olang -client -stop <socket>");
     }
 
 }
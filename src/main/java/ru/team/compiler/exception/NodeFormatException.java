@@ -10,6 +10,16 @@ public class NodeFormatException extends RuntimeException {
 
     public static final Object END_OF_STRING = new Object();
 
+    // Parsers throw these on every miss while they backtrack, so stack traces are opt-in. A miss of the whole input
+    // reaches the user as a SyntaxException, which has one
+    private static final boolean STACK_TRACES = Boolean.getBoolean("olang.parser.stackTraces");
+
+    private final String expected;
+    private final Object actual;
+    private final int line;
+    private final int column;
+    private String message;
+
     public NodeFormatException(@Nullable String expected, @Nullable Token actual) {
         this(expected, actual, actual);
     }
@@ -19,7 +29,22 @@ public class NodeFormatException extends RuntimeException {
     }
 
     public NodeFormatException(@Nullable String expected, @Nullable Object actual, int line, int column) {
-        super("(at line: %d, column: %d) Expected: %s | Actual: %s".formatted(line, column, expected, format(actual)));
+        super(null, null, false, STACK_TRACES);
+        this.expected = expected;
+        this.actual = actual;
+        this.line = line;
+        this.column = column;
+    }
+
+    @Override
+    @NotNull
+    public String getMessage() {
+        if (message == null) {
+            message = "(at line: %d, column: %d) Expected: %s | Actual: %s"
+                    .formatted(line, column, expected, format(actual));
+        }
+
+        return message;
     }
 
     @NotNull
@@ -0,0 +1,7 @@
+package ru.team.compiler.exception;
+
+import lombok.experimental.StandardException;
+
+@StandardException
+public class SyntaxException extends CompilerException {
+}
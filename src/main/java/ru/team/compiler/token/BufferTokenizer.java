@@ -0,0 +1,304 @@
+package ru.team.compiler.token;
+
+import org.jetbrains.annotations.NotNull;
+import ru.team.compiler.exception.NodeFormatException;
+import ru.team.compiler.exception.SyntaxException;
+
+public final class BufferTokenizer {
+
+    private static final byte OTHER = 0;
+    private static final byte WHITESPACE = 1;
+    private static final byte DIGIT = 2;
+    private static final byte LETTER = 3;
+    private static final byte SINGLE = 4;
+    private static final byte SLASH = 5;
+
+    private static final byte[] CLASSES = new byte[128];
+    private static final TokenType[] SINGLE_TOKENS = new TokenType[128];
+    private static final char[][][] KEYWORDS = new char[128][][];
+    private static final TokenType[][] KEYWORD_TYPES = new TokenType[128][];
+
+    static {
+        for (char c = 0; c < 128; c++) {
+            if (Character.isWhitespace(c)) {
+                CLASSES[c] = WHITESPACE;
+            } else if (c >= '0' && c <= '9') {
+                CLASSES[c] = DIGIT;
+            } else if (c >= 'a' && c <= 'z' || c >= 'A' && c <= 'Z' || c == '_') {
+                CLASSES[c] = LETTER;
+            }
+        }
+
+        SINGLE_TOKENS['.'] = TokenType.DOT;
+        SINGLE_TOKENS[','] = TokenType.COMMA;
+        SINGLE_TOKENS[':'] = TokenType.COLON;
+        SINGLE_TOKENS['('] = TokenType.OPENING_PARENTHESIS;
+        SINGLE_TOKENS[')'] = TokenType.CLOSING_PARENTHESIS;
+        SINGLE_TOKENS['['] = TokenType.OPENING_BRACKET;
+        SINGLE_TOKENS[']'] = TokenType.CLOSING_BRACKET;
+        SINGLE_TOKENS[';'] = TokenType.SEMICOLON;
+
+        for (char c = 0; c < 128; c++) {
+            if (SINGLE_TOKENS[c] != null) {
+                CLASSES[c] = SINGLE;
+            }
+        }
+
+        CLASSES['/'] = SLASH;
+
+        for (TokenType tokenType : TokenType.values()) {
+            String name = tokenType.name();
+            if (tokenType.isKeyword()) {
+                addKeyword(name.substring(0, name.length() - "_KEYWORD".length()).toLowerCase(), tokenType);
+            }
+        }
+
+        addKeyword("true", TokenType.BOOLEAN_LITERAL);
+        addKeyword("false", TokenType.BOOLEAN_LITERAL);
+    }
+
+    private static void addKeyword(@NotNull String keyword, @NotNull TokenType tokenType) {
+        char first = keyword.charAt(0);
+
+        char[][] keywords = KEYWORDS[first];
+        TokenType[] types = KEYWORD_TYPES[first];
+        int size = keywords == null ? 0 : keywords.length;
+
+        char[][] newKeywords = new char[size + 1][];
+        TokenType[] newTypes = new TokenType[size + 1];
+        if (keywords != null) {
+            System.arraycopy(keywords, 0, newKeywords, 0, size);
+            System.arraycopy(types, 0, newTypes, 0, size);
+        }
+
+        newKeywords[size] = keyword.toCharArray();
+        newTypes[size] = tokenType;
+
+        KEYWORDS[first] = newKeywords;
+        KEYWORD_TYPES[first] = newTypes;
+    }
+
+    private final char[] chars;
+    private final int end;
+    private int pos;
+    private int line = 1;
+    private int lineStart;
+
+    private int offset;
+    private int length;
+    private TokenType type;
+    private int tokenLine;
+    private int tokenColumn;
+
+    public BufferTokenizer(@NotNull String string) {
+        this(string.toCharArray());
+    }
+
+    public BufferTokenizer(char @NotNull [] chars) {
+        this.chars = chars;
+        this.end = chars.length;
+    }
+
+    public boolean hasNext() {
+        skipWhitespaces();
+
+        return pos < end;
+    }
+
+    public boolean advance() {
+        if (!hasNext()) {
+            return false;
+        }
+
+        int start = pos;
+        char c = chars[start];
+
+        offset = start;
+        tokenLine = line;
+        tokenColumn = start - lineStart;
+
+        if (classOf(c) == SINGLE) {
+            if (c == ':' && start + 1 < end && chars[start + 1] == '=') {
+                set(start, 2, TokenType.ASSIGNMENT_OPERATOR);
+            } else {
+                set(start, 1, SINGLE_TOKENS[c]);
+            }
+
+            return true;
+        }
+
+        boolean number = isDigit(c);
+        int dotIndex = -1;
+
+        int i = start + 1;
+        while (i < end) {
+            c = chars[i];
+
+            byte charClass = classOf(c);
+            if (charClass == SINGLE) {
+                if (number && c == '.' && dotIndex < 0) {
+                    dotIndex = i++;
+                    continue;
+                }
+
+                break;
+            }
+
+            if (charClass == WHITESPACE || charClass == SLASH && isComment(i)) {
+                break;
+            }
+
+            if (number && dotIndex >= 0 && !isDigit(c)) {
+                i = dotIndex;
+                break;
+            }
+
+            i++;
+        }
+
+        set(start, i - start, number ? numberType(start, i) : wordType(start, i));
+        return true;
+    }
+
+    @NotNull
+    public Token next() {
+        if (!advance()) {
+            NodeFormatException exception = new NodeFormatException("string", NodeFormatException.END_OF_STRING,
+                    line, pos - lineStart);
+            throw new SyntaxException(exception.getMessage(), exception);
+        }
+
+        return new Token(type, value(), tokenLine, tokenColumn);
+    }
+
+    public int offset() {
+        return offset;
+    }
+
+    public int length() {
+        return length;
+    }
+
+    @NotNull
+    public TokenType type() {
+        return type;
+    }
+
+    public int line() {
+        return tokenLine;
+    }
+
+    public int column() {
+        return tokenColumn;
+    }
+
+    @NotNull
+    public String value() {
+        return new String(chars, offset, length);
+    }
+
+    // ===
+
+    private void set(int offset, int length, @NotNull TokenType type) {
+        this.offset = offset;
+        this.length = length;
+        this.type = type;
+        this.pos = offset + length;
+    }
+
+    private void skipWhitespaces() {
+        while (pos < end) {
+            char c = chars[pos];
+            byte charClass = classOf(c);
+
+            if (charClass == WHITESPACE) {
+                pos++;
+                if (c == '\n') {
+                    line++;
+                    lineStart = pos;
+                }
+            } else if (charClass == SLASH && isComment(pos)) {
+                while (pos < end && chars[pos] != '\n') {
+                    pos++;
+                }
+            } else {
+                break;
+            }
+        }
+    }
+
+    private boolean isComment(int index) {
+        return index + 1 < end && chars[index + 1] == '/';
+    }
+
+    @NotNull
+    private TokenType numberType(int start, int end) {
+        boolean dot = false;
+
+        for (int i = start; i < end; i++) {
+            char c = chars[i];
+            if (c == '.') {
+                if (dot) {
+                    return TokenType.UNIDENTIFIED;
+                }
+
+                dot = true;
+                continue;
+            }
+
+            if (!isDigit(c)) {
+                return TokenType.UNIDENTIFIED;
+            }
+        }
+
+        return dot ? TokenType.REAL_LITERAL : TokenType.INTEGER_LITERAL;
+    }
+
+    @NotNull
+    private TokenType wordType(int start, int end) {
+        char first = chars[start];
+        if (first < 128 && KEYWORDS[first] != null) {
+            char[][] keywords = KEYWORDS[first];
+            for (int i = 0; i < keywords.length; i++) {
+                if (matches(keywords[i], start, end)) {
+                    return KEYWORD_TYPES[first][i];
+                }
+            }
+        }
+
+        for (int i = start; i < end; i++) {
+            char c = chars[i];
+            if (c >= 128 || CLASSES[c] != LETTER && CLASSES[c] != DIGIT) {
+                return TokenType.UNIDENTIFIED;
+            }
+        }
+
+        return TokenType.IDENTIFIER;
+    }
+
+    private boolean matches(char @NotNull [] keyword, int start, int end) {
+        if (keyword.length != end - start) {
+            return false;
+        }
+
+        for (int i = 0; i < keyword.length; i++) {
+            if (keyword[i] != chars[start + i]) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private static byte classOf(char c) {
+        if (c < 128) {
+            return CLASSES[c];
+        }
+
+        return Character.isWhitespace(c) ? WHITESPACE : Character.isDigit(c) ? DIGIT : OTHER;
+    }
+
+    private static boolean isDigit(char c) {
+        return c < 128 ? CLASSES[c] == DIGIT : Character.isDigit(c);
+    }
+}
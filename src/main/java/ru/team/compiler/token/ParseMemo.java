@@ -0,0 +1,31 @@
+package ru.team.compiler.token;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+public final class ParseMemo {
+
+    private final int size;
+    private final Map<Object, Entry[]> entries = new IdentityHashMap<>();
+
+    public ParseMemo(int size) {
+        this.size = size;
+    }
+
+    @Nullable
+    public Entry get(@NotNull Object parser, int index) {
+        Entry[] parserEntries = entries.get(parser);
+        return parserEntries != null ? parserEntries[index] : null;
+    }
+
+    public void put(@NotNull Object parser, int index, @NotNull Object result, int end) {
+        entries.computeIfAbsent(parser, key -> new Entry[size + 1])[index] = new Entry(result, end);
+    }
+
+    public record Entry(@NotNull Object result, int end) {
+
+    }
+}
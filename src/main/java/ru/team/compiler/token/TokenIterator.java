@@ -9,15 +9,29 @@ import java.util.List;
 
 public final class TokenIterator {
 
-    private final List<Token> list;
+    private final TokenStream stream;
+    private final ParseMemo memo;
     private int index = 0;
 
     public TokenIterator(@NotNull List<Token> list) {
-        this.list = list;
+        this(TokenStream.of(list));
+    }
+
+    public TokenIterator(@NotNull TokenStream stream) {
+        this(stream, false);
+    }
+
+    public TokenIterator(@NotNull TokenStream stream, boolean memoize) {
+        this(stream, memoize ? new ParseMemo(stream.size()) : null);
+    }
+
+    private TokenIterator(@NotNull TokenStream stream, @Nullable ParseMemo memo) {
+        this.stream = stream;
+        this.memo = memo;
     }
 
     public boolean hasNext() {
-        return index < list.size();
+        return index < stream.size();
     }
 
     @NotNull
@@ -31,7 +45,7 @@ public final class TokenIterator {
             throw new NodeFormatException(expected, NodeFormatException.END_OF_STRING, lastToken());
         }
 
-        return list.get(index++);
+        return stream.token(index++);
     }
 
     @NotNull
@@ -45,12 +59,12 @@ public final class TokenIterator {
             throw new NodeFormatException(expectedMessage, NodeFormatException.END_OF_STRING, lastToken());
         }
 
-        Token token = next(expected.name());
-        if (token.type() != expected) {
-            throw new NodeFormatException(expectedMessage, token);
+        int current = index++;
+        if (!stream.is(current, expected)) {
+            throw new NodeFormatException(expectedMessage, stream.token(current));
         }
 
-        return token;
+        return stream.token(current);
     }
 
     @NotNull
@@ -64,11 +78,29 @@ public final class TokenIterator {
             throw new NodeFormatException(expected, NodeFormatException.END_OF_STRING, lastToken());
         }
 
-        return list.get(index);
+        return stream.token(index);
+    }
+
+    @NotNull
+    public TokenType lookupType() {
+        return lookupType("any");
+    }
+
+    @NotNull
+    public TokenType lookupType(@NotNull String expected) {
+        if (!hasNext()) {
+            throw new NodeFormatException(expected, NodeFormatException.END_OF_STRING, lastToken());
+        }
+
+        return stream.type(index);
     }
 
     public boolean lookup(@NotNull TokenType expected) {
-        return hasNext() && list.get(index).type() == expected;
+        return stream.is(index, expected);
+    }
+
+    public boolean lookup(int offset, @NotNull TokenType expected) {
+        return stream.is(index + offset, expected);
     }
 
     public boolean consume(@NotNull TokenType expected) {
@@ -83,15 +115,19 @@ public final class TokenIterator {
     @Nullable
     public Token previous() {
         if (index >= 1) {
-            return list.get(index - 1);
+            return stream.token(index - 1);
         } else {
             return null;
         }
     }
 
+    public boolean previous(@NotNull TokenType expected) {
+        return index >= 1 && stream.is(index - 1, expected);
+    }
+
     @NotNull
     public TokenIterator copy() {
-        TokenIterator iterator = new TokenIterator(list);
+        TokenIterator iterator = new TokenIterator(stream, memo);
         iterator.index = index;
         return iterator;
     }
@@ -106,7 +142,17 @@ public final class TokenIterator {
 
     @Nullable
     public Token lastToken() {
-        int size = list.size();
-        return size >= 1 ? list.get(size - 1) : null;
+        int size = stream.size();
+        return size >= 1 ? stream.token(size - 1) : null;
+    }
+
+    @NotNull
+    public TokenStream stream() {
+        return stream;
+    }
+
+    @Nullable
+    public ParseMemo memo() {
+        return memo;
     }
 }
@@ -0,0 +1,281 @@
+package ru.team.compiler.token;
+
+import org.jetbrains.annotations.NotNull;
+import ru.team.compiler.util.Symbols;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.function.Function;
+
+public abstract sealed class TokenStream {
+
+    private static final TokenType[] TYPES = TokenType.values();
+
+    private TokenStream() {
+
+    }
+
+    // Tokens read by the BufferTokenizer, kept in parallel arrays over the source chars
+    @NotNull
+    public static TokenStream tokenize(@NotNull String string) {
+        char[] chars = string.toCharArray();
+
+        Builder builder = new Builder(chars, Math.max(16, chars.length / 4));
+
+        BufferTokenizer tokenizer = new BufferTokenizer(chars);
+        while (tokenizer.advance()) {
+            builder.add(tokenizer.type(), tokenizer.offset(), tokenizer.length(), tokenizer.line(), tokenizer.column());
+        }
+
+        return builder.build();
+    }
+
+    // Tokenizer selected by -fast-tokenizer, the Tokenizer is the default one
+    @NotNull
+    public static Function<String, TokenStream> tokenizer(boolean fastTokenizer) {
+        return fastTokenizer ? TokenStream::tokenize : TokenStream::tokenizeDefault;
+    }
+
+    // Tokens read by the Tokenizer
+    @NotNull
+    public static TokenStream tokenizeDefault(@NotNull String string) {
+        List<Token> tokens = new ArrayList<>();
+
+        Tokenizer tokenizer = new Tokenizer(string);
+        while (tokenizer.hasNext()) {
+            tokens.add(tokenizer.next());
+        }
+
+        return of(tokens);
+    }
+
+    // The list is wrapped, not copied
+    @NotNull
+    public static TokenStream of(@NotNull List<Token> tokens) {
+        if (tokens instanceof TokenList tokenList) {
+            return tokenList.stream;
+        }
+
+        return new ListStream(tokens);
+    }
+
+    public abstract int size();
+
+    @NotNull
+    public abstract TokenType type(int index);
+
+    public abstract boolean is(int index, @NotNull TokenType tokenType);
+
+    public abstract int line(int index);
+
+    public abstract int column(int index);
+
+    @NotNull
+    public abstract String value(int index);
+
+    @NotNull
+    public abstract Token token(int index);
+
+    @NotNull
+    public List<Token> asList() {
+        return new TokenList(this);
+    }
+
+    private static final class SourceStream extends TokenStream {
+
+        private final char[] source;
+        private final int[] type;
+        private final int[] start;
+        private final int[] length;
+        private final int[] line;
+        private final int[] column;
+        private final int size;
+        private final String[] values;
+        // Tokens are created on the first request, parsers ask for the same ones again when they backtrack
+        private Token[] tokens;
+
+        private SourceStream(char @NotNull [] source, int @NotNull [] type, int @NotNull [] start,
+                             int @NotNull [] length, int @NotNull [] line, int @NotNull [] column, int size) {
+            this.source = source;
+            this.type = type;
+            this.start = start;
+            this.length = length;
+            this.line = line;
+            this.column = column;
+            this.size = size;
+            this.values = new String[size];
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        @NotNull
+        public TokenType type(int index) {
+            return TYPES[type[index]];
+        }
+
+        @Override
+        public boolean is(int index, @NotNull TokenType tokenType) {
+            return index < size && type[index] == tokenType.ordinal();
+        }
+
+        @Override
+        public int line(int index) {
+            return line[index];
+        }
+
+        @Override
+        public int column(int index) {
+            return column[index];
+        }
+
+        @Override
+        @NotNull
+        public String value(int index) {
+            String value = values[index];
+            if (value == null) {
+                value = type[index] == TokenType.IDENTIFIER.ordinal()
+                        ? Symbols.intern(source, start[index], length[index])
+                        : new String(source, start[index], length[index]);
+                values[index] = value;
+            }
+
+            return value;
+        }
+
+        @Override
+        @NotNull
+        public Token token(int index) {
+            if (tokens == null) {
+                tokens = new Token[size];
+            }
+
+            Token token = tokens[index];
+            if (token == null) {
+                token = new Token(type(index), value(index), line[index], column[index]);
+                tokens[index] = token;
+            }
+
+            return token;
+        }
+    }
+
+    private static final class ListStream extends TokenStream {
+
+        private final List<Token> tokens;
+
+        private ListStream(@NotNull List<Token> tokens) {
+            this.tokens = tokens;
+        }
+
+        @Override
+        public int size() {
+            return tokens.size();
+        }
+
+        @Override
+        @NotNull
+        public TokenType type(int index) {
+            return tokens.get(index).type();
+        }
+
+        @Override
+        public boolean is(int index, @NotNull TokenType tokenType) {
+            return index < tokens.size() && tokens.get(index).type() == tokenType;
+        }
+
+        @Override
+        public int line(int index) {
+            return tokens.get(index).line();
+        }
+
+        @Override
+        public int column(int index) {
+            return tokens.get(index).column();
+        }
+
+        @Override
+        @NotNull
+        public String value(int index) {
+            return tokens.get(index).value();
+        }
+
+        @Override
+        @NotNull
+        public Token token(int index) {
+            return tokens.get(index);
+        }
+    }
+
+    private static final class Builder {
+
+        private final char[] source;
+        private int[] type;
+        private int[] start;
+        private int[] length;
+        private int[] line;
+        private int[] column;
+        private int size;
+
+        private Builder(char @NotNull [] source, int capacity) {
+            this.source = source;
+            this.type = new int[capacity];
+            this.start = new int[capacity];
+            this.length = new int[capacity];
+            this.line = new int[capacity];
+            this.column = new int[capacity];
+        }
+
+        private void add(@NotNull TokenType tokenType, int start, int length, int line, int column) {
+            if (size == type.length) {
+                int capacity = Math.max(16, size * 2);
+                this.type = Arrays.copyOf(this.type, capacity);
+                this.start = Arrays.copyOf(this.start, capacity);
+                this.length = Arrays.copyOf(this.length, capacity);
+                this.line = Arrays.copyOf(this.line, capacity);
+                this.column = Arrays.copyOf(this.column, capacity);
+            }
+
+            this.type[size] = tokenType.ordinal();
+            this.start[size] = start;
+            this.length[size] = length;
+            this.line[size] = line;
+            this.column[size] = column;
+            size++;
+        }
+
+        @NotNull
+        private TokenStream build() {
+            return new SourceStream(source, type, start, length, line, column, size);
+        }
+    }
+
+    private static final class TokenList extends AbstractList<Token> implements RandomAccess {
+
+        private final TokenStream stream;
+
+        private TokenList(@NotNull TokenStream stream) {
+            this.stream = stream;
+        }
+
+        @Override
+        public Token get(int index) {
+            if (index < 0 || index >= stream.size()) {
+                throw new IndexOutOfBoundsException(index);
+            }
+
+            return stream.token(index);
+        }
+
+        @Override
+        public int size() {
+            return stream.size();
+        }
+    }
+}
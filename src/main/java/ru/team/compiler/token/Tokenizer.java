@@ -3,6 +3,7 @@ package ru.team.compiler.token;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import ru.team.compiler.exception.NodeFormatException;
+import ru.team.compiler.exception.SyntaxException;
 import ru.team.compiler.util.Pair;
 
 import java.util.ArrayDeque;
@@ -251,7 +252,8 @@ public class Tokenizer {
     }
 
     @NotNull
-    private NodeFormatException expected(@Nullable Object expected, @Nullable Object actual) {
-        return new NodeFormatException(Objects.toString(expected), actual, line, column);
+    private SyntaxException expected(@Nullable Object expected, @Nullable Object actual) {
+        NodeFormatException exception = new NodeFormatException(Objects.toString(expected), actual, line, column);
+        return new SyntaxException(exception.getMessage(), exception);
     }
 }
@@ -4,8 +4,8 @@ import ru.team.compiler.analyzer.AnalyzeContext;
 import ru.team.compiler.analyzer.Analyzer;
 import ru.team.compiler.compiler.ClassFile;
 import ru.team.compiler.compiler.CompilationContext;
-import ru.team.compiler.token.Token;
-import ru.team.compiler.token.Tokenizer;
+import ru.team.compiler.token.TokenIterator;
+import ru.team.compiler.token.TokenStream;
 import ru.team.compiler.tree.node.NodeToStringHelper;
 import ru.team.compiler.tree.node.TreeNode;
 import ru.team.compiler.tree.node.clas.ClassMemberNode;
@@ -20,9 +20,9 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Scanner;
+import java.util.function.Function;
 
 public final class TreeMain {
 
@@ -31,6 +31,8 @@ public final class TreeMain {
     }
 
     public static void main(String[] args) {
+        Function<String, TokenStream> tokenizer = TokenStream.tokenizer(List.of(args).contains("-fast-tokenizer"));
+
         Scanner scanner = new Scanner(System.in);
         System.out.println("Enter ' to exit, | to parse");
         StringBuilder stringBuilder = new StringBuilder();
@@ -42,13 +44,9 @@ public final class TreeMain {
 
             if (code.strip().equals("|")) {
                 try {
-                    Tokenizer tokenizer = new Tokenizer(stringBuilder.toString());
-                    List<Token> tokens = new ArrayList<>();
-                    while (tokenizer.hasNext()) {
-                        tokens.add(tokenizer.next());
-                    }
+                    TokenStream tokens = tokenizer.apply(stringBuilder.toString());
 
-                    TreeNode node = TreeNode.PARSER.parse(tokens);
+                    TreeNode node = TreeNode.PARSER.parse(new TokenIterator(tokens, true));
                     System.out.println(NodeToStringHelper.toString(node, true));
 
                     TreeNode analyzeNode = node;
@@ -61,9 +59,9 @@ public final class TreeMain {
                     try {
                         Path path = Path.of(".");
                         if (analyzeNode instanceof ProgramNode programNode) {
-                            context = Analyzer.createContext(path, programNode);
+                            context = Analyzer.createContext(path, programNode, tokenizer);
                         } else {
-                            context = Analyzer.createContext(path, new ProgramNode(List.of(), List.of()));
+                            context = Analyzer.createContext(path, new ProgramNode(List.of(), List.of()), tokenizer);
                         }
 
                         AnalyzeContext newContext = node.analyze(context);
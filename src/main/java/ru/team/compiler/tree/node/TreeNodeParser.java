@@ -2,8 +2,12 @@ package ru.team.compiler.tree.node;
 
 import org.jetbrains.annotations.NotNull;
 import ru.team.compiler.exception.CompilerException;
+import ru.team.compiler.exception.NodeFormatException;
+import ru.team.compiler.exception.SyntaxException;
+import ru.team.compiler.token.ParseMemo;
 import ru.team.compiler.token.Token;
 import ru.team.compiler.token.TokenIterator;
+import ru.team.compiler.token.TokenStream;
 
 import java.util.List;
 
@@ -14,7 +18,12 @@ public interface TreeNodeParser<N extends TreeNode> {
 
     @NotNull
     default N parse(@NotNull List<Token> tokens) throws CompilerException {
-        return parse(new TokenIterator(tokens));
+        return parseInput(new TokenIterator(tokens));
+    }
+
+    @NotNull
+    default N parse(@NotNull TokenStream tokens) throws CompilerException {
+        return parseInput(new TokenIterator(tokens));
     }
 
     @NotNull
@@ -22,4 +31,50 @@ public interface TreeNodeParser<N extends TreeNode> {
         return parse(List.of(token));
     }
 
+    // Misses are stackless while parsers backtrack, a miss of the whole input is the syntax error reported to the user
+    @NotNull
+    private N parseInput(@NotNull TokenIterator iterator) throws CompilerException {
+        try {
+            return parse(iterator);
+        } catch (NodeFormatException e) {
+            throw new SyntaxException(e.getMessage(), e);
+        }
+    }
+
+    @NotNull
+    static <N extends TreeNode> TreeNodeParser<N> memoized(@NotNull TreeNodeParser<N> parser) {
+        return new TreeNodeParser<>() {
+            @Override
+            @NotNull
+            @SuppressWarnings("unchecked")
+            public N parse(@NotNull TokenIterator iterator) throws CompilerException {
+                ParseMemo memo = iterator.memo();
+                if (memo == null) {
+                    return parser.parse(iterator);
+                }
+
+                int index = iterator.index();
+
+                ParseMemo.Entry entry = memo.get(this, index);
+                if (entry != null) {
+                    iterator.index(entry.end());
+                    if (entry.result() instanceof NodeFormatException e) {
+                        throw e;
+                    }
+
+                    return (N) entry.result();
+                }
+
+                try {
+                    N node = parser.parse(iterator);
+                    memo.put(this, index, node, iterator.index());
+                    return node;
+                } catch (NodeFormatException e) {
+                    memo.put(this, index, e, iterator.index());
+                    throw e;
+                }
+            }
+        };
+    }
+
 }
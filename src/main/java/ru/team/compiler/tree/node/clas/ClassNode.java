@@ -8,6 +8,7 @@ import org.jetbrains.annotations.Unmodifiable;
 import ru.team.compiler.analyzer.AnalyzableClass;
 import ru.team.compiler.analyzer.AnalyzableMethod;
 import ru.team.compiler.analyzer.AnalyzeContext;
+import ru.team.compiler.analyzer.MethodLayout;
 import ru.team.compiler.exception.AnalyzerException;
 import ru.team.compiler.exception.CompilerException;
 import ru.team.compiler.exception.NodeFormatException;
@@ -24,9 +25,7 @@ import ru.team.compiler.tree.node.statement.BodyNode;
 import ru.team.compiler.tree.node.statement.MethodCallNode;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 import java.util.Objects;
 import java.util.stream.Collectors;
 
@@ -34,7 +33,7 @@ import java.util.stream.Collectors;
 @ToString
 public final class ClassNode extends TreeNode {
 
-    public static final TreeNodeParser<ClassNode> PARSER = new TreeNodeParser<>() {
+    public static final TreeNodeParser<ClassNode> PARSER = TreeNodeParser.memoized(new TreeNodeParser<>() {
         @Override
         @NotNull
         public ClassNode parse(@NotNull TokenIterator iterator) throws CompilerException {
@@ -93,7 +92,7 @@ public final class ClassNode extends TreeNode {
 
             throw new NodeFormatException("end", NodeFormatException.END_OF_STRING, iterator.lastToken());
         }
-    };
+    });
 
     private final boolean isAbstract;
     private final IdentifierNode name;
@@ -131,54 +130,59 @@ public final class ClassNode extends TreeNode {
     @Override
     @NotNull
     public AnalyzeContext analyzeUnsafe(@NotNull AnalyzeContext context) {
+        return analyzeUnsafe(context, false);
+    }
+
+    @NotNull
+    public AnalyzeContext analyze(@NotNull AnalyzeContext context, boolean parallel) {
+        try {
+            return analyzeUnsafe(context, parallel);
+        } catch (Exception e) {
+            return context.addException(e);
+        }
+    }
+
+    @NotNull
+    public AnalyzeContext analyzeUnsafe(@NotNull AnalyzeContext context, boolean parallel) {
         context = context.withClass(this);
-        for (ClassMemberNode classMemberNode : classMembers) {
-            context = classMemberNode.analyze(context);
+        if (parallel) {
+            // Members only add exceptions, so they are analyzed independently and merged in source order
+            AnalyzeContext classContext = context.withExceptions(List.of());
+            List<List<Exception>> memberExceptions = classMembers.parallelStream()
+                    .map(classMemberNode -> classMemberNode.analyze(classContext).exceptions())
+                    .toList();
+
+            for (List<Exception> exceptions : memberExceptions) {
+                context = context.addExceptions(exceptions);
+            }
+        } else {
+            for (ClassMemberNode classMemberNode : classMembers) {
+                context = classMemberNode.analyze(context);
+            }
         }
 
         List<Exception> exceptions = new ArrayList<>();
 
         AnalyzableClass currentClass = Objects.requireNonNull(context.currentClass());
         if (!isAbstract) {
-            Map<AnalyzableMethod.Key, AnalyzableClass> abstractMethods = new HashMap<>();
-            Map<AnalyzableMethod.Key, AnalyzableMethod> nonAbstractMethods = new HashMap<>(currentClass.methods());
-
-            AnalyzableClass currentParentClass = currentClass;
-            while (true) {
-                try {
-                    currentParentClass = currentParentClass.findParentClass(context, "Class");
-                } catch (Exception exception) {
-                    exceptions.add(exception);
-                    currentParentClass = null;
-                }
-
-                if (currentParentClass == null || !currentParentClass.classNode().isAbstract()) {
-                    break;
-                }
+            MethodLayout layout = context.methodTable().layout(currentClass);
 
-                for (AnalyzableMethod method : currentParentClass.methods().values()) {
-                    if (method.methodNode().isAbstract()) {
-                        abstractMethods.put(method.key(), currentParentClass);
-                    } else {
-                        nonAbstractMethods.putIfAbsent(method.key(), method);
-                    }
-                }
+            AnalyzableClass unknownParentClass = layout.unknownParentClass();
+            if (unknownParentClass != null) {
+                exceptions.add(new AnalyzerException("Class at '%s' is invalid: class '%s' extends unknown '%s'"
+                        .formatted(context.currentPath(), unknownParentClass.name().value(),
+                                unknownParentClass.parentClass().value())));
             }
 
-            for (var entry : abstractMethods.entrySet()) {
+            for (var entry : layout.missingMethods().entrySet()) {
                 AnalyzableMethod.Key key = entry.getKey();
-
-                AnalyzableMethod method = nonAbstractMethods.get(key);
-                if (method == null) {
-                    AnalyzableClass definedClass = entry.getValue();
-                    exceptions.add(
-                            new AnalyzerException("Class '%s' must implement abstract method '%s.%s(%s)'"
-                                    .formatted(name().value(), definedClass.classNode().name().value(),
-                                            key.name().value(), key.parameterTypesAsString()))
-                    );
-                }
+                AnalyzableClass definedClass = entry.getValue();
+                exceptions.add(
+                        new AnalyzerException("Class '%s' must implement abstract method '%s.%s(%s)'"
+                                .formatted(name().value(), definedClass.classNode().name().value(),
+                                        key.name().value(), key.parameterTypesAsString()))
+                );
             }
-
         }
 
         return context.addExceptions(exceptions);
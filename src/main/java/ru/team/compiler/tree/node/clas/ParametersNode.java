@@ -17,17 +17,15 @@ import ru.team.compiler.tree.node.expression.IdentifierNode;
 import ru.team.compiler.tree.node.primary.ReferenceNode;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
-import java.util.Map;
 import java.util.Set;
 
 @EqualsAndHashCode(callSuper = false)
 @ToString
 public final class ParametersNode extends TreeNode {
 
-    public static final TreeNodeParser<ParametersNode> PARSER = new TreeNodeParser<>() {
+    public static final TreeNodeParser<ParametersNode> PARSER = TreeNodeParser.memoized(new TreeNodeParser<>() {
         @Override
         @NotNull
         public ParametersNode parse(@NotNull TokenIterator iterator) throws CompilerException {
@@ -56,7 +54,7 @@ public final class ParametersNode extends TreeNode {
 
             return new ParametersNode(parameterNodes);
         }
-    };
+    });
 
     private final List<Par> pars;
 
@@ -73,9 +71,8 @@ public final class ParametersNode extends TreeNode {
     @Override
     @NotNull
     public AnalyzeContext analyzeUnsafe(@NotNull AnalyzeContext context) {
-        Map<ReferenceNode, AnalyzableVariable> variables = new HashMap<>(context.variables());
-        Set<ReferenceNode> initializedVariables = new HashSet<>(context.initializedVariables());
-
+        // Everything is checked before declaring, so a failed check leaves the symbol table untouched
+        Set<ReferenceNode> names = new HashSet<>();
         for (Par par : pars) {
             if (!context.hasClass(par.type)) {
                 throw new AnalyzerException("Parameter '%s.%s' references to unknown type '%s'"
@@ -83,17 +80,17 @@ public final class ParametersNode extends TreeNode {
             }
 
             ReferenceNode name = par.name.asReference();
-            if (variables.containsKey(name)) {
+            if (context.hasVariable(name) || !names.add(name)) {
                 throw new AnalyzerException("Parameter '%s.%s' is already defined"
                         .formatted(context.currentPath(), name.value()));
             }
+        }
 
-            variables.put(name, new AnalyzableVariable(par.name, par.type));
-            initializedVariables.add(name);
+        for (Par par : pars) {
+            context = context.withVariable(new AnalyzableVariable(par.name, par.type), true);
         }
 
-        return context.withVariables(variables)
-                .withInitializedVariables(initializedVariables);
+        return context;
     }
 
     public record Par(@NotNull IdentifierNode name, @NotNull ReferenceNode type) {
@@ -7,20 +7,21 @@ import org.jetbrains.annotations.Unmodifiable;
 import ru.team.compiler.analyzer.AnalyzeContext;
 import ru.team.compiler.exception.CompilerException;
 import ru.team.compiler.exception.NodeFormatException;
-import ru.team.compiler.token.Token;
 import ru.team.compiler.token.TokenIterator;
+import ru.team.compiler.token.TokenType;
 import ru.team.compiler.tree.node.TreeNode;
 import ru.team.compiler.tree.node.TreeNodeParser;
 
 import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @EqualsAndHashCode(callSuper = false)
 @ToString
 public final class ProgramNode extends TreeNode {
 
-    public static final TreeNodeParser<ProgramNode> PARSER = new TreeNodeParser<>() {
+    public static final TreeNodeParser<ProgramNode> PARSER = TreeNodeParser.memoized(new TreeNodeParser<>() {
         @Override
         @NotNull
         public ProgramNode parse(@NotNull TokenIterator iterator) throws CompilerException {
@@ -28,9 +29,9 @@ public final class ProgramNode extends TreeNode {
             List<ClassNode> classNodes = new ArrayList<>();
 
             while (iterator.hasNext()) {
-                Token token = iterator.lookup();
+                TokenType tokenType = iterator.lookupType();
 
-                switch (token.type()) {
+                switch (tokenType) {
                     case CLASS_KEYWORD -> {
                         ClassNode classNode = ClassNode.PARSER.parse(iterator);
                         classNodes.add(classNode);
@@ -39,13 +40,13 @@ public final class ProgramNode extends TreeNode {
                         IncludeNode includeNode = IncludeNode.PARSER.parse(iterator);
                         includeNodes.add(includeNode);
                     }
-                    default -> throw new NodeFormatException("class/include", token);
+                    default -> throw new NodeFormatException("class/include", iterator.lookup());
                 }
             }
 
             return new ProgramNode(includeNodes, classNodes);
         }
-    };
+    });
 
     private final List<IncludeNode> includeNodes;
     private final List<ClassNode> classes;
@@ -70,8 +71,31 @@ public final class ProgramNode extends TreeNode {
     @Override
     @NotNull
     public AnalyzeContext analyzeUnsafe(@NotNull AnalyzeContext context) {
-        for (ClassNode classNode : classes) {
-            context = classNode.analyze(context);
+        return analyzeUnsafe(context, false);
+    }
+
+    @NotNull
+    public AnalyzeContext analyze(@NotNull AnalyzeContext context, boolean parallel) {
+        try {
+            return analyzeUnsafe(context, parallel);
+        } catch (Exception e) {
+            return context.addException(e);
+        }
+    }
+
+    @NotNull
+    public AnalyzeContext analyzeUnsafe(@NotNull AnalyzeContext context, boolean parallel) {
+        // Classes only read the frozen class table, so each one starts from the program context
+        // and its exceptions are merged in source order
+        AnalyzeContext programContext = context.withExceptions(List.of());
+
+        Stream<ClassNode> classStream = parallel ? classes.parallelStream() : classes.stream();
+        List<List<Exception>> classExceptions = classStream
+                .map(classNode -> classNode.analyze(programContext, parallel).exceptions())
+                .toList();
+
+        for (List<Exception> exceptions : classExceptions) {
+            context = context.addExceptions(exceptions);
         }
 
         return context;
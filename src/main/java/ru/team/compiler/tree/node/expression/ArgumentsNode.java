@@ -19,7 +19,7 @@ import java.util.List;
 @ToString
 public final class ArgumentsNode extends TreeNode {
 
-    public static final TreeNodeParser<ArgumentsNode> PARSER = new TreeNodeParser<>() {
+    public static final TreeNodeParser<ArgumentsNode> PARSER = TreeNodeParser.memoized(new TreeNodeParser<>() {
         @Override
         @NotNull
         public ArgumentsNode parse(@NotNull TokenIterator iterator) throws CompilerException {
@@ -43,7 +43,7 @@ public final class ArgumentsNode extends TreeNode {
 
             return new ArgumentsNode(expressionNodes);
         }
-    };
+    });
 
     private final List<ExpressionNode> expressions;
 
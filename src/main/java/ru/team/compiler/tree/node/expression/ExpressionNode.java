@@ -13,6 +13,8 @@ import ru.team.compiler.analyzer.AnalyzableVariable;
 import ru.team.compiler.analyzer.AnalyzeContext;
 import ru.team.compiler.compiler.CompilationContext;
 import ru.team.compiler.compiler.CompilationUtils;
+import ru.team.compiler.compiler.PrimitiveType;
+import ru.team.compiler.compiler.attribute.BytecodeBuffer;
 import ru.team.compiler.compiler.attribute.CodeAttribute;
 import ru.team.compiler.compiler.attribute.CompilationExecutable;
 import ru.team.compiler.compiler.constant.ClassConstant;
@@ -37,17 +39,19 @@ import ru.team.compiler.tree.node.primary.ThisNode;
 import ru.team.compiler.tree.node.statement.MethodCallNode;
 import ru.team.compiler.util.Opcodes;
 
-import java.io.DataOutput;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 @EqualsAndHashCode(callSuper = false)
 @ToString
 public final class ExpressionNode extends TreeNode {
 
-    public static final TreeNodeParser<ExpressionNode> PARSER = new TreeNodeParser<>() {
+    public static final TreeNodeParser<ExpressionNode> PARSER = TreeNodeParser.memoized(new TreeNodeParser<>() {
         @Override
         @NotNull
         public ExpressionNode parse(@NotNull TokenIterator iterator) throws CompilerException {
@@ -107,7 +111,7 @@ public final class ExpressionNode extends TreeNode {
 
             return new ExpressionNode(primary, idArgs);
         }
-    };
+    });
 
     private final PrimaryNode primary;
     private final List<IdArg> idArgs;
@@ -163,7 +167,13 @@ public final class ExpressionNode extends TreeNode {
 
     @NotNull
     public ReferenceNode type(@NotNull AnalyzeContext context, boolean allowVoid, boolean checkUninitialized) {
+        return attribute(context, allowVoid, checkUninitialized).type();
+    }
+
+    @NotNull
+    private Attributes attribute(@NotNull AnalyzeContext context, boolean allowVoid, boolean checkUninitialized) {
         ReferenceNode currentType;
+        Object[] targets = new Object[idArgs.size()];
 
         int shift = 0;
 
@@ -206,6 +216,7 @@ public final class ExpressionNode extends TreeNode {
                                     referenceNode.value()));
                 }
 
+                targets[0] = constructor;
                 shift = 1;
 
                 currentType = referenceNode;
@@ -215,13 +226,13 @@ public final class ExpressionNode extends TreeNode {
                             .formatted(context.currentPath(), referenceNode.value()));
                 }
 
-                AnalyzableVariable variable = context.variables().get(referenceNode);
+                AnalyzableVariable variable = context.variable(referenceNode);
                 if (variable == null) {
                     throw new AnalyzerException("Expression at '%s' is invalid: reference to unknown variable '%s'"
                             .formatted(context.currentPath(), referenceNode.value()));
                 }
 
-                if (checkUninitialized && !context.initializedVariables().contains(variable.name().asReference())) {
+                if (checkUninitialized && !context.isVariableInitialized(referenceNode)) {
                     throw new AnalyzerException("Expression at '%s' is invalid: reference to uninitialized variable '%s'"
                             .formatted(context.currentPath(), referenceNode.value()));
                 }
@@ -242,7 +253,7 @@ public final class ExpressionNode extends TreeNode {
 
                 // TODO: maybe also forbid method calls if all fields are not initialized
                 if (checkUninitialized && idArg.arguments == null
-                        && !context.initializedFields().contains(idArg.name.asReference())) {
+                        && !context.isFieldInitialized(idArg.name.asReference())) {
                     throw new AnalyzerException("Expression at '%s' is invalid: reference to uninitialized field '%s'"
                             .formatted(context.currentPath(), idArg.name.value()));
                 }
@@ -313,6 +324,7 @@ public final class ExpressionNode extends TreeNode {
 
                 currentType = new ReferenceNode("<void>");
 
+                targets[0] = constructor;
                 shift = 1;
             }
         } else {
@@ -320,6 +332,8 @@ public final class ExpressionNode extends TreeNode {
                     .formatted(context.currentPath(), primary));
         }
 
+        ReferenceNode primaryType = currentType;
+
         for (int i = shift; i < idArgs.size(); i++) {
             AnalyzableClass analyzableClass = context.classes().get(currentType);
 
@@ -362,6 +376,7 @@ public final class ExpressionNode extends TreeNode {
                                     context.isAssignableFrom(requiredClass, currentType)));
                 }
 
+                targets[i] = requiredClass;
                 currentType = cast ? requiredClass : new ReferenceNode("Boolean");
             } else if (idArg.arguments == null) {
                 AnalyzableField field = analyzableClass.getField(
@@ -369,10 +384,12 @@ public final class ExpressionNode extends TreeNode {
                         new AnalyzableField.Key(idArg.name),
                         "Expression");
 
+                targets[i] = field;
                 currentType = field.type();
             } else {
                 AnalyzableMethod method = analyzableClass.findMatchingMethod(
                         context, idArg.name, idArg.arguments, checkUninitialized);
+                targets[i] = method;
 
                 boolean superCall = i == 0 && primary instanceof SuperNode;
                 if (method == null) {
@@ -430,19 +447,211 @@ public final class ExpressionNode extends TreeNode {
             }
         }
 
-        return currentType;
+        // Types and targets of the call chain, compile only emits them
+        Attributes attributes = new Attributes(currentType, primaryType,
+                Collections.unmodifiableList(Arrays.asList(targets)));
+        context.methodTable().attribute(this, attributes);
+        return attributes;
     }
 
     @NotNull
     public ReferenceNode compile(@NotNull CompilationContext context, @NotNull ClassNode currentClass,
                                  @NotNull ConstantPool constantPool, @NotNull CodeAttribute.VariablePool variablePool,
                                  @NotNull CompilationExecutable currentExecutable,
-                                 @NotNull DataOutput dataOutput, boolean allowVoid) throws IOException {
-        ReferenceNode currentType;
+                                 @NotNull BytecodeBuffer dataOutput, boolean allowVoid) throws IOException {
+        return compile(context, currentClass, constantPool, variablePool, currentExecutable, dataOutput, allowVoid,
+                idArgs.size(), false).type();
+    }
+
+    // Leaves the value of the expression, which is of the primitive type, unboxed on the stack
+    public void compileUnboxed(@NotNull CompilationContext context, @NotNull ClassNode currentClass,
+                               @NotNull ConstantPool constantPool, @NotNull CodeAttribute.VariablePool variablePool,
+                               @NotNull CompilationExecutable currentExecutable, @NotNull BytecodeBuffer dataOutput,
+                               @NotNull PrimitiveType primitiveType) throws IOException {
+        Compiled compiled = compile(context, currentClass, constantPool, variablePool, currentExecutable, dataOutput,
+                false, idArgs.size(), true);
+        if (compiled.primitiveType() == null) {
+            primitiveType.unbox(constantPool, dataOutput);
+        }
+    }
+
+    // The value is produced unboxed, so a variable holding only such values can be kept unboxed too
+    public boolean isPrimitive(@NotNull CompilationContext context, @NotNull Predicate<String> primitiveVariable) {
+        if (idArgs.isEmpty()) {
+            if (primary instanceof IntegerLiteralNode || primary instanceof RealLiteralNode
+                    || primary instanceof BooleanLiteralNode) {
+                return true;
+            }
+
+            return primary instanceof ReferenceNode referenceNode && primitiveVariable.test(referenceNode.value());
+        }
+
+        return operation(context, idArgs.size() - 1, primitiveVariable) != null;
+    }
+
+    // Emits a jump taken when the value of the condition is jumpIf and falls through otherwise, no olang.Boolean is
+    // created for comparisons and not/and/or chains. The jumps go to the label, which is placed by the caller
+    public void compileBranch(@NotNull CompilationContext context, @NotNull ClassNode currentClass,
+                              @NotNull ConstantPool constantPool, @NotNull CodeAttribute.VariablePool variablePool,
+                              @NotNull CompilationExecutable currentExecutable, @NotNull BytecodeBuffer dataOutput,
+                              boolean jumpIf, @NotNull BytecodeBuffer.Label target) throws IOException {
+        compileBranch(context, currentClass, constantPool, variablePool, currentExecutable, dataOutput, idArgs.size(),
+                jumpIf, target);
+    }
+
+    private void compileBranch(@NotNull CompilationContext context, @NotNull ClassNode currentClass,
+                               @NotNull ConstantPool constantPool, @NotNull CodeAttribute.VariablePool variablePool,
+                               @NotNull CompilationExecutable currentExecutable, @NotNull BytecodeBuffer dataOutput,
+                               int length, boolean jumpIf, @NotNull BytecodeBuffer.Label target) throws IOException {
+        List<Object> targets = attributes(context, false).targets();
+        PrimitiveType.Operation operation = length > 0
+                ? operation(context, length - 1, variablePool::isUnboxed)
+                : null;
+
+        if (operation != null) {
+            AnalyzableMethod method = (AnalyzableMethod) targets.get(length - 1);
+            List<ExpressionNode> arguments = idArgs.get(length - 1).arguments.expressions();
+
+            if (operation.isComparison()) {
+                PrimitiveType primitiveType = PrimitiveType.of(method.declaredClass().name().asReference());
+
+                compileReceiver(context, currentClass, constantPool, variablePool, currentExecutable, dataOutput,
+                        length - 1, primitiveType);
+                arguments.get(0).compileUnboxed(context, currentClass, constantPool, variablePool, currentExecutable,
+                        dataOutput, primitiveType);
+
+                // fcmpl / fcmpg, if<cond> (#X)
+                dataOutput.write(operation.code());
+                dataOutput.jump(jumpIf ? operation.branchOpcode() : Opcodes.negate(operation.branchOpcode()), target);
+
+                context.decrementStackSize(2); // if<cond> for receiver and argument
+                return;
+            }
+
+            String name = method.name().value();
+            if (name.equals("not")) {
+                compileBranch(context, currentClass, constantPool, variablePool, currentExecutable, dataOutput,
+                        length - 1, !jumpIf, target);
+                return;
+            }
+
+            // The right operand is skipped only when evaluating it could not be observed
+            if ((name.equals("and") || name.equals("or")) && arguments.get(0).isPure(context, variablePool)) {
+                boolean or = name.equals("or");
+                ExpressionNode argument = arguments.get(0);
+
+                if (jumpIf == or) {
+                    // Either operand alone decides the jump
+                    compileBranch(context, currentClass, constantPool, variablePool, currentExecutable, dataOutput,
+                            length - 1, jumpIf, target);
+                    argument.compileBranch(context, currentClass, constantPool, variablePool, currentExecutable,
+                            dataOutput, jumpIf, target);
+                    return;
+                }
+
+                // The left operand decides only the fall through, its jump skips the right one
+                BytecodeBuffer.Label skipLabel = dataOutput.newLabel();
+                compileBranch(context, currentClass, constantPool, variablePool, currentExecutable, dataOutput,
+                        length - 1, or, skipLabel);
+                argument.compileBranch(context, currentClass, constantPool, variablePool, currentExecutable,
+                        dataOutput, jumpIf, target);
+
+                dataOutput.mark(skipLabel);
+                return;
+            }
+        }
+
+        compileReceiver(context, currentClass, constantPool, variablePool, currentExecutable, dataOutput, length,
+                PrimitiveType.BOOLEAN);
+
+        // ifne / ifeq (#X)
+        dataOutput.jump(jumpIf ? Opcodes.IFNE : Opcodes.IFEQ, target);
+
+        context.decrementStackSize(1); // ifne / ifeq
+    }
+
+    // Leaves the value of the first steps of the chain unboxed on the stack
+    private void compileReceiver(@NotNull CompilationContext context, @NotNull ClassNode currentClass,
+                                 @NotNull ConstantPool constantPool, @NotNull CodeAttribute.VariablePool variablePool,
+                                 @NotNull CompilationExecutable currentExecutable, @NotNull BytecodeBuffer dataOutput,
+                                 int length, @NotNull PrimitiveType primitiveType) throws IOException {
+        Compiled compiled = compile(context, currentClass, constantPool, variablePool, currentExecutable, dataOutput,
+                false, length, true);
+        if (compiled.primitiveType() == null) {
+            primitiveType.unbox(constantPool, dataOutput);
+        }
+    }
+
+    // Evaluating the expression has no effect and cannot fail, so skipping it cannot be observed
+    private boolean isPure(@NotNull CompilationContext context, @NotNull CodeAttribute.VariablePool variablePool) {
+        List<Object> targets = attributes(context, false).targets();
+
+        if (primary instanceof ReferenceNode referenceNode) {
+            if (!targets.isEmpty() && targets.get(0) instanceof AnalyzableConstructor) {
+                return false;
+            }
+
+            // An object held by a variable could be missing
+            if (variablePool.getPrimitiveType(referenceNode.value()) == null) {
+                return false;
+            }
+        } else if (!(primary instanceof IntegerLiteralNode || primary instanceof RealLiteralNode
+                || primary instanceof BooleanLiteralNode)) {
+            return false;
+        }
+
+        for (int i = 0; i < idArgs.size(); i++) {
+            PrimitiveType.Operation operation = operation(context, i, variablePool::isUnboxed);
+            if (operation == null || operation.canFail()) {
+                return false;
+            }
+
+            for (ExpressionNode argument : idArgs.get(i).arguments.expressions()) {
+                if (!argument.isPure(context, variablePool)) {
+                    return false;
+                }
+            }
+        }
+
+        return true;
+    }
+
+    @NotNull
+    private Compiled compile(@NotNull CompilationContext context, @NotNull ClassNode currentClass,
+                             @NotNull ConstantPool constantPool, @NotNull CodeAttribute.VariablePool variablePool,
+                             @NotNull CompilationExecutable currentExecutable, @NotNull BytecodeBuffer dataOutput,
+                             boolean allowVoid, int length, boolean unboxed) throws IOException {
+        Attributes attributes = attributes(context, allowVoid);
+        List<Object> targets = attributes.targets();
+
+        ReferenceNode currentType = attributes.primaryType();
+        // Type of the value on the stack when it is unboxed
+        PrimitiveType primitiveType = null;
 
         int shift = 0;
 
-        if (primary instanceof IntegerLiteralNode node) {
+        // A literal is pushed unboxed only when it is not boxed right away
+        PrimitiveType literalType = literalType();
+        if (literalType != null && (length == 0 ? !unboxed : operation(context, 0, variablePool::isUnboxed) == null)) {
+            literalType = null;
+        }
+
+        if (literalType != null) {
+            if (primary instanceof IntegerLiteralNode node) {
+                // iconst (#X)
+                dataOutput.write(Opcodes.iconst(constantPool, node.value()));
+            } else if (primary instanceof RealLiteralNode node) {
+                // fconst (#X)
+                dataOutput.write(Opcodes.fconst(constantPool, node.value()));
+            } else if (primary instanceof BooleanLiteralNode node) {
+                // iconst (#X)
+                dataOutput.writeByte(node.value() ? Opcodes.ICONST_1 : Opcodes.ICONST_0);
+            }
+
+            context.incrementStackSize(1); // iconst / fconst
+
+            primitiveType = literalType;
+        } else if (primary instanceof IntegerLiteralNode node) {
             // new (Integer)
             ClassConstant oClass = CompilationUtils.oClass(constantPool, "Integer");
             dataOutput.writeByte(Opcodes.NEW);
@@ -464,8 +673,6 @@ public final class ExpressionNode extends TreeNode {
             dataOutput.writeShort(oMethod.index());
 
             context.decrementStackSize(2); // invokespecial for this and int
-
-            currentType = new ReferenceNode("Integer");
         } else if (primary instanceof RealLiteralNode node) {
             // new (Real)
             ClassConstant oClass = CompilationUtils.oClass(constantPool, "Real");
@@ -487,8 +694,6 @@ public final class ExpressionNode extends TreeNode {
             dataOutput.writeShort(oMethod.index());
 
             context.decrementStackSize(2); // invokespecial for this and float
-
-            currentType = new ReferenceNode("Real");
         } else if (primary instanceof BooleanLiteralNode node) {
             // new (Boolean)
             ClassConstant oClass = CompilationUtils.oClass(constantPool, "Boolean");
@@ -510,30 +715,12 @@ public final class ExpressionNode extends TreeNode {
             dataOutput.writeShort(oMethod.index());
 
             context.decrementStackSize(2); // invokespecial for this and boolean
-
-            currentType = new ReferenceNode("Boolean");
         } else if (primary instanceof ReferenceNode referenceNode) {
-            AnalyzableClass analyzableClass = context.analyzeContext().classes().get(referenceNode);
-            if (analyzableClass != null) {
-                if (idArgs.isEmpty()) {
-                    throw new IllegalStateException("ExpressionNode#compile called before ExpressionNode#analyze");
-                }
-
-                IdArg idArg = idArgs.get(0);
-                if (!idArg.name.value().equals("<init>") || idArg.arguments == null
-                        || analyzableClass.classNode().isAbstract()) {
-                    throw new IllegalStateException("ExpressionNode#compile called before ExpressionNode#analyze");
-                }
-
-                AnalyzableConstructor constructor = analyzableClass.findMatchingConstructor(
-                        context.analyzeContext(), idArg.arguments, false);
-
-                if (constructor == null) {
-                    throw new IllegalStateException("ExpressionNode#compile called before ExpressionNode#analyze");
-                }
+            if (!targets.isEmpty() && targets.get(0) instanceof AnalyzableConstructor constructor) {
+                ArgumentsNode arguments = idArgs.get(0).arguments;
 
                 // new (#X)
-                ClassConstant oClass = CompilationUtils.oClass(constantPool, analyzableClass.name().value());
+                ClassConstant oClass = CompilationUtils.oClass(constantPool, referenceNode.value());
                 dataOutput.writeByte(Opcodes.NEW);
                 dataOutput.writeShort(oClass.index());
 
@@ -543,76 +730,40 @@ public final class ExpressionNode extends TreeNode {
                 context.incrementStackSize(2); // new + dup
 
                 // compile arguments
-                for (ExpressionNode expressionNode : idArg.arguments.expressions()) {
+                for (ExpressionNode expressionNode : arguments.expressions()) {
                     expressionNode.compile(context, currentClass, constantPool, variablePool, currentExecutable, dataOutput, false);
                 }
 
                 // invokespecial (#X.<init>(X))
-                MethodRefConstant oMethod = CompilationUtils.oMethod(constantPool, analyzableClass.name().value(),
+                MethodRefConstant oMethod = CompilationUtils.oMethod(constantPool, referenceNode.value(),
                         constructor.constructorNode());
                 dataOutput.writeByte(Opcodes.INVOKESPECIAL);
                 dataOutput.writeShort(oMethod.index());
 
-                context.decrementStackSize(idArg.arguments.expressions().size() + 1); // invokespecial for this and arguments
+                context.decrementStackSize(arguments.expressions().size() + 1); // invokespecial for this and arguments
 
                 shift = 1;
-
-                currentType = analyzableClass.name().asReference();
             } else {
-                if (!idArgs.isEmpty() && idArgs.get(0).name.value().equals("<init>")) {
-                    throw new IllegalStateException("ExpressionNode#compile called before ExpressionNode#analyze");
-                }
-
-                // aload (#X)
                 int index = variablePool.getIndex(referenceNode.value());
-                dataOutput.write(Opcodes.aload(constantPool, index));
-
-                context.incrementStackSize(1); // aload
-
-                AnalyzableVariable variable = context.analyzeContext().variables().get(referenceNode);
-                if (variable == null) {
-                    throw new IllegalStateException("ExpressionNode#compile called before ExpressionNode#analyze");
+                primitiveType = variablePool.getPrimitiveType(referenceNode.value());
+                if (primitiveType != null) {
+                    // iload / fload (#X)
+                    dataOutput.write(primitiveType.load(constantPool, index));
+                } else {
+                    // aload (#X)
+                    dataOutput.write(Opcodes.aload(constantPool, index));
                 }
 
-                currentType = variable.type();
+                context.incrementStackSize(1); // aload
             }
         } else if (primary instanceof ThisNode) {
             // aload_0
             dataOutput.writeByte(Opcodes.ALOAD_0);
 
             context.incrementStackSize(1); // aload
-
-            currentType = currentClass.name().asReference();
         } else if (primary instanceof SuperNode) {
-            if (idArgs.isEmpty()) {
-                throw new IllegalStateException("ExpressionNode#compile called before ExpressionNode#analyze");
-            }
-
-            IdArg idArg = idArgs.get(0);
-            if (idArg.arguments == null) {
-                throw new IllegalStateException("ExpressionNode#compile called before ExpressionNode#analyze");
-            }
-
-            if (idArg.name.value().equals("<init>")) {
-                if (!currentExecutable.isConstructor()) {
-                    throw new IllegalStateException("ExpressionNode#compile called before ExpressionNode#analyze");
-                }
-
-                AnalyzableClass analyzableClass = context.analyzeContext().classes().get(currentClass.name().asReference());
-                if (analyzableClass == null) {
-                    throw new IllegalStateException("Got unknown class '%s'".formatted(currentClass.name().value()));
-                }
-
-                AnalyzableClass parentClass = analyzableClass.findParentClass(context.analyzeContext(), "Expression");
-                if (parentClass == null) {
-                    throw new IllegalStateException("ExpressionNode#compile called before ExpressionNode#analyze");
-                }
-
-                AnalyzableConstructor constructor = parentClass.findMatchingConstructor(
-                        context.analyzeContext(), idArg.arguments, false);
-                if (constructor == null) {
-                    throw new IllegalStateException("ExpressionNode#compile called before ExpressionNode#analyze");
-                }
+            if (targets.get(0) instanceof AnalyzableConstructor constructor) {
+                ArgumentsNode arguments = idArgs.get(0).arguments;
 
                 // aload_0
                 dataOutput.writeByte(Opcodes.ALOAD_0);
@@ -620,68 +771,59 @@ public final class ExpressionNode extends TreeNode {
                 context.incrementStackSize(1); // aload
 
                 // compile arguments
-                for (ExpressionNode expressionNode : idArg.arguments.expressions()) {
+                for (ExpressionNode expressionNode : arguments.expressions()) {
                     expressionNode.compile(context, currentClass, constantPool, variablePool, currentExecutable, dataOutput, false);
                 }
 
-                MethodRefConstant oMethod = CompilationUtils.oMethod(constantPool, parentClass.name().value(),
-                        constructor.constructorNode());
+                MethodRefConstant oMethod = CompilationUtils.oMethod(constantPool,
+                        constructor.declaredClass().name().value(), constructor.constructorNode());
 
                 // invokespecial (#X.<init>(X))
                 dataOutput.writeByte(Opcodes.INVOKESPECIAL);
                 dataOutput.writeShort(oMethod.index());
 
-                context.decrementStackSize(idArg.arguments.expressions().size()); // invokespecial for arguments
+                context.decrementStackSize(arguments.expressions().size()); // invokespecial for arguments
 
                 shift = 1;
-
-                currentType = new ReferenceNode("<void>");
             } else {
                 // aload_0
                 dataOutput.writeByte(Opcodes.ALOAD_0);
 
                 context.incrementStackSize(1); // aload
-
-                currentType = currentClass.parentName();
-                if (currentType == null) {
-                    currentType = new ReferenceNode("Any");
-                }
             }
-        } else {
-            throw new IllegalStateException("ExpressionNode#compile called before ExpressionNode#analyze");
         }
 
         // handle call chain
-        for (int i = shift; i < idArgs.size(); i++) {
-            AnalyzableClass analyzableClass = context.analyzeContext().classes().get(currentType);
-
+        for (int i = shift; i < length; i++) {
             IdArg idArg = idArgs.get(i);
+            Object target = targets.get(i);
 
-            boolean cast = idArg.name.value().equals("<cast>");
-            boolean instance = idArg.name.value().equals("<instanceof>");
-            if (cast || instance) {
-                if (idArg.arguments == null) {
-                    throw new IllegalStateException("ExpressionNode#compile called before ExpressionNode#analyze");
-                }
+            // The receiver is on the stack unboxed
+            PrimitiveType.Operation operation = operation(context, i, variablePool::isUnboxed);
+            if (operation != null) {
+                AnalyzableMethod method = (AnalyzableMethod) target;
 
-                List<ExpressionNode> expressions = idArg.arguments.expressions();
-                if (expressions.size() != 1
-                        || !(expressions.get(0).primary instanceof ReferenceNode requiredClass)
-                        || !expressions.get(0).idArgs.isEmpty()) {
-                    throw new IllegalStateException("ExpressionNode#compile called before ExpressionNode#analyze");
+                // compile arguments
+                for (int j = 0; j < idArg.arguments.expressions().size(); j++) {
+                    idArg.arguments.expressions().get(j).compileUnboxed(context, currentClass, constantPool,
+                            variablePool, currentExecutable, dataOutput,
+                            PrimitiveType.of(method.parameters().pars().get(j).type()));
                 }
 
-                if (cast && !context.analyzeContext().isAssignableFrom(currentType, requiredClass)
-                        && !context.analyzeContext().isAssignableFrom(requiredClass, currentType)) {
-                    throw new IllegalStateException("ExpressionNode#compile called before ExpressionNode#analyze");
-                }
+                operation.compile(context, idArg.arguments.expressions().size(), dataOutput);
 
-                if (instance && (currentType.equals(requiredClass)
-                        || !context.analyzeContext().isAssignableFrom(currentType, requiredClass))) {
-                    throw new IllegalStateException("ExpressionNode#compile called before ExpressionNode#analyze");
-                }
+                primitiveType = operation.resultType();
+                currentType = primitiveType.type();
+                continue;
+            }
+
+            if (primitiveType != null) {
+                primitiveType.box(context, constantPool, dataOutput);
+                primitiveType = null;
+            }
 
-                if (cast) {
+            if (target instanceof ReferenceNode requiredClass) {
+                if (idArg.name.value().equals("<cast>")) {
                     // checkcast (#X)
                     ClassConstant oClass = CompilationUtils.oClass(constantPool, requiredClass.value());
 
@@ -718,12 +860,7 @@ public final class ExpressionNode extends TreeNode {
 
                     currentType = new ReferenceNode("Boolean");
                 }
-            } else if (idArg.arguments == null) {
-                AnalyzableField field = analyzableClass.getField(
-                        context.analyzeContext(),
-                        new AnalyzableField.Key(idArg.name),
-                        "Expression");
-
+            } else if (target instanceof AnalyzableField field) {
                 // getfield (#X.X)
                 FieldRefConstant oField = CompilationUtils.oField(constantPool, currentType.value(),
                         field.fieldNode());
@@ -732,14 +869,7 @@ public final class ExpressionNode extends TreeNode {
                 dataOutput.writeShort(oField.index());
 
                 currentType = field.type();
-            } else {
-                AnalyzableMethod method = analyzableClass.findMatchingMethod(
-                        context.analyzeContext(), idArg.name, idArg.arguments, false);
-
-                if (method == null || (!allowVoid && method.returnType() == null)) {
-                    throw new IllegalStateException("ExpressionNode#compile called before ExpressionNode#analyze");
-                }
-
+            } else if (target instanceof AnalyzableMethod method) {
                 // compile arguments
                 for (ExpressionNode expressionNode : idArg.arguments.expressions()) {
                     expressionNode.compile(context, currentClass, constantPool, variablePool, currentExecutable, dataOutput, false);
@@ -769,7 +899,80 @@ public final class ExpressionNode extends TreeNode {
             }
         }
 
-        return currentType;
+        if (primitiveType != null && !unboxed) {
+            primitiveType.box(context, constantPool, dataOutput);
+            primitiveType = null;
+        } else if (primitiveType == null && unboxed) {
+            primitiveType = PrimitiveType.of(currentType);
+            if (primitiveType != null) {
+                primitiveType.unbox(constantPool, dataOutput);
+            }
+        }
+
+        return new Compiled(currentType, primitiveType);
+    }
+
+    // ===
+
+    @Nullable
+    private PrimitiveType literalType() {
+        if (primary instanceof IntegerLiteralNode) {
+            return PrimitiveType.INTEGER;
+        } else if (primary instanceof RealLiteralNode) {
+            return PrimitiveType.REAL;
+        } else if (primary instanceof BooleanLiteralNode) {
+            return PrimitiveType.BOOLEAN;
+        }
+
+        return null;
+    }
+
+    // Instructions replacing the call at the step of the chain, null when it is emitted as a regular call.
+    // A call is replaced only when the receiver is known to be exactly the standard class: a literal, a variable
+    // holding only unboxed values or the result of a replaced call. Other values may be instances of a subclass
+    // declared in a file compiled later, which overrides the method
+    @Nullable
+    private PrimitiveType.Operation operation(@NotNull CompilationContext context, int index,
+                                              @NotNull Predicate<String> primitiveVariable) {
+        Object target = attributes(context, false).targets().get(index);
+        if (!(target instanceof AnalyzableMethod method)) {
+            return null;
+        }
+
+        boolean exact;
+        if (index > 0) {
+            exact = operation(context, index - 1, primitiveVariable) != null;
+        } else {
+            exact = literalType() != null || (primary instanceof ReferenceNode referenceNode
+                    && primitiveVariable.test(referenceNode.value()));
+        }
+
+        PrimitiveType primitiveType = exact ? PrimitiveType.of(method.declaredClass().name().asReference()) : null;
+        return primitiveType != null ? primitiveType.operation(method) : null;
+    }
+
+    // Nodes built after the analysis, like optimized conditions and synthetic bridges, are attributed here
+    @NotNull
+    private Attributes attributes(@NotNull CompilationContext context, boolean allowVoid) {
+        Attributes attributes = context.analyzeContext().methodTable().attributes(this, Attributes.class);
+        if (attributes != null) {
+            return attributes;
+        }
+
+        try {
+            return attribute(context.analyzeContext(), allowVoid, false);
+        } catch (AnalyzerException e) {
+            throw new IllegalStateException("ExpressionNode#compile called before ExpressionNode#analyze", e);
+        }
+    }
+
+    private record Compiled(@NotNull ReferenceNode type, @Nullable PrimitiveType primitiveType) {
+
+    }
+
+    private record Attributes(@NotNull ReferenceNode type, @NotNull ReferenceNode primaryType,
+                              @NotNull List<Object> targets) {
+
     }
 
     public record IdArg(@NotNull IdentifierNode name, @Nullable ArgumentsNode arguments) {
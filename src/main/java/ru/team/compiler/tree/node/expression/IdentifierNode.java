@@ -1,16 +1,16 @@
 package ru.team.compiler.tree.node.expression;
 
-import lombok.EqualsAndHashCode;
 import lombok.ToString;
 import org.jetbrains.annotations.NotNull;
 import ru.team.compiler.token.Token;
 import ru.team.compiler.token.TokenIterator;
 import ru.team.compiler.token.TokenType;
 import ru.team.compiler.tree.node.TreeNode;
+import ru.team.compiler.tree.node.NodeToStringHelper;
 import ru.team.compiler.tree.node.TreeNodeParser;
 import ru.team.compiler.tree.node.primary.ReferenceNode;
+import ru.team.compiler.util.Symbols;
 
-@EqualsAndHashCode(callSuper = false)
 @ToString
 public final class IdentifierNode extends TreeNode {
 
@@ -24,9 +24,13 @@ public final class IdentifierNode extends TreeNode {
     };
 
     private final String value;
+    @ToString.Exclude
+    @NodeToStringHelper.Ignore
+    private final int hash;
 
     public IdentifierNode(@NotNull String value) {
-        this.value = value;
+        this.value = Symbols.intern(value);
+        this.hash = 59 + value.hashCode();
     }
 
     @NotNull
@@ -38,4 +42,22 @@ public final class IdentifierNode extends TreeNode {
     public ReferenceNode asReference() {
         return new ReferenceNode(value);
     }
+
+    @Override
+    public boolean equals(Object object) {
+        if (this == object) {
+            return true;
+        }
+        if (object == null || getClass() != object.getClass()) {
+            return false;
+        }
+        IdentifierNode node = (IdentifierNode) object;
+        // Values are interned by Symbols
+        return value == node.value;
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
 }
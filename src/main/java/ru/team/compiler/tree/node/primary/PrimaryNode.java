@@ -2,8 +2,8 @@ package ru.team.compiler.tree.node.primary;
 
 import org.jetbrains.annotations.NotNull;
 import ru.team.compiler.exception.NodeFormatException;
-import ru.team.compiler.token.Token;
 import ru.team.compiler.token.TokenIterator;
+import ru.team.compiler.token.TokenType;
 import ru.team.compiler.tree.node.TreeNode;
 import ru.team.compiler.tree.node.TreeNodeParser;
 
@@ -15,16 +15,17 @@ public abstract sealed class PrimaryNode extends TreeNode permits IntegerLiteral
         @Override
         @NotNull
         public PrimaryNode parse(@NotNull TokenIterator iterator) {
-            Token token = iterator.lookup("integer/real/boolean/this/reference identifier");
+            TokenType tokenType = iterator.lookupType("integer/real/boolean/this/reference identifier");
 
-            return switch (token.type()) {
+            return switch (tokenType) {
                 case INTEGER_LITERAL -> IntegerLiteralNode.PARSER.parse(iterator);
                 case REAL_LITERAL -> RealLiteralNode.PARSER.parse(iterator);
                 case BOOLEAN_LITERAL -> BooleanLiteralNode.PARSER.parse(iterator);
                 case THIS_KEYWORD -> ThisNode.PARSER.parse(iterator);
                 case SUPER_KEYWORD -> SuperNode.PARSER.parse(iterator);
                 case IDENTIFIER -> ReferenceNode.PARSER.parse(iterator);
-                default -> throw new NodeFormatException("integer/real/boolean/this/super/reference identifier", token);
+                default -> throw new NodeFormatException("integer/real/boolean/this/super/reference identifier",
+                        iterator.lookup());
             };
         }
     };
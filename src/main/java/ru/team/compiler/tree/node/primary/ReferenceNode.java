@@ -1,15 +1,15 @@
 package ru.team.compiler.tree.node.primary;
 
-import lombok.EqualsAndHashCode;
 import lombok.ToString;
 import org.jetbrains.annotations.NotNull;
 import ru.team.compiler.token.Token;
 import ru.team.compiler.token.TokenIterator;
 import ru.team.compiler.token.TokenType;
+import ru.team.compiler.tree.node.NodeToStringHelper;
 import ru.team.compiler.tree.node.TreeNodeParser;
 import ru.team.compiler.tree.node.expression.IdentifierNode;
+import ru.team.compiler.util.Symbols;
 
-@EqualsAndHashCode(callSuper = false)
 @ToString
 public final class ReferenceNode extends PrimaryNode {
 
@@ -23,9 +23,13 @@ public final class ReferenceNode extends PrimaryNode {
     };
 
     private final String value;
+    @ToString.Exclude
+    @NodeToStringHelper.Ignore
+    private final int hash;
 
     public ReferenceNode(@NotNull String value) {
-        this.value = value;
+        this.value = Symbols.intern(value);
+        this.hash = 59 + value.hashCode();
     }
 
     @NotNull
@@ -37,4 +41,22 @@ public final class ReferenceNode extends PrimaryNode {
     public IdentifierNode asIdentifier() {
         return new IdentifierNode(value);
     }
+
+    @Override
+    public boolean equals(Object object) {
+        if (this == object) {
+            return true;
+        }
+        if (object == null || getClass() != object.getClass()) {
+            return false;
+        }
+        ReferenceNode node = (ReferenceNode) object;
+        // Values are interned by Symbols
+        return value == node.value;
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
 }
@@ -9,6 +9,8 @@ import ru.team.compiler.analyzer.AnalyzableVariable;
 import ru.team.compiler.analyzer.AnalyzeContext;
 import ru.team.compiler.compiler.CompilationContext;
 import ru.team.compiler.compiler.CompilationUtils;
+import ru.team.compiler.compiler.PrimitiveType;
+import ru.team.compiler.compiler.attribute.BytecodeBuffer;
 import ru.team.compiler.compiler.attribute.CodeAttribute;
 import ru.team.compiler.compiler.attribute.CompilationExecutable;
 import ru.team.compiler.compiler.constant.ConstantPool;
@@ -24,12 +26,9 @@ import ru.team.compiler.tree.node.expression.IdentifierNode;
 import ru.team.compiler.tree.node.primary.ReferenceNode;
 import ru.team.compiler.util.Opcodes;
 
-import java.io.DataOutput;
 import java.io.IOException;
 import java.util.ArrayList;
-import java.util.HashSet;
 import java.util.List;
-import java.util.Set;
 
 @EqualsAndHashCode(callSuper = false)
 @ToString
@@ -64,6 +63,10 @@ public final class AssignmentNode extends StatementNode {
         this.valueExpression = valueExpression;
     }
 
+    public boolean isLocal() {
+        return local;
+    }
+
     @NotNull
     public ReferenceNode referenceNode() {
         return referenceNode;
@@ -82,7 +85,7 @@ public final class AssignmentNode extends StatementNode {
         List<Exception> exceptions = new ArrayList<>();
 
         if (local) {
-            AnalyzableVariable variable = context.variables().get(referenceNode);
+            AnalyzableVariable variable = context.variable(referenceNode);
             if (variable == null) {
                 exceptions.add(new AnalyzerException("Assignment at '%s' is invalid: reference to unknown variable '%s'"
                         .formatted(context.currentPath(), referenceNode.value())));
@@ -100,6 +103,8 @@ public final class AssignmentNode extends StatementNode {
                         new AnalyzableField.Key(referenceNode.asIdentifier()),
                         "Assignment");
 
+                // Field assigned by 'this.x := ...'
+                context.methodTable().attribute(this, field);
                 leftType = field.type();
             } catch (AnalyzerException e) {
                 exceptions.add(new AnalyzerException("Assignment at '%s' is invalid: reference to unknown field '%s'"
@@ -123,20 +128,16 @@ public final class AssignmentNode extends StatementNode {
         }
 
         if (local) {
-            Set<ReferenceNode> initializedVariables = new HashSet<>(context.initializedVariables());
-            initializedVariables.add(referenceNode);
-            return context.withInitializedVariables(initializedVariables).addExceptions(exceptions);
+            return context.withInitializedVariable(referenceNode).addExceptions(exceptions);
         } else {
-            Set<ReferenceNode> initializedFields = new HashSet<>(context.initializedFields());
-            initializedFields.add(referenceNode);
-            return context.withInitializedFields(initializedFields).addExceptions(exceptions);
+            return context.withInitializedField(referenceNode).addExceptions(exceptions);
         }
     }
 
     @Override
     public void compile(@NotNull CompilationContext context, @NotNull ClassNode currentClass,
                         @NotNull ConstantPool constantPool, @NotNull CodeAttribute.VariablePool variablePool,
-                        @NotNull CompilationExecutable currentExecutable, @NotNull DataOutput dataOutput) throws IOException {
+                        @NotNull CompilationExecutable currentExecutable, @NotNull BytecodeBuffer dataOutput) throws IOException {
         if (!local) {
             // aload_0 (this)
             dataOutput.writeByte(Opcodes.ALOAD_0);
@@ -144,16 +145,32 @@ public final class AssignmentNode extends StatementNode {
             context.incrementStackSize(1); // aload
         }
 
+        PrimitiveType primitiveType = local ? variablePool.getPrimitiveType(referenceNode.value()) : null;
+        if (primitiveType != null) {
+            valueExpression.compileUnboxed(context, currentClass, constantPool, variablePool, currentExecutable,
+                    dataOutput, primitiveType);
+
+            // istore / fstore (#X)
+            int index = variablePool.getIndex(referenceNode.value());
+            dataOutput.write(primitiveType.store(constantPool, index));
+
+            context.decrementStackSize(1); // istore / fstore
+            return;
+        }
+
         valueExpression.compile(context, currentClass, constantPool, variablePool, currentExecutable, dataOutput, false);
 
         if (!local) {
             // putfield (#X)
-            AnalyzableClass analyzableClass = context.analyzeContext().classes().get(currentClass.name().asReference());
+            AnalyzableField field = context.analyzeContext().methodTable().attributes(this, AnalyzableField.class);
+            if (field == null) {
+                AnalyzableClass analyzableClass = context.analyzeContext().classes().get(currentClass.name().asReference());
 
-            AnalyzableField field = analyzableClass.getField(
-                    context.analyzeContext(),
-                    new AnalyzableField.Key(new IdentifierNode(referenceNode.value())),
-                    "Assignment");
+                field = analyzableClass.getField(
+                        context.analyzeContext(),
+                        new AnalyzableField.Key(new IdentifierNode(referenceNode.value())),
+                        "Assignment");
+            }
 
             FieldRefConstant oField = CompilationUtils.oField(constantPool, currentClass.name().value(),
                     field.fieldNode());
@@ -7,17 +7,13 @@ import org.jetbrains.annotations.Unmodifiable;
 import ru.team.compiler.analyzer.AnalyzeContext;
 import ru.team.compiler.exception.CompilerException;
 import ru.team.compiler.exception.NodeFormatException;
-import ru.team.compiler.token.Token;
 import ru.team.compiler.token.TokenIterator;
 import ru.team.compiler.token.TokenType;
 import ru.team.compiler.tree.node.TreeNode;
 import ru.team.compiler.tree.node.TreeNodeParser;
-import ru.team.compiler.tree.node.primary.ReferenceNode;
-import ru.team.compiler.util.Sets;
 
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -44,20 +40,12 @@ public final class BodyNode extends TreeNode {
     public AnalyzeContext analyzeUnsafe(@NotNull AnalyzeContext context) {
         AnalyzeContext initialContext = context;
 
-        context = context.concatPath("<body>").withExceptions(List.of());
+        context = context.concatPath("<body>").withExceptions(List.of()).enterScope();
         for (StatementNode statementNode : statements) {
             context = statementNode.analyze(context);
         }
 
-        Set<ReferenceNode> initializedVariables = new HashSet<>(initialContext.initializedVariables());
-        context.initializedVariables().stream()
-                .filter(initialContext::hasVariable)
-                .forEach(initializedVariables::add);
-
-        Set<ReferenceNode> initializedFields = Sets.union(initialContext.initializedFields(), context.initializedFields());
-
-        return initialContext.withInitializedVariables(initializedVariables)
-                .withInitializedFields(initializedFields)
+        return initialContext.exitScope(context)
                 .addExceptions(context.exceptions());
     }
 
@@ -133,21 +121,18 @@ public final class BodyNode extends TreeNode {
 
                 while (iterator.hasNext()) {
                     if (!statementNodes.isEmpty()) {
-                        Token previous = iterator.previous();
-                        if (previous == null || previous.type() != TokenType.END_KEYWORD) {
+                        if (!iterator.previous(TokenType.END_KEYWORD)) {
                             iterator.next(TokenType.SEMICOLON);
                         }
                         while (iterator.consume(TokenType.SEMICOLON)) {
                         }
 
-                        Token token = iterator.lookup();
-                        if (endTypes.contains(token.type())) {
+                        if (endTypes.contains(iterator.lookupType())) {
                             return new BodyNode(statementNodes);
                         }
                     }
 
-                    Token token = iterator.lookup();
-                    if (endTypes.contains(token.type())) {
+                    if (endTypes.contains(iterator.lookupType())) {
                         return new BodyNode(statementNodes);
                     }
 
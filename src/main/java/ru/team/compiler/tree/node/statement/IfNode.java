@@ -6,11 +6,10 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import ru.team.compiler.analyzer.AnalyzeContext;
 import ru.team.compiler.compiler.CompilationContext;
-import ru.team.compiler.compiler.CompilationUtils;
+import ru.team.compiler.compiler.attribute.BytecodeBuffer;
 import ru.team.compiler.compiler.attribute.CodeAttribute;
 import ru.team.compiler.compiler.attribute.CompilationExecutable;
 import ru.team.compiler.compiler.constant.ConstantPool;
-import ru.team.compiler.compiler.constant.MethodRefConstant;
 import ru.team.compiler.exception.AnalyzerException;
 import ru.team.compiler.exception.CompilerException;
 import ru.team.compiler.token.TokenIterator;
@@ -23,15 +22,10 @@ import ru.team.compiler.tree.node.expression.IdentifierNode;
 import ru.team.compiler.tree.node.primary.BooleanLiteralNode;
 import ru.team.compiler.tree.node.primary.ReferenceNode;
 import ru.team.compiler.util.Opcodes;
-import ru.team.compiler.util.Sets;
 
-import java.io.ByteArrayOutputStream;
-import java.io.DataOutput;
-import java.io.DataOutputStream;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Set;
 
 @EqualsAndHashCode(callSuper = false)
 @ToString
@@ -104,30 +98,19 @@ public final class IfNode extends StatementNode {
                     .formatted(context.currentPath(), type.value()));
         }
 
-        AnalyzeContext contextWithoutExceptions = context.withExceptions(List.of());
+        AnalyzeContext branchContext = context.withExceptions(List.of()).enterBranch();
 
-        AnalyzeContext thenContext = thenBody.analyze(contextWithoutExceptions);
+        AnalyzeContext thenContext = thenBody.analyze(branchContext);
         if (elseBody != null) {
-            AnalyzeContext elseContext = elseBody.analyze(contextWithoutExceptions);
+            AnalyzeContext elseContext = elseBody.analyze(branchContext.enterElseBranch(thenContext));
 
-            Set<ReferenceNode> initializedFields = Sets.intersection(
-                    thenContext.initializedFields(), elseContext.initializedFields()
-            );
-            initializedFields = Sets.union(context.initializedFields(), initializedFields);
-
-            // TODO: check that this variable in the final scope
-            Set<ReferenceNode> initializedVariables = Sets.intersection(
-                    thenContext.initializedVariables(), elseContext.initializedVariables()
-            );
-            initializedVariables = Sets.union(context.initializedVariables(), initializedVariables);
-
-            return context.withInitializedVariables(initializedVariables)
-                    .withInitializedFields(initializedFields)
+            return context.exitBranches(thenContext, elseContext)
                     .addExceptions(thenContext.exceptions())
                     .addExceptions(elseContext.exceptions());
         }
 
-        return context.addExceptions(thenContext.exceptions());
+        return context.exitBranches(thenContext, null)
+                .addExceptions(thenContext.exceptions());
     }
 
     @Override
@@ -191,57 +174,33 @@ public final class IfNode extends StatementNode {
     @Override
     public void compile(@NotNull CompilationContext context, @NotNull ClassNode currentClass,
                         @NotNull ConstantPool constantPool, @NotNull CodeAttribute.VariablePool variablePool,
-                        @NotNull CompilationExecutable currentExecutable, @NotNull DataOutput dataOutput) throws IOException {
-        condition.compile(context, currentClass, constantPool, variablePool, currentExecutable, dataOutput, false);
-
-        // olang.Boolean -> boolean primitive
-        // invokevirtual (#Boolean.java$value()Z)
-        dataOutput.writeByte(Opcodes.INVOKEVIRTUAL);
-        MethodRefConstant oMethod = CompilationUtils.oMethod(constantPool,
-                "Boolean", "java$value", "()Z");
-        dataOutput.writeShort(oMethod.index());
-
-        // Firstly, compile then body because we need to know else body offset for IFEQ opcode
-        byte[] compiledThenBody = compileBodyNode(context, currentClass, constantPool, variablePool, currentExecutable, thenBody);
-
-        boolean hasElseBody = elseBody != null && !elseBody.statements().isEmpty();
-
-        // Secondly, define IFEQ with known offset for else body
-        // ifeq (#X)
-        int offset = 3 + (hasElseBody ? 3 : 0) + compiledThenBody.length;
-
-        dataOutput.writeByte(Opcodes.IFEQ);
-        dataOutput.writeShort(offset);
-
-        dataOutput.write(compiledThenBody);
-
-        if (hasElseBody) {
-            // Firstly, compile else body because we need to know offset for GOTO opcode
-            byte[] compiledElseBody = compileBodyNode(context, currentClass, constantPool, variablePool, currentExecutable, elseBody);
-
-            // Secondly, define GOTO with known size of else body
-            // goto (#X)
-            offset = 3 + compiledElseBody.length;
-
-            dataOutput.writeByte(Opcodes.GOTO);
-            dataOutput.writeShort(offset);
-
-            dataOutput.write(compiledElseBody);
+                        @NotNull CompilationExecutable currentExecutable, @NotNull BytecodeBuffer dataOutput) throws IOException {
+        // The jumps of the condition are taken when it is false, to the else body or past the then body
+        BytecodeBuffer.Label elseLabel = dataOutput.newLabel();
+        condition.compileBranch(context, currentClass, constantPool, variablePool, currentExecutable, dataOutput,
+                false, elseLabel);
+
+        compileBodyNode(context, currentClass, constantPool, variablePool, currentExecutable, thenBody, dataOutput);
+
+        if (elseBody != null && !elseBody.statements().isEmpty()) {
+            // goto (#end)
+            BytecodeBuffer.Label endLabel = dataOutput.newLabel();
+            dataOutput.jump(Opcodes.GOTO, endLabel);
+
+            dataOutput.mark(elseLabel);
+            compileBodyNode(context, currentClass, constantPool, variablePool, currentExecutable, elseBody, dataOutput);
+            dataOutput.mark(endLabel);
+        } else {
+            dataOutput.mark(elseLabel);
         }
     }
 
-    private byte @NotNull [] compileBodyNode(@NotNull CompilationContext context, @NotNull ClassNode currentClass,
-                                             @NotNull ConstantPool constantPool,
-                                             @NotNull CodeAttribute.VariablePool variablePool,
-                                             @NotNull CompilationExecutable currentExecutable,
-                                             @NotNull BodyNode bodyNode) throws IOException {
-        ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream(1024);
-        DataOutputStream byteDataOutput = new DataOutputStream(byteArrayOutputStream);
-
+    private void compileBodyNode(@NotNull CompilationContext context, @NotNull ClassNode currentClass,
+                                 @NotNull ConstantPool constantPool, @NotNull CodeAttribute.VariablePool variablePool,
+                                 @NotNull CompilationExecutable currentExecutable, @NotNull BodyNode bodyNode,
+                                 @NotNull BytecodeBuffer dataOutput) throws IOException {
         for (StatementNode statementNode : bodyNode.statements()) {
-            statementNode.compile(context, currentClass, constantPool, variablePool, currentExecutable, byteDataOutput);
+            statementNode.compile(context, currentClass, constantPool, variablePool, currentExecutable, dataOutput);
         }
-
-        return byteArrayOutputStream.toByteArray();
     }
 }
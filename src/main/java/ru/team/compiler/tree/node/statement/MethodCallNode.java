@@ -5,6 +5,7 @@ import lombok.ToString;
 import org.jetbrains.annotations.NotNull;
 import ru.team.compiler.analyzer.AnalyzeContext;
 import ru.team.compiler.compiler.CompilationContext;
+import ru.team.compiler.compiler.attribute.BytecodeBuffer;
 import ru.team.compiler.compiler.attribute.CodeAttribute;
 import ru.team.compiler.compiler.attribute.CompilationExecutable;
 import ru.team.compiler.compiler.constant.ConstantPool;
@@ -18,7 +19,6 @@ import ru.team.compiler.tree.node.expression.ExpressionNode;
 import ru.team.compiler.tree.node.primary.ReferenceNode;
 import ru.team.compiler.util.Opcodes;
 
-import java.io.DataOutput;
 import java.io.IOException;
 import java.util.List;
 
@@ -64,7 +64,7 @@ public final class MethodCallNode extends StatementNode {
     @Override
     public void compile(@NotNull CompilationContext context, @NotNull ClassNode currentClass,
                         @NotNull ConstantPool constantPool, @NotNull CodeAttribute.VariablePool variablePool,
-                        @NotNull CompilationExecutable currentExecutable, @NotNull DataOutput dataOutput) throws IOException {
+                        @NotNull CompilationExecutable currentExecutable, @NotNull BytecodeBuffer dataOutput) throws IOException {
         ReferenceNode type = expression.compile(context, currentClass, constantPool, variablePool, currentExecutable, dataOutput, true);
 
         if (!type.value().equals("<void>")) {
@@ -7,6 +7,7 @@ import org.jetbrains.annotations.Nullable;
 import ru.team.compiler.analyzer.AnalyzableMethod;
 import ru.team.compiler.analyzer.AnalyzeContext;
 import ru.team.compiler.compiler.CompilationContext;
+import ru.team.compiler.compiler.attribute.BytecodeBuffer;
 import ru.team.compiler.compiler.attribute.CodeAttribute;
 import ru.team.compiler.compiler.attribute.CompilationExecutable;
 import ru.team.compiler.compiler.constant.ConstantPool;
@@ -22,7 +23,6 @@ import ru.team.compiler.tree.node.primary.ReferenceNode;
 import ru.team.compiler.tree.node.primary.ThisNode;
 import ru.team.compiler.util.Opcodes;
 
-import java.io.DataOutput;
 import java.io.IOException;
 
 @EqualsAndHashCode(callSuper = false)
@@ -85,7 +85,7 @@ public final class ReturnNode extends StatementNode {
     @Override
     public void compile(@NotNull CompilationContext context, @NotNull ClassNode currentClass,
                         @NotNull ConstantPool constantPool, @NotNull CodeAttribute.VariablePool variablePool,
-                        @NotNull CompilationExecutable currentExecutable, @NotNull DataOutput dataOutput) throws IOException {
+                        @NotNull CompilationExecutable currentExecutable, @NotNull BytecodeBuffer dataOutput) throws IOException {
         if (expression == null) {
             dataOutput.writeByte(Opcodes.RETURN);
             return;
@@ -93,7 +93,8 @@ public final class ReturnNode extends StatementNode {
 
         if (expression.idArgs().isEmpty()) {
 
-            if (expression.primary() instanceof ReferenceNode referenceNode) {
+            if (expression.primary() instanceof ReferenceNode referenceNode
+                    && variablePool.getPrimitiveType(referenceNode.value()) == null) {
                 int index = variablePool.getIndex(referenceNode);
 
                 // aload (#X)
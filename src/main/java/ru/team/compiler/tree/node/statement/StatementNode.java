@@ -2,50 +2,48 @@ package ru.team.compiler.tree.node.statement;
 
 import org.jetbrains.annotations.NotNull;
 import ru.team.compiler.compiler.CompilationContext;
+import ru.team.compiler.compiler.attribute.BytecodeBuffer;
 import ru.team.compiler.compiler.attribute.CodeAttribute;
 import ru.team.compiler.compiler.attribute.CompilationExecutable;
 import ru.team.compiler.compiler.constant.ConstantPool;
 import ru.team.compiler.exception.CompilerException;
 import ru.team.compiler.exception.NodeFormatException;
-import ru.team.compiler.token.Token;
 import ru.team.compiler.token.TokenIterator;
+import ru.team.compiler.token.TokenType;
 import ru.team.compiler.tree.node.TreeNode;
 import ru.team.compiler.tree.node.TreeNodeParser;
 import ru.team.compiler.tree.node.clas.ClassNode;
 
-import java.io.DataOutput;
 import java.io.IOException;
 import java.util.List;
 
 public abstract sealed class StatementNode extends TreeNode permits AssignmentNode, WhileLoopNode, IfNode, ReturnNode,
                                                                     VariableDeclarationNode, MethodCallNode {
 
-    public static final TreeNodeParser<StatementNode> PARSER = new TreeNodeParser<>() {
+    public static final TreeNodeParser<StatementNode> PARSER = TreeNodeParser.memoized(new TreeNodeParser<>() {
         @Override
         @NotNull
         public StatementNode parse(@NotNull TokenIterator iterator) throws CompilerException {
-            Token token = iterator.lookup();
-
-            return switch (token.type()) {
-                case IDENTIFIER, THIS_KEYWORD -> {
-                    int index = iterator.index();
-
-                    try {
-                        yield AssignmentNode.PARSER.parse(iterator);
-                    } catch (NodeFormatException e) {
-                        iterator.index(index);
-                        yield MethodCallNode.PARSER.parse(iterator);
-                    }
-                }
+            TokenType tokenType = iterator.lookupType();
+
+            return switch (tokenType) {
+                case IDENTIFIER -> iterator.lookup(1, TokenType.ASSIGNMENT_OPERATOR)
+                        ? AssignmentNode.PARSER.parse(iterator)
+                        : MethodCallNode.PARSER.parse(iterator);
+                case THIS_KEYWORD -> iterator.lookup(1, TokenType.DOT)
+                        && iterator.lookup(2, TokenType.IDENTIFIER)
+                        && iterator.lookup(3, TokenType.ASSIGNMENT_OPERATOR)
+                        ? AssignmentNode.PARSER.parse(iterator)
+                        : MethodCallNode.PARSER.parse(iterator);
                 case SUPER_KEYWORD -> MethodCallNode.PARSER.parse(iterator);
                 case WHILE_KEYWORD -> WhileLoopNode.PARSER.parse(iterator);
                 case IF_KEYWORD -> IfNode.PARSER.parse(iterator);
                 case RETURN_KEYWORD -> ReturnNode.PARSER.parse(iterator);
                 case VAR_KEYWORD -> VariableDeclarationNode.PARSER.parse(iterator);
-                default -> throw new NodeFormatException("assignment/while/if/return/var", token);
+                default -> throw new NodeFormatException("assignment/while/if/return/var", iterator.lookup());
             };
         }
-    };
+    });
 
     public boolean alwaysReturn() {
         return false;
@@ -59,6 +57,6 @@ public abstract sealed class StatementNode extends TreeNode permits AssignmentNo
     public abstract void compile(@NotNull CompilationContext context, @NotNull ClassNode currentClass,
                                  @NotNull ConstantPool constantPool, @NotNull CodeAttribute.VariablePool variablePool,
                                  @NotNull CompilationExecutable currentExecutable,
-                                 @NotNull DataOutput dataOutput) throws IOException;
+                                 @NotNull BytecodeBuffer dataOutput) throws IOException;
 
 }
@@ -6,6 +6,7 @@ import org.jetbrains.annotations.NotNull;
 import ru.team.compiler.analyzer.AnalyzableVariable;
 import ru.team.compiler.analyzer.AnalyzeContext;
 import ru.team.compiler.compiler.CompilationContext;
+import ru.team.compiler.compiler.attribute.BytecodeBuffer;
 import ru.team.compiler.compiler.attribute.CodeAttribute;
 import ru.team.compiler.compiler.attribute.CompilationExecutable;
 import ru.team.compiler.compiler.constant.ConstantPool;
@@ -18,10 +19,7 @@ import ru.team.compiler.tree.node.clas.ClassNode;
 import ru.team.compiler.tree.node.expression.IdentifierNode;
 import ru.team.compiler.tree.node.primary.ReferenceNode;
 
-import java.io.DataOutput;
 import java.io.IOException;
-import java.util.HashMap;
-import java.util.Map;
 
 @EqualsAndHashCode(callSuper = false)
 @ToString
@@ -64,28 +62,24 @@ public final class VariableDeclarationNode extends StatementNode {
     @Override
     @NotNull
     public AnalyzeContext analyzeUnsafe(@NotNull AnalyzeContext context) {
-        Map<ReferenceNode, AnalyzableVariable> variables = new HashMap<>(context.variables());
-
         if (!context.hasClass(type)) {
             throw new AnalyzerException("Variable '%s.%s' references to unknown type '%s'"
                     .formatted(context.currentPath(), name.value(), type.value()));
         }
 
         ReferenceNode nameReference = name.asReference();
-        if (variables.containsKey(nameReference)) {
+        if (context.hasVariable(nameReference)) {
             throw new AnalyzerException("Variable '%s.%s' is already defined"
                     .formatted(context.currentPath(), name.value()));
         }
 
-        variables.put(nameReference, new AnalyzableVariable(name, type));
-
-        return context.withVariables(variables);
+        return context.withVariable(new AnalyzableVariable(name, type), false);
     }
 
     @Override
     public void compile(@NotNull CompilationContext context, @NotNull ClassNode currentClass,
                         @NotNull ConstantPool constantPool, @NotNull CodeAttribute.VariablePool variablePool,
-                        @NotNull CompilationExecutable currentExecutable, @NotNull DataOutput dataOutput) throws IOException {
+                        @NotNull CompilationExecutable currentExecutable, @NotNull BytecodeBuffer dataOutput) throws IOException {
 
     }
 }
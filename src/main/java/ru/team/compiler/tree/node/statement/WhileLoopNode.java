@@ -5,11 +5,10 @@ import lombok.ToString;
 import org.jetbrains.annotations.NotNull;
 import ru.team.compiler.analyzer.AnalyzeContext;
 import ru.team.compiler.compiler.CompilationContext;
-import ru.team.compiler.compiler.CompilationUtils;
+import ru.team.compiler.compiler.attribute.BytecodeBuffer;
 import ru.team.compiler.compiler.attribute.CodeAttribute;
 import ru.team.compiler.compiler.attribute.CompilationExecutable;
 import ru.team.compiler.compiler.constant.ConstantPool;
-import ru.team.compiler.compiler.constant.MethodRefConstant;
 import ru.team.compiler.exception.AnalyzerException;
 import ru.team.compiler.exception.CompilerException;
 import ru.team.compiler.token.TokenIterator;
@@ -21,9 +20,6 @@ import ru.team.compiler.tree.node.primary.BooleanLiteralNode;
 import ru.team.compiler.tree.node.primary.ReferenceNode;
 import ru.team.compiler.util.Opcodes;
 
-import java.io.ByteArrayOutputStream;
-import java.io.DataOutput;
-import java.io.DataOutputStream;
 import java.io.IOException;
 import java.util.List;
 
@@ -101,50 +97,21 @@ public final class WhileLoopNode extends StatementNode {
     @Override
     public void compile(@NotNull CompilationContext context, @NotNull ClassNode currentClass,
                         @NotNull ConstantPool constantPool, @NotNull CodeAttribute.VariablePool variablePool,
-                        @NotNull CompilationExecutable currentExecutable, @NotNull DataOutput dataOutput) throws IOException {
-        ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream(1024);
-        DataOutputStream byteDataOutput = new DataOutputStream(byteArrayOutputStream);
+                        @NotNull CompilationExecutable currentExecutable, @NotNull BytecodeBuffer dataOutput) throws IOException {
+        BytecodeBuffer.Label startLabel = dataOutput.newLabel();
+        BytecodeBuffer.Label exitLabel = dataOutput.newLabel();
 
-        // Firstly, compile condition and body because we need to know offset for IFEQ and GOTO opcodes
-        condition.compile(context, currentClass, constantPool, variablePool, currentExecutable, byteDataOutput, false);
-
-        // olang.Boolean -> boolean primitive
-        // invokevirtual (#Boolean.java$value()Z)
-        byteDataOutput.writeByte(Opcodes.INVOKEVIRTUAL);
-        MethodRefConstant oMethod = CompilationUtils.oMethod(constantPool,
-                "Boolean", "java$value", "()Z");
-        byteDataOutput.writeShort(oMethod.index());
-
-        byte[] compiledBody = compileBodyNode(context, currentClass, constantPool, variablePool, currentExecutable);
-
-        // ifeq (#X)
-        int offset = 3 + compiledBody.length + 3;
-
-        byteDataOutput.writeByte(Opcodes.IFEQ);
-        byteDataOutput.writeShort(offset);
-
-        byteDataOutput.write(compiledBody);
-
-        // Secondly, define GOTO with known offset
-        offset = -byteDataOutput.size();
-
-        byteDataOutput.writeByte(Opcodes.GOTO);
-        byteDataOutput.writeShort(offset);
-
-        dataOutput.write(byteArrayOutputStream.toByteArray());
-    }
-
-    private byte @NotNull [] compileBodyNode(@NotNull CompilationContext context, @NotNull ClassNode currentClass,
-                                             @NotNull ConstantPool constantPool,
-                                             @NotNull CodeAttribute.VariablePool variablePool,
-                                             @NotNull CompilationExecutable currentExecutable) throws IOException {
-        ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream(1024);
-        DataOutputStream byteDataOutput = new DataOutputStream(byteArrayOutputStream);
+        dataOutput.mark(startLabel);
+        condition.compileBranch(context, currentClass, constantPool, variablePool, currentExecutable, dataOutput,
+                false, exitLabel);
 
         for (StatementNode statementNode : body.statements()) {
-            statementNode.compile(context, currentClass, constantPool, variablePool, currentExecutable, byteDataOutput);
+            statementNode.compile(context, currentClass, constantPool, variablePool, currentExecutable, dataOutput);
         }
 
-        return byteArrayOutputStream.toByteArray();
+        // goto (#start)
+        dataOutput.jump(Opcodes.GOTO, startLabel);
+
+        dataOutput.mark(exitLabel);
     }
 }
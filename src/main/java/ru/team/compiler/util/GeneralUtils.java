@@ -5,6 +5,9 @@ import org.jetbrains.annotations.NotNull;
 import java.io.File;
 import java.net.URLDecoder;
 import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
 
 public final class GeneralUtils {
 
@@ -18,4 +21,19 @@ public final class GeneralUtils {
         String decodedPath = URLDecoder.decode(path, StandardCharsets.UTF_8);
         return new File(decodedPath);
     }
+
+    @NotNull
+    public static String sha256(byte @NotNull [] bytes) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(bytes));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @NotNull
+    public static String sha256(@NotNull String string) {
+        return sha256(string.getBytes(StandardCharsets.UTF_8));
+    }
 }
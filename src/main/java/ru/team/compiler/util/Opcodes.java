@@ -5,6 +5,8 @@ import ru.team.compiler.compiler.constant.ConstantPool;
 
 public interface Opcodes {
 
+    int NOP = 0;
+
     int ICONST_M1 = 2;
     int ICONST_0 = 3;
     int ICONST_1 = 4;
@@ -23,13 +25,33 @@ public interface Opcodes {
     int LDC = 18;
     int LDC_W = 19;
 
+    int ILOAD = 21;
+    int FLOAD = 23;
     int ALOAD = 25;
+    int ILOAD_0 = 26;
+    int ILOAD_1 = 27;
+    int ILOAD_2 = 28;
+    int ILOAD_3 = 29;
+    int FLOAD_0 = 34;
+    int FLOAD_1 = 35;
+    int FLOAD_2 = 36;
+    int FLOAD_3 = 37;
     int ALOAD_0 = 42;
     int ALOAD_1 = 43;
     int ALOAD_2 = 44;
     int ALOAD_3 = 45;
 
+    int ISTORE = 54;
+    int FSTORE = 56;
     int ASTORE = 58;
+    int ISTORE_0 = 59;
+    int ISTORE_1 = 60;
+    int ISTORE_2 = 61;
+    int ISTORE_3 = 62;
+    int FSTORE_0 = 67;
+    int FSTORE_1 = 68;
+    int FSTORE_2 = 69;
+    int FSTORE_3 = 70;
     int ASTORE_0 = 75;
     int ASTORE_1 = 76;
     int ASTORE_2 = 77;
@@ -42,7 +64,37 @@ public interface Opcodes {
 
     int SWAP = 95;
 
+    int IADD = 96;
+    int FADD = 98;
+    int ISUB = 100;
+    int FSUB = 102;
+    int IMUL = 104;
+    int FMUL = 106;
+    int IDIV = 108;
+    int FDIV = 110;
+
+    int IAND = 126;
+    int IOR = 128;
+    int IXOR = 130;
+
+    int I2F = 134;
+    int F2I = 139;
+
+    int FCMPL = 149;
+    int FCMPG = 150;
+
     int IFEQ = 153;
+    int IFNE = 154;
+    int IFLT = 155;
+    int IFGE = 156;
+    int IFGT = 157;
+    int IFLE = 158;
+    int IF_ICMPEQ = 159;
+    int IF_ICMPNE = 160;
+    int IF_ICMPLT = 161;
+    int IF_ICMPGE = 162;
+    int IF_ICMPGT = 163;
+    int IF_ICMPLE = 164;
 
     int GOTO = 167;
 
@@ -57,9 +109,18 @@ public interface Opcodes {
 
     int NEW = 187;
 
+    int ATHROW = 191;
+
     int CHECKCAST = 192;
     int INSTANCEOF = 193;
 
+    int GOTO_W = 200;
+
+    // Conditional jump opcodes come in pairs of opposite conditions: ifeq/ifne, iflt/ifge, ifgt/ifle, ...
+    static int negate(int opcode) {
+        return ((opcode + 1) ^ 1) - 1;
+    }
+
     static byte @NotNull [] iconst(@NotNull ConstantPool constantPool, int value) {
         return switch (value) {
             case -1 -> Bytes.of((byte) ICONST_M1);
@@ -125,4 +186,44 @@ public interface Opcodes {
         };
     }
 
+    static byte @NotNull [] iload(@NotNull ConstantPool constantPool, int value) {
+        return switch (value) {
+            case 0 -> Bytes.of((byte) ILOAD_0);
+            case 1 -> Bytes.of((byte) ILOAD_1);
+            case 2 -> Bytes.of((byte) ILOAD_2);
+            case 3 -> Bytes.of((byte) ILOAD_3);
+            default -> Bytes.of((byte) ILOAD, (byte) value);
+        };
+    }
+
+    static byte @NotNull [] istore(@NotNull ConstantPool constantPool, int value) {
+        return switch (value) {
+            case 0 -> Bytes.of((byte) ISTORE_0);
+            case 1 -> Bytes.of((byte) ISTORE_1);
+            case 2 -> Bytes.of((byte) ISTORE_2);
+            case 3 -> Bytes.of((byte) ISTORE_3);
+            default -> Bytes.of((byte) ISTORE, (byte) value);
+        };
+    }
+
+    static byte @NotNull [] fload(@NotNull ConstantPool constantPool, int value) {
+        return switch (value) {
+            case 0 -> Bytes.of((byte) FLOAD_0);
+            case 1 -> Bytes.of((byte) FLOAD_1);
+            case 2 -> Bytes.of((byte) FLOAD_2);
+            case 3 -> Bytes.of((byte) FLOAD_3);
+            default -> Bytes.of((byte) FLOAD, (byte) value);
+        };
+    }
+
+    static byte @NotNull [] fstore(@NotNull ConstantPool constantPool, int value) {
+        return switch (value) {
+            case 0 -> Bytes.of((byte) FSTORE_0);
+            case 1 -> Bytes.of((byte) FSTORE_1);
+            case 2 -> Bytes.of((byte) FSTORE_2);
+            case 3 -> Bytes.of((byte) FSTORE_3);
+            default -> Bytes.of((byte) FSTORE, (byte) value);
+        };
+    }
+
 }
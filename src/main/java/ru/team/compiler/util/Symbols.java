@@ -0,0 +1,145 @@
+package ru.team.compiler.util;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Interned names compare by identity. Lookups do not lock, so the parallel front end and analyzer do not contend,
+// and the table holds its names weakly: a name no node or token refers to anymore is dropped, so a long-lived
+// daemon does not keep every identifier it has ever seen. While any holder is alive the same instance is returned
+public final class Symbols {
+
+    private static final ConcurrentHashMap<Object, Symbol> TABLE = new ConcurrentHashMap<>(1024);
+    private static final ReferenceQueue<String> QUEUE = new ReferenceQueue<>();
+
+    private Symbols() {
+
+    }
+
+    @NotNull
+    public static String intern(@NotNull String value) {
+        Symbol symbol = TABLE.get(new StringKey(value, value.hashCode()));
+        String symbolValue = symbol != null ? symbol.get() : null;
+        return symbolValue != null ? symbolValue : insert(value);
+    }
+
+    @NotNull
+    public static String intern(char @NotNull [] chars, int offset, int length) {
+        int hash = 0;
+        for (int i = offset; i < offset + length; i++) {
+            hash = 31 * hash + chars[i];
+        }
+
+        Symbol symbol = TABLE.get(new CharsKey(chars, offset, length, hash));
+        String symbolValue = symbol != null ? symbol.get() : null;
+        return symbolValue != null ? symbolValue : insert(new String(chars, offset, length));
+    }
+
+    // ===
+
+    @NotNull
+    private static String insert(@NotNull String value) {
+        removeCleared();
+
+        Symbol symbol = new Symbol(value);
+        while (true) {
+            Symbol previous = TABLE.putIfAbsent(symbol, symbol);
+            if (previous == null) {
+                return value;
+            }
+
+            String previousValue = previous.get();
+            if (previousValue != null) {
+                return previousValue;
+            }
+
+            // Cleared after it was matched, it is replaced
+            TABLE.remove(previous, previous);
+        }
+    }
+
+    private static void removeCleared() {
+        Symbol symbol;
+        while ((symbol = (Symbol) QUEUE.poll()) != null) {
+            TABLE.remove(symbol, symbol);
+        }
+    }
+
+    private static boolean matches(@NotNull String symbol, char @NotNull [] chars, int offset, int length) {
+        if (symbol.length() != length) {
+            return false;
+        }
+
+        for (int i = 0; i < length; i++) {
+            if (symbol.charAt(i) != chars[offset + i]) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    // Entry of the table, both its key and value. The hash stays after the name is cleared, so the entry can
+    // still be found and removed
+    private static final class Symbol extends WeakReference<String> {
+
+        private final int hash;
+
+        private Symbol(@NotNull String value) {
+            super(value, QUEUE);
+            this.hash = value.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object object) {
+            if (this == object) {
+                return true;
+            }
+            if (!(object instanceof Symbol symbol) || hash != symbol.hash) {
+                return false;
+            }
+
+            String value = get();
+            return value != null && value.equals(symbol.get());
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    // Lookup keys, equal to the entry holding the same name
+    private record StringKey(@NotNull String value, int hash) {
+
+        @Override
+        public boolean equals(Object object) {
+            return object instanceof Symbol symbol && symbol.hash == hash && value.equals(symbol.get());
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    private record CharsKey(char @NotNull [] chars, int offset, int length, int hash) {
+
+        @Override
+        public boolean equals(Object object) {
+            if (!(object instanceof Symbol symbol) || symbol.hash != hash) {
+                return false;
+            }
+
+            String value = symbol.get();
+            return value != null && matches(value, chars, offset, length);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
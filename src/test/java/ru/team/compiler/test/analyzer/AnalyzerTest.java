@@ -0,0 +1,73 @@
+package ru.team.compiler.test.analyzer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+import ru.team.compiler.analyzer.AnalyzableClass;
+import ru.team.compiler.analyzer.AnalyzeContext;
+import ru.team.compiler.analyzer.Analyzer;
+import ru.team.compiler.exception.AnalyzerException;
+import ru.team.compiler.token.TokenStream;
+import ru.team.compiler.tree.node.clas.ProgramNode;
+import ru.team.compiler.tree.node.primary.ReferenceNode;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+public class AnalyzerTest {
+
+    @Test
+    void stdClassesAreShared() {
+        Map<ReferenceNode, AnalyzableClass> stdClasses = Analyzer.stdClasses();
+
+        assertSame(stdClasses, Analyzer.stdClasses());
+        assertTrue(stdClasses.containsKey(new ReferenceNode("Integer")));
+        assertThrows(UnsupportedOperationException.class, () -> stdClasses.remove(new ReferenceNode("Integer")));
+
+        AnalyzeContext context = Analyzer.createContext(Path.of("."), new ProgramNode(List.of(), List.of()));
+        assertEquals(stdClasses, context.classes());
+        assertSame(stdClasses.get(new ReferenceNode("Integer")), context.classes().get(new ReferenceNode("Integer")));
+    }
+
+    @Test
+    void cyclicDependency() {
+        assertEquals("Class 'C' has cyclic dependency: C -> A -> B -> C",
+                createContextError("class A extends B is end class B extends C is end class C extends A is end"));
+        assertEquals("Class 'A' has cyclic dependency: A -> A",
+                createContextError("class A extends A is end"));
+    }
+
+    @Test
+    void fieldDefinedInSuperClass() {
+        assertEquals("Field 'C.x' is already defined in super class 'A'", createContextError("""
+                class A is var x: Integer; end
+                class B extends A is var y: Integer; end
+                class C extends B is var x: Integer; end
+                """));
+    }
+
+    @Test
+    void deepHierarchy() {
+        StringBuilder code = new StringBuilder("class C0 extends C4999 is var x: Integer; end\n");
+        for (int i = 1; i < 5000; i++) {
+            code.append("class C").append(i).append(" extends C").append(i - 1).append(" is var x")
+                    .append(i).append(": Integer; end\n");
+        }
+
+        assertTrue(createContextError(code.toString()).startsWith("Class 'C4999' has cyclic dependency: C4999 -> C4998"));
+
+        code.replace(0, code.indexOf("\n"), "class C0 is var x: Integer; end");
+        code.append("class D extends C4999 is var x: Integer; end\n");
+        assertEquals("Field 'D.x' is already defined in super class 'C0'", createContextError(code.toString()));
+    }
+
+    private static String createContextError(String code) {
+        ProgramNode programNode = ProgramNode.PARSER.parse(TokenStream.tokenize(code));
+        return assertThrows(AnalyzerException.class, () -> Analyzer.createContext(Path.of("."), programNode))
+                .getMessage();
+    }
+}
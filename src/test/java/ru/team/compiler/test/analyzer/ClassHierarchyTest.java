@@ -0,0 +1,80 @@
+package ru.team.compiler.test.analyzer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+import ru.team.compiler.analyzer.AnalyzeContext;
+import ru.team.compiler.analyzer.Analyzer;
+import ru.team.compiler.exception.AnalyzerException;
+import ru.team.compiler.token.TokenStream;
+import ru.team.compiler.tree.node.clas.ProgramNode;
+import ru.team.compiler.tree.node.primary.ReferenceNode;
+
+import java.nio.file.Path;
+
+public class ClassHierarchyTest {
+
+    @Test
+    void subtypes() {
+        AnalyzeContext context = context("""
+                class A is end
+                class B extends A is end
+                class C extends B is end
+                class D extends A is end
+                class E is end
+                """);
+
+        assertTrue(isAssignableFrom(context, "A", "C"));
+        assertTrue(isAssignableFrom(context, "B", "C"));
+        assertTrue(isAssignableFrom(context, "C", "C"));
+        assertTrue(isAssignableFrom(context, "Any", "C"));
+        assertTrue(isAssignableFrom(context, "Any", "Integer"));
+
+        assertFalse(isAssignableFrom(context, "C", "A"));
+        assertFalse(isAssignableFrom(context, "D", "C"));
+        assertFalse(isAssignableFrom(context, "B", "D"));
+        assertFalse(isAssignableFrom(context, "E", "A"));
+        assertFalse(isAssignableFrom(context, "A", "Any"));
+        assertFalse(isAssignableFrom(context, "A", "Integer"));
+    }
+
+    @Test
+    void unknownParent() {
+        AnalyzeContext context = context("""
+                class A extends Unknown is end
+                class B extends A is end
+                """);
+
+        assertTrue(isAssignableFrom(context, "A", "B"));
+
+        AnalyzerException exception = assertThrows(AnalyzerException.class,
+                () -> isAssignableFrom(context, "Any", "B"));
+        assertEquals("Expression at '' is invalid: class 'A' extends unknown 'Unknown'", exception.getMessage());
+    }
+
+    @Test
+    void deepHierarchy() {
+        StringBuilder code = new StringBuilder("class C0 is end\n");
+        for (int i = 1; i < 5000; i++) {
+            code.append("class C").append(i).append(" extends C").append(i - 1).append(" is end\n");
+        }
+
+        AnalyzeContext context = context(code.toString());
+
+        assertTrue(isAssignableFrom(context, "C0", "C4999"));
+        assertTrue(isAssignableFrom(context, "C2500", "C2501"));
+        assertFalse(isAssignableFrom(context, "C2501", "C2500"));
+    }
+
+    private static boolean isAssignableFrom(AnalyzeContext context, String requiredClass, String className) {
+        return context.isAssignableFrom(new ReferenceNode(requiredClass), new ReferenceNode(className));
+    }
+
+    private static AnalyzeContext context(String code) {
+        ProgramNode programNode = ProgramNode.PARSER.parse(TokenStream.tokenize(code));
+        return Analyzer.createContext(Path.of("."), programNode);
+    }
+}
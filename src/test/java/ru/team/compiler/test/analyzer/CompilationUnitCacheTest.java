@@ -0,0 +1,180 @@
+package ru.team.compiler.test.analyzer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import ru.team.compiler.analyzer.AnalyzeContext;
+import ru.team.compiler.analyzer.Analyzer;
+import ru.team.compiler.analyzer.CompilationUnitCache;
+import ru.team.compiler.exception.AnalyzerException;
+import ru.team.compiler.token.TokenStream;
+import ru.team.compiler.tree.node.clas.ProgramNode;
+import ru.team.compiler.tree.node.primary.ReferenceNode;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+
+public class CompilationUnitCacheTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void sameUnitUntilChanged() throws IOException {
+        Path path = directory.resolve("a.olang");
+        Files.writeString(path, "class A is end");
+
+        CompilationUnitCache cache = new CompilationUnitCache();
+        ReferenceNode fileName = new ReferenceNode("a");
+
+        CompilationUnitCache.CompilationUnit unit = cache.include(fileName, path, TokenStream::tokenize);
+        assertSame(unit, cache.include(fileName, directory.resolve(".").resolve("a.olang"), TokenStream::tokenize));
+        assertEquals(1, cache.size());
+
+        Files.writeString(path, "class A extends B is end");
+
+        CompilationUnitCache.CompilationUnit changedUnit = cache.include(fileName, path, TokenStream::tokenize);
+        assertNotSame(unit, changedUnit);
+        assertEquals("B", changedUnit.programNode().classes().get(0).parentName().value());
+        assertEquals(1, cache.size());
+
+        // Rewritten right after it was read, with the same size and modification time
+        FileTime lastModified = Files.getLastModifiedTime(path);
+        Files.writeString(path, "class A extends C is end");
+        Files.setLastModifiedTime(path, lastModified);
+
+        CompilationUnitCache.CompilationUnit rewrittenUnit = cache.include(fileName, path, TokenStream::tokenize);
+        assertEquals("C", rewrittenUnit.programNode().classes().get(0).parentName().value());
+    }
+
+    @Test
+    void includeErrors() throws IOException {
+        CompilationUnitCache cache = new CompilationUnitCache();
+        ReferenceNode fileName = new ReferenceNode("a");
+
+        Path path = directory.resolve("a.olang");
+        AnalyzerException exception = assertThrows(AnalyzerException.class,
+                () -> cache.include(fileName, path, TokenStream::tokenize));
+        assertEquals("Program includes 'a' that cannot be found at '%s'".formatted(path), exception.getMessage());
+
+        Files.writeString(path, "class A is");
+        exception = assertThrows(AnalyzerException.class, () -> cache.include(fileName, path, TokenStream::tokenize));
+        assertTrue(exception.getMessage().startsWith("Program includes 'a' that failed on syntax analysis"));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void diamondIncludes() throws IOException {
+        Files.writeString(directory.resolve("b.olang"), "include d; class B extends D is end");
+        Files.writeString(directory.resolve("c.olang"), "include d; class C extends D is end");
+        Files.writeString(directory.resolve("d.olang"), "class D is end");
+
+        ProgramNode programNode = parse("include b; include c; class A extends B is end");
+
+        AnalyzeContext context = Analyzer.createContext(directory, programNode);
+        assertTrue(context.hasClass(new ReferenceNode("B")));
+        assertTrue(context.hasClass(new ReferenceNode("C")));
+        assertTrue(context.hasClass(new ReferenceNode("D")));
+        assertEquals(List.of(), programNode.analyze(context).exceptions());
+    }
+
+    @Test
+    void includeGraph() throws IOException {
+        StringBuilder rootCode = new StringBuilder();
+        for (int i = 0; i < 20; i++) {
+            Files.writeString(directory.resolve("f" + i + ".olang"),
+                    "include f" + (i + 1) % 20 + "; include common; class F" + i + " is end");
+            rootCode.append("include f").append(i).append("; ");
+        }
+
+        Files.writeString(directory.resolve("common.olang"), "class Common is end");
+        Files.writeString(directory.resolve("broken.olang"), "class Broken is");
+        rootCode.append("include broken; include missing; class A is end");
+
+        CompilationUnitCache cache = new CompilationUnitCache();
+        CompilationUnitCache.IncludeGraph graph = cache.includeGraph(
+                directory, parse(rootCode.toString()), TokenStream::tokenize);
+
+        assertEquals(21, graph.units().size());
+        for (var entry : graph.units().entrySet()) {
+            assertSame(entry.getValue(), cache.include(new ReferenceNode("f"), entry.getKey(), TokenStream::tokenize));
+        }
+
+        // Failures are kept and reported with their own error where the file is included
+        assertEquals(2, graph.failures().size());
+        AnalyzerException exception = assertThrows(AnalyzerException.class,
+                () -> graph.unit(directory.resolve("broken.olang")));
+        assertSame(graph.failures().get(CompilationUnitCache.key(directory.resolve("broken.olang"))), exception);
+        assertTrue(exception.getMessage().startsWith("Program includes 'broken' that failed on syntax analysis"));
+        assertTrue(exception.getMessage().contains("(at line: 1"), exception.getMessage());
+    }
+
+    @Test
+    void bounded() throws IOException {
+        CompilationUnitCache cache = new CompilationUnitCache(2);
+        for (String name : List.of("a", "b", "c")) {
+            Files.writeString(directory.resolve(name + ".olang"), "class " + name.toUpperCase() + " is end");
+        }
+
+        CompilationUnitCache.CompilationUnit a = cache.include(new ReferenceNode("a"), directory.resolve("a.olang"),
+                TokenStream::tokenize);
+        cache.include(new ReferenceNode("b"), directory.resolve("b.olang"), TokenStream::tokenize);
+        assertSame(a, cache.include(new ReferenceNode("a"), directory.resolve("a.olang"), TokenStream::tokenize));
+
+        // b was used least recently
+        cache.include(new ReferenceNode("c"), directory.resolve("c.olang"), TokenStream::tokenize);
+        assertEquals(2, cache.size());
+        assertSame(a, cache.include(new ReferenceNode("a"), directory.resolve("a.olang"), TokenStream::tokenize));
+    }
+
+    @Test
+    void deterministicMerge() throws IOException {
+        StringBuilder rootCode = new StringBuilder();
+        for (int i = 0; i < 20; i++) {
+            Files.writeString(directory.resolve("f" + i + ".olang"),
+                    "include common; class F" + i + " extends Common is end");
+            rootCode.append("include f").append(i).append("; ");
+        }
+
+        Files.writeString(directory.resolve("common.olang"), "class Common is end");
+        Files.writeString(directory.resolve("other.olang"), "class F7 is end");
+
+        ProgramNode programNode = parse(rootCode + "class A is end");
+        AnalyzeContext context = Analyzer.createContext(directory, programNode);
+        assertEquals(List.copyOf(context.classes().keySet()),
+                List.copyOf(Analyzer.createContext(directory, programNode).classes().keySet()));
+
+        ProgramNode conflictNode = parse(rootCode + "include other; class A is end");
+        for (int i = 0; i < 5; i++) {
+            AnalyzerException exception = assertThrows(AnalyzerException.class,
+                    () -> Analyzer.createContext(directory, conflictNode));
+            assertEquals("Program includes 'other' that defined class 'F7' in different way from '%s'"
+                    .formatted(directory.resolve("other.olang")), exception.getMessage());
+        }
+    }
+
+    @Test
+    void cyclicIncludes() throws IOException {
+        Files.writeString(directory.resolve("b.olang"), "include c; class B is end");
+        Files.writeString(directory.resolve("c.olang"), "include b; class C is end");
+
+        ProgramNode programNode = parse("include b; class A is end");
+
+        AnalyzerException exception = assertThrows(AnalyzerException.class,
+                () -> Analyzer.createContext(directory, programNode));
+        assertEquals("Program includes 'b' that includes it too at '%s'".formatted(directory.resolve("b.olang")),
+                exception.getMessage());
+    }
+
+    private static ProgramNode parse(String code) {
+        return ProgramNode.PARSER.parse(TokenStream.tokenize(code));
+    }
+}
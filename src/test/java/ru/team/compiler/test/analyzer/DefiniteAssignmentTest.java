@@ -0,0 +1,90 @@
+package ru.team.compiler.test.analyzer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+import ru.team.compiler.analyzer.DefiniteAssignment;
+
+public class DefiniteAssignmentTest {
+
+    @Test
+    void assign() {
+        DefiniteAssignment assignment = new DefiniteAssignment();
+        assertTrue(assignment.isEmpty());
+        assertFalse(assignment.isAssigned(0));
+
+        assignment.assign(3);
+        assignment.assign(64);
+        assignment.assign(130);
+
+        assertTrue(assignment.isAssigned(3));
+        assertTrue(assignment.isAssigned(64));
+        assertTrue(assignment.isAssigned(130));
+        assertFalse(assignment.isAssigned(4));
+        assertFalse(assignment.isAssigned(1000));
+
+        assertEquals(3, assignment.nextAssigned(0));
+        assertEquals(64, assignment.nextAssigned(4));
+        assertEquals(130, assignment.nextAssigned(65));
+        assertEquals(-1, assignment.nextAssigned(131));
+        assertEquals("DefiniteAssignment{3, 64, 130}", assignment.toString());
+    }
+
+    @Test
+    void merge() {
+        DefiniteAssignment then = new DefiniteAssignment();
+        then.assign(1);
+        then.assign(2);
+        then.assign(70);
+
+        DefiniteAssignment otherwise = new DefiniteAssignment();
+        otherwise.assign(2);
+        otherwise.assign(3);
+
+        DefiniteAssignment meet = DefiniteAssignment.meet(then, otherwise);
+        assertEquals("DefiniteAssignment{2}", meet.toString());
+
+        DefiniteAssignment join = DefiniteAssignment.join(otherwise, then);
+        assertEquals("DefiniteAssignment{1, 2, 3, 70}", join.toString());
+
+        assertTrue(then.isAssigned(70));
+        assertFalse(otherwise.isAssigned(70));
+    }
+
+    @Test
+    void truncate() {
+        DefiniteAssignment assignment = new DefiniteAssignment();
+        for (int slot = 0; slot < 200; slot += 7) {
+            assignment.assign(slot);
+        }
+
+        DefiniteAssignment copy = assignment.copy();
+        copy.truncate(64);
+
+        assertTrue(copy.isAssigned(63));
+        assertFalse(copy.isAssigned(70));
+        assertEquals(-1, copy.nextAssigned(64));
+        assertTrue(assignment.isAssigned(70));
+
+        copy.truncate(0);
+        assertTrue(copy.isEmpty());
+    }
+
+    @Test
+    void equality() {
+        DefiniteAssignment a = new DefiniteAssignment();
+        a.assign(5);
+        a.assign(100);
+
+        DefiniteAssignment b = new DefiniteAssignment();
+        b.assign(5);
+        assertNotEquals(a, b);
+
+        a.truncate(6);
+        assertEquals(a, b);
+        assertEquals(a.hashCode(), b.hashCode());
+    }
+}
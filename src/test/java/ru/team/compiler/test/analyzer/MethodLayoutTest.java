@@ -0,0 +1,151 @@
+package ru.team.compiler.test.analyzer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import org.junit.jupiter.api.Test;
+import ru.team.compiler.analyzer.AnalyzableClass;
+import ru.team.compiler.analyzer.AnalyzableMethod;
+import ru.team.compiler.analyzer.AnalyzeContext;
+import ru.team.compiler.analyzer.Analyzer;
+import ru.team.compiler.analyzer.MethodLayout;
+import ru.team.compiler.token.TokenStream;
+import ru.team.compiler.tree.node.clas.ProgramNode;
+import ru.team.compiler.tree.node.primary.ReferenceNode;
+
+import java.nio.file.Path;
+import java.util.List;
+
+public class MethodLayoutTest {
+
+    @Test
+    void missingMethods() {
+        String code = """
+                class abstract A is
+                  method abstract foo(): Integer;
+                  method abstract bar(): Integer;
+                end
+                class abstract B extends A is
+                  method abstract foo(): Integer;
+                  method bar(): Integer is
+                    return 1;
+                  end
+                end
+                class C extends B is
+                end
+                class D extends B is
+                  method foo(): Integer is
+                    return 2;
+                  end
+                end
+                """;
+
+        AnalyzeContext context = context(code);
+        MethodLayout layout = layout(context, "C");
+        assertEquals(1, layout.missingMethods().size());
+
+        var entry = layout.missingMethods().entrySet().iterator().next();
+        assertEquals("foo", entry.getKey().name().value());
+        assertEquals("A", entry.getValue().name().value());
+        assertNull(layout.unknownParentClass());
+
+        assertEquals(0, layout(context, "D").missingMethods().size());
+        assertEquals("D", layout(context, "D").methods().get(entry.getKey()).declaredClass().name().value());
+
+        assertEquals(List.of("Class 'C' must implement abstract method 'A.foo()'"), analyze(code));
+    }
+
+    @Test
+    void unknownParent() {
+        AnalyzeContext context = context("""
+                class abstract A extends Unknown is
+                  method abstract foo(): Integer;
+                end
+                class B extends A is
+                end
+                """);
+
+        MethodLayout layout = layout(context, "B");
+        assertEquals("A", layout.unknownParentClass().name().value());
+        assertEquals(1, layout.missingMethods().size());
+    }
+
+    @Test
+    void bridges() {
+        String code = """
+                class A is
+                  method get(): Any is
+                    return this;
+                  end
+                end
+                class B extends A is
+                  method get(): A is
+                    return this;
+                  end
+                end
+                class C extends B is
+                  method get(): C is
+                    return this;
+                  end
+                end
+                class D extends C is
+                  method get(): C is
+                    return this;
+                  end
+                end
+                """;
+
+        assertEquals(List.of(), analyze(code));
+
+        AnalyzeContext context = context(code);
+
+        assertEquals(List.of("Any"), returnTypes(layout(context, "B").bridges()));
+        assertEquals(List.of("A", "Any"), returnTypes(layout(context, "C").bridges()));
+        assertEquals(List.of("A", "Any"), returnTypes(layout(context, "D").bridges()));
+    }
+
+    @Test
+    void deepHierarchy() {
+        StringBuilder code = new StringBuilder("class C0 is method foo(): Integer is return 0; end end\n");
+        for (int i = 1; i < 3000; i++) {
+            code.append("class C").append(i).append(" extends C").append(i - 1).append(" is end\n");
+        }
+
+        AnalyzeContext context = context(code.toString());
+
+        MethodLayout layout = layout(context, "C2999");
+        assertSame(layout, layout(context, "C2999"));
+        assertEquals("C0", layout.methods().values().stream()
+                .filter(method -> method.name().value().equals("foo"))
+                .findFirst()
+                .orElseThrow()
+                .declaredClass().name().value());
+    }
+
+    private static List<String> returnTypes(List<AnalyzableMethod> methods) {
+        return methods.stream()
+                .map(method -> method.returnType().value())
+                .toList();
+    }
+
+    private static MethodLayout layout(AnalyzeContext context, String name) {
+        AnalyzableClass analyzableClass = context.classes().get(new ReferenceNode(name));
+        return context.methodTable().layout(analyzableClass);
+    }
+
+    private static List<String> analyze(String code) {
+        ProgramNode programNode = parse(code);
+        return programNode.analyze(Analyzer.createContext(Path.of("."), programNode)).exceptions().stream()
+                .map(Exception::getMessage)
+                .toList();
+    }
+
+    private static AnalyzeContext context(String code) {
+        return Analyzer.createContext(Path.of("."), parse(code));
+    }
+
+    private static ProgramNode parse(String code) {
+        return ProgramNode.PARSER.parse(TokenStream.tokenize(code));
+    }
+}
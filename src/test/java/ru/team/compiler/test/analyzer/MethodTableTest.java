@@ -0,0 +1,92 @@
+package ru.team.compiler.test.analyzer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+import ru.team.compiler.analyzer.AnalyzableClass;
+import ru.team.compiler.analyzer.AnalyzableMethod;
+import ru.team.compiler.analyzer.AnalyzeContext;
+import ru.team.compiler.analyzer.Analyzer;
+import ru.team.compiler.analyzer.MethodTable;
+import ru.team.compiler.token.TokenStream;
+import ru.team.compiler.tree.node.clas.ProgramNode;
+import ru.team.compiler.tree.node.expression.ArgumentsNode;
+import ru.team.compiler.tree.node.expression.ExpressionNode;
+import ru.team.compiler.tree.node.expression.IdentifierNode;
+import ru.team.compiler.tree.node.primary.IntegerLiteralNode;
+import ru.team.compiler.tree.node.primary.ReferenceNode;
+
+import java.nio.file.Path;
+import java.util.List;
+
+public class MethodTableTest {
+
+    private static final String CODE = """
+            class A is
+              method foo(a: Integer): Integer is
+                return a;
+              end
+
+              method foo(a: Real): Real is
+                return a;
+              end
+
+              method foo(a: Integer, b: Integer): Integer is
+                return a;
+              end
+            end
+
+            class B extends A is
+              method bar(): Integer is
+                return this.foo(1).add(this.foo(2)).add(this.foo(3, 4));
+              end
+            end
+            """;
+
+    @Test
+    void methodsByName() {
+        AnalyzeContext context = context();
+        AnalyzableClass a = context.classes().get(new ReferenceNode("A"));
+
+        List<AnalyzableMethod> methods = context.methodTable().methods(a, new IdentifierNode("foo"));
+        assertEquals(3, methods.size());
+        assertEquals(a.methods().values().stream().filter(m -> m.name().value().equals("foo")).toList(), methods);
+        assertEquals(List.of(), context.methodTable().methods(a, new IdentifierNode("bar")));
+    }
+
+    @Test
+    void sharedResolutions() {
+        AnalyzeContext context = context();
+        AnalyzableClass b = context.classes().get(new ReferenceNode("B"));
+        ArgumentsNode arguments = new ArgumentsNode(List.of(new ExpressionNode(new IntegerLiteralNode(5), List.of())));
+
+        AnalyzableMethod method = b.findMatchingMethod(context, new IdentifierNode("foo"), arguments, true);
+        assertEquals("A", method.declaredClass().name().value());
+        assertEquals(new ReferenceNode("Integer"), method.parameters().pars().get(0).type());
+
+        int size = context.methodTable().size();
+        assertTrue(size > 0);
+
+        assertSame(method, b.findMatchingMethod(context, new IdentifierNode("foo"), arguments, true));
+        assertEquals(size, context.methodTable().size());
+
+        MethodTable.CallSite callSite = new MethodTable.CallSite(
+                b.name().asReference(), new IdentifierNode("foo"), List.of(new ReferenceNode("Integer")));
+        assertSame(method, context.methodTable().resolve(callSite, () -> null));
+
+        assertNull(b.findMatchingMethod(context, new IdentifierNode("foo"),
+                new ArgumentsNode(List.of(new ExpressionNode(new ReferenceNode("B"), List.of(
+                        new ExpressionNode.IdArg(new IdentifierNode("<init>"), new ArgumentsNode(List.of())))))),
+                true));
+    }
+
+    private static AnalyzeContext context() {
+        ProgramNode programNode = ProgramNode.PARSER.parse(TokenStream.tokenize(CODE));
+        AnalyzeContext context = Analyzer.createContext(Path.of("."), programNode);
+        assertEquals(List.of(), programNode.analyze(context).exceptions());
+        return context;
+    }
+}
@@ -0,0 +1,82 @@
+package ru.team.compiler.test.analyzer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+import ru.team.compiler.analyzer.AnalyzeContext;
+import ru.team.compiler.analyzer.Analyzer;
+import ru.team.compiler.analyzer.ScopedSymbolTable;
+import ru.team.compiler.token.TokenStream;
+import ru.team.compiler.tree.node.clas.ProgramNode;
+
+import java.nio.file.Path;
+import java.util.List;
+
+public class ParallelAnalysisTest {
+
+    @Test
+    void sameDiagnostics() {
+        ProgramNode programNode = ProgramNode.PARSER.parse(TokenStream.tokenize(code(40)));
+
+        List<String> expected = analyze(programNode, false, false);
+        assertTrue(expected.size() > 100);
+        assertEquals("Constructor 'C0()' does not define field this.x", expected.get(0));
+
+        for (int i = 0; i < 10; i++) {
+            assertEquals(expected, analyze(programNode, true, false));
+            assertEquals(expected, analyze(programNode, true, true));
+        }
+    }
+
+    @NotNull
+    private static String code(int classes) {
+        StringBuilder code = new StringBuilder("""
+                class abstract Base is
+                  method abstract run(a: Integer): Integer;
+                end
+                """);
+
+        for (int i = 0; i < classes; i++) {
+            code.append("""
+                    class C%1$d extends %2$s is
+                      var x: Integer;
+
+                      this() is
+                        this.y := 1;
+                      end
+
+                      method foo(a: Integer) is
+                        unknown%1$d := a;
+                        var b: Integer;
+                        a := b;
+                      end
+
+                      method bar(): Integer is
+                        if true then
+                          return 1;
+                        end
+                      end
+
+                      method baz(a: Unknown%1$d) is
+                      end
+                    end
+                    """.formatted(i, i % 3 == 0 ? "Base" : "Any"));
+        }
+
+        return code.toString();
+    }
+
+    @NotNull
+    private static List<String> analyze(@NotNull ProgramNode programNode, boolean parallel, boolean scoped) {
+        AnalyzeContext context = Analyzer.createContext(Path.of("."), programNode);
+        if (scoped) {
+            context = context.withSymbols(new ScopedSymbolTable());
+        }
+
+        return programNode.analyze(context, parallel).exceptions().stream()
+                .map(Exception::getMessage)
+                .toList();
+    }
+}
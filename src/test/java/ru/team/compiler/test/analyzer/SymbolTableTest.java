@@ -0,0 +1,204 @@
+package ru.team.compiler.test.analyzer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+import ru.team.compiler.analyzer.AnalyzableVariable;
+import ru.team.compiler.analyzer.AnalyzeContext;
+import ru.team.compiler.analyzer.Analyzer;
+import ru.team.compiler.analyzer.ScopedSymbolTable;
+import ru.team.compiler.analyzer.SymbolTable;
+import ru.team.compiler.token.TokenStream;
+import ru.team.compiler.tree.node.clas.ProgramNode;
+import ru.team.compiler.tree.node.expression.IdentifierNode;
+import ru.team.compiler.tree.node.primary.ReferenceNode;
+
+import java.nio.file.Path;
+import java.util.List;
+
+public class SymbolTableTest {
+
+    private static final String VALID = """
+            class A is
+              var x: Integer;
+              var y: Integer;
+
+              this(b: Boolean) is
+                if b then
+                  this.x := 1;
+                  this.y := 2;
+                else
+                  this.x := 3;
+                  this.y := this.x;
+                end
+              end
+
+              method foo(a: Integer): Integer is
+                var b: Integer;
+                if a.greater(0) then
+                  b := a;
+                else
+                  var c: Integer;
+                  c := a.add(1);
+                  b := c;
+                end
+
+                while b.greater(0) loop
+                  var c: Integer;
+                  c := b;
+                  b := c.subtract(1);
+                end
+
+                return b;
+              end
+            end
+            """;
+
+    private static final String INVALID = """
+            class A is
+              var x: Integer;
+              var y: Integer;
+              var z: Integer;
+
+              this() is
+                this.x := 1;
+              end
+
+              this(a: Integer) is
+                this.x := a;
+                this.y := this.z;
+                this.w := a;
+                this.v := a;
+                this.z := 1;
+              end
+
+              this(b: Boolean) is
+                if b then
+                  this.x := 1;
+                  this.y := 1;
+                  this.z := 1;
+                end
+              end
+
+              method foo(a: Integer, a: Integer) is
+              end
+
+              method bar(a: Integer, b: Unknown) is
+                var c: Integer;
+                var c: Integer;
+                a := c;
+              end
+
+              method baz(a: Boolean): Integer is
+                var b: Integer;
+                if a then
+                  b := 1;
+                  var c: Integer;
+                  c := b;
+                else
+                  var c: Integer;
+                  b := c;
+                end
+
+                var c: Integer;
+                var d: Integer;
+                if a then
+                  d := c;
+                end
+
+                d := c.add(b);
+
+                e := 1;
+                var e: Integer;
+                var f: Integer;
+                f := e.add(d);
+
+                while a loop
+                  g := 1;
+                  var g: Integer;
+                end
+
+                var g: Integer;
+                return g.add(f);
+              end
+            end
+            """;
+
+    @Test
+    void validProgram() {
+        assertEquals(List.of(), analyze(VALID, false));
+        assertEquals(List.of(), analyze(VALID, true));
+    }
+
+    @Test
+    void sameDiagnostics() {
+        List<String> expected = analyze(INVALID, false);
+        assertFalse(expected.isEmpty());
+
+        assertEquals(expected, analyze(INVALID, true));
+    }
+
+    @Test
+    void undefinedFields() {
+        String code = """
+                class A is
+                  var x: Integer;
+                  var ab: Integer;
+                  var z: Integer;
+                  var y: Integer;
+
+                  this() is
+                    this.z := 1;
+                  end
+                end
+                """;
+
+        List<String> expected = List.of("Constructor 'A()' does not define fields this.x,this.y,this.ab");
+        assertEquals(expected, analyze(code, false));
+        assertEquals(expected, analyze(code, true));
+    }
+
+    @Test
+    void scopes() {
+        ReferenceNode a = new ReferenceNode("a");
+        ReferenceNode b = new ReferenceNode("b");
+
+        SymbolTable symbols = new ScopedSymbolTable()
+                .declareVariable(new AnalyzableVariable(new IdentifierNode("a"), new ReferenceNode("Integer")), false)
+                .enterScope()
+                .declareVariable(new AnalyzableVariable(new IdentifierNode("b"), new ReferenceNode("Integer")), false)
+                .initializeVariable(a)
+                .initializeVariable(b);
+
+        assertTrue(symbols.isVariableInitialized(a));
+        assertTrue(symbols.isVariableInitialized(b));
+
+        symbols = symbols.exitScope(symbols);
+
+        assertTrue(symbols.isVariableInitialized(a));
+        assertFalse(symbols.isVariableInitialized(b));
+        assertEquals(List.of(a), List.copyOf(symbols.variables().keySet()));
+
+        symbols = symbols.enterBranch().initializeField(b);
+        symbols = symbols.exitBranches(symbols, null);
+
+        assertFalse(symbols.isFieldInitialized(b));
+    }
+
+    @NotNull
+    private static List<String> analyze(@NotNull String code, boolean scoped) {
+        ProgramNode programNode = ProgramNode.PARSER.parse(TokenStream.tokenize(code));
+
+        AnalyzeContext context = Analyzer.createContext(Path.of("."), programNode);
+        if (scoped) {
+            context = context.withSymbols(new ScopedSymbolTable());
+        }
+
+        return programNode.analyze(context).exceptions().stream()
+                .map(Exception::getMessage)
+                .toList();
+    }
+}
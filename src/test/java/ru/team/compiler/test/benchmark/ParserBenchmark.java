@@ -0,0 +1,93 @@
+package ru.team.compiler.test.benchmark;
+
+import org.jetbrains.annotations.NotNull;
+import ru.team.compiler.exception.NodeFormatException;
+import ru.team.compiler.token.TokenIterator;
+import ru.team.compiler.token.TokenStream;
+import ru.team.compiler.token.TokenType;
+import ru.team.compiler.tree.node.TreeNodeParser;
+import ru.team.compiler.tree.node.statement.AssignmentNode;
+import ru.team.compiler.tree.node.statement.MethodCallNode;
+import ru.team.compiler.tree.node.statement.StatementNode;
+
+import java.util.Random;
+
+public final class ParserBenchmark {
+
+    // The previous strategy: try an assignment and re-parse as a method call on failure
+    private static final TreeNodeParser<StatementNode> BACKTRACKING_PARSER = new TreeNodeParser<>() {
+        @Override
+        @NotNull
+        public StatementNode parse(@NotNull TokenIterator iterator) {
+            int index = iterator.index();
+
+            try {
+                return AssignmentNode.PARSER.parse(iterator);
+            } catch (NodeFormatException e) {
+                iterator.index(index);
+                return MethodCallNode.PARSER.parse(iterator);
+            }
+        }
+    };
+
+    private ParserBenchmark() {
+
+    }
+
+    public static void main(String[] args) {
+        int statements = args.length > 0 ? Integer.parseInt(args[0]) : 20_000;
+        int iterations = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+
+        TokenStream tokens = TokenStream.tokenize(callHeavyBody(statements, new Random(12345)));
+        System.out.printf("Body: %d statements, %d tokens%n", statements, tokens.size());
+
+        for (int i = 0; i < iterations / 2; i++) {
+            parse(tokens, StatementNode.PARSER);
+            parse(tokens, BACKTRACKING_PARSER);
+        }
+
+        System.out.printf("Backtracking: %8.2f ms/op%n", measure(tokens, BACKTRACKING_PARSER, iterations));
+        System.out.printf("Predictive:   %8.2f ms/op%n", measure(tokens, StatementNode.PARSER, iterations));
+    }
+
+    private static double measure(@NotNull TokenStream tokens, @NotNull TreeNodeParser<StatementNode> parser,
+                                  int iterations) {
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            parse(tokens, parser);
+        }
+
+        return (System.nanoTime() - start) / 1_000_000.0 / iterations;
+    }
+
+    private static int parse(@NotNull TokenStream tokens, @NotNull TreeNodeParser<StatementNode> parser) {
+        TokenIterator iterator = new TokenIterator(tokens);
+
+        int count = 0;
+        while (iterator.hasNext()) {
+            parser.parse(iterator);
+            iterator.next(TokenType.SEMICOLON);
+            count++;
+        }
+
+        return count;
+    }
+
+    @NotNull
+    private static String callHeavyBody(int statements, @NotNull Random random) {
+        StringBuilder stringBuilder = new StringBuilder();
+
+        for (int i = 0; i < statements; i++) {
+            switch (random.nextInt(4)) {
+                case 0 -> stringBuilder.append("x := a.add(b.multiply(2)).subtract(c)");
+                case 1 -> stringBuilder.append("console.println(list.get(i).toString())");
+                case 2 -> stringBuilder.append("this.next.visit(this, node.left(), node.right())");
+                default -> stringBuilder.append("result.append(Integer(").append(i).append(").toReal())");
+            }
+
+            stringBuilder.append(";\n");
+        }
+
+        return stringBuilder.toString();
+    }
+}
@@ -0,0 +1,339 @@
+package ru.team.compiler.test.compiler;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import ru.team.compiler.analyzer.AnalyzeContext;
+import ru.team.compiler.analyzer.Analyzer;
+import ru.team.compiler.compiler.ClassFile;
+import ru.team.compiler.compiler.CompilationContext;
+import ru.team.compiler.token.TokenStream;
+import ru.team.compiler.tree.node.clas.ClassNode;
+import ru.team.compiler.tree.node.clas.ProgramNode;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class ClassFileTest {
+
+    private static final String CODE = """
+            class A is
+              var value: Integer;
+
+              this(value: Integer) is
+                this.value := value;
+              end
+
+              method get(): Integer is
+                return this.value;
+              end
+
+              method get(other: A): Integer is
+                return other.get().add(this.value);
+              end
+            end
+
+            class B extends A is
+              this() is
+                super(1);
+              end
+
+              method sum(count: Integer): Integer is
+                var i: Integer;
+                var result: Integer;
+                var a: A;
+                i := 0;
+                result := 0;
+                a := this;
+                while i.lower(count) loop
+                  if a.instanceof[B] then
+                    result := result.add(a[B].get(A(i)));
+                  end
+                  i := i.add(1);
+                end
+                return result.add(super.get());
+              end
+            end
+            """;
+
+    @Test
+    void attributedTreeCompilesLikeFreshTree() throws IOException {
+        ProgramNode analyzedNode = parse();
+        AnalyzeContext context = Analyzer.createContext(Path.of("."), analyzedNode);
+        assertEquals(List.of(), analyzedNode.analyze(context).exceptions());
+
+        // Nodes that were never analyzed are attributed by compile itself
+        ProgramNode freshNode = parse();
+
+        for (int i = 0; i < analyzedNode.classes().size(); i++) {
+            assertArrayEquals(compile(context, freshNode.classes().get(i)),
+                    compile(context, analyzedNode.classes().get(i)));
+        }
+    }
+
+    @Test
+    void unboxedArithmetic() throws Exception {
+        Object result = run("""
+                class Program is
+                  method run(): Real is
+                    var i: Integer;
+                    var sum: Integer;
+                    var half: Boolean;
+                    i := 0;
+                    sum := 0;
+                    while i.lower(10) loop
+                      half := i.greaterOrEqual(5);
+                      if half.not() then
+                        sum := sum.add(i.multiply(i));
+                      end
+                      i := i.add(1);
+                    end
+                    return sum.toReal().divide(2.0);
+                  end
+                end
+                """);
+
+        assertEquals(15.0f, ((olang.Real) result).java$value());
+    }
+
+    @Test
+    void unboxedComparisonsWithNaN() throws Exception {
+        Object result = run("""
+                class Program is
+                  method run(): Boolean is
+                    var zero: Real;
+                    var nan: Real;
+                    zero := 0.0;
+                    nan := zero.divide(zero);
+                    return nan.lower(1.0).or(nan.greaterOrEqual(1.0)).or(nan.equal(nan));
+                  end
+                end
+                """);
+
+        assertFalse(((olang.Boolean) result).java$value());
+    }
+
+    @Test
+    void branchesOnConditions() throws Exception {
+        Object result = run("""
+                class Program is
+                  var calls: Integer;
+
+                  this() is
+                    this.calls := 0;
+                  end
+
+                  method count(value: Boolean): Boolean is
+                    this.calls := this.calls.add(1);
+                    return value;
+                  end
+
+                  method run(): Integer is
+                    var i: Integer;
+                    var hits: Integer;
+                    i := 0;
+                    hits := 0;
+                    while i.lower(10).and(hits.lower(100)) loop
+                      if i.greater(2).and(i.lower(7).not()).or(i.equal(0)) then
+                        hits := hits.add(1);
+                      end
+                      if i.greater(100).and(this.count(true)) then
+                        hits := hits.add(100);
+                      end
+                      i := i.add(1);
+                    end
+                    return hits.multiply(100).add(this.calls);
+                  end
+                end
+                """);
+
+        // A right operand with effects is still evaluated on every iteration
+        assertEquals(410, ((olang.Integer) result).java$value());
+    }
+
+    @Test
+    void verifiedFrames() throws Exception {
+        Object result = run("""
+                class A is
+                  var value: Integer;
+
+                  this(value: Integer) is
+                    this.value := value;
+                  end
+
+                  method get(): Integer is
+                    return this.value;
+                  end
+                end
+
+                class B extends A is
+                  this(flag: Boolean) is
+                    super(A(flag.and(flag.not()).not()[Any].hash()).get());
+                  end
+                end
+
+                class Program is
+                  method pick(flag: Boolean): A is
+                    if flag then
+                      return B(flag);
+                    else
+                      return A(2);
+                    end
+                  end
+
+                  method run(): Integer is
+                    var a: A;
+                    var i: Integer;
+                    a := B(true);
+                    i := 0;
+                    while i.lower(3) loop
+                      a := this.pick(i.equal(1));
+                      i := i.add(1);
+                    end
+                    return a.get();
+                  end
+                end
+                """);
+
+        assertEquals(2, ((olang.Integer) result).java$value());
+    }
+
+    @Test
+    void wideJumps() throws Exception {
+        // Every assignment is 4 bytes of code, so the then body and the loop span more than 32 KB
+        Object result = run("""
+                class Program is
+                  method run(): Integer is
+                    var i: Integer;
+                    var x: Integer;
+                    i := 0;
+                    x := 0;
+                    while i.lower(3) loop
+                      if i.equal(1) then
+                %s
+                      else
+                        x := x.add(2);
+                      end
+                      i := i.add(1);
+                    end
+                    return x;
+                  end
+                end
+                """.formatted("x := x.add(1);\n".repeat(9000)));
+
+        assertEquals(9004, ((olang.Integer) result).java$value());
+    }
+
+    @Test
+    void extendedIntegerStaysBoxed() throws Exception {
+        Object result = run("""
+                class MyInteger extends Integer is
+                  method add(other: Integer): Integer is
+                    return 42;
+                  end
+                end
+
+                class Program is
+                  method run(): Integer is
+                    var i: Integer;
+                    i := MyInteger();
+                    return i.add(1);
+                  end
+                end
+                """);
+
+        assertEquals(42, ((olang.Integer) result).java$value());
+    }
+
+    @Test
+    void subclassFromIncludingFile(@TempDir Path directory) throws Exception {
+        String library = """
+                class Library is
+                  method sum(a: Integer, b: Integer): Integer is
+                    var c: Integer;
+                    c := a;
+                    return c.add(b);
+                  end
+                end
+                """;
+        Files.writeString(directory.resolve("library.olang"), library);
+
+        // The library is compiled on its own, without the subclass passed to it later
+        Map<String, byte[]> classes = new HashMap<>();
+        compile(directory, library, classes);
+        compile(directory, """
+                include library;
+
+                class MyInteger extends Integer is
+                  method add(other: Integer): Integer is
+                    return 42;
+                  end
+                end
+
+                class Program is
+                  method run(): Integer is
+                    return Library().sum(MyInteger(), 1);
+                  end
+                end
+                """, classes);
+
+        assertEquals(42, ((olang.Integer) run(classes)).java$value());
+    }
+
+    // Compiles the code and calls run() on a new Program
+    private static Object run(String code) throws Exception {
+        Map<String, byte[]> classes = new HashMap<>();
+        compile(Path.of("."), code, classes);
+        return run(classes);
+    }
+
+    private static Object run(Map<String, byte[]> classes) throws Exception {
+        ClassLoader classLoader = new ClassLoader(ClassFileTest.class.getClassLoader()) {
+            @Override
+            protected Class<?> findClass(String name) throws ClassNotFoundException {
+                byte[] bytes = classes.get(name);
+                if (bytes == null) {
+                    throw new ClassNotFoundException(name);
+                }
+
+                return defineClass(name, bytes, 0, bytes.length);
+            }
+        };
+
+        Class<?> programClass = classLoader.loadClass("olang.Program");
+        return programClass.getMethod("run").invoke(programClass.getConstructor().newInstance());
+    }
+
+    // Only the classes declared by the code are compiled, not the included ones
+    private static void compile(Path directory, String code, Map<String, byte[]> classes) throws IOException {
+        ProgramNode programNode = ProgramNode.PARSER.parse(TokenStream.tokenize(code));
+        AnalyzeContext context = Analyzer.createContext(directory, programNode);
+        assertEquals(List.of(), programNode.analyze(context).exceptions());
+
+        for (ClassNode classNode : programNode.classes()) {
+            classes.put("olang." + classNode.name().value(), compile(context, classNode));
+        }
+    }
+
+    private static byte[] compile(AnalyzeContext context, ClassNode classNode) throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        try (DataOutputStream dataOutputStream = new DataOutputStream(outputStream)) {
+            ClassFile.fromNode(context, classNode).compile(new CompilationContext(context), dataOutputStream);
+        }
+
+        return outputStream.toByteArray();
+    }
+
+    private static ProgramNode parse() {
+        return ProgramNode.PARSER.parse(TokenStream.tokenize(CODE));
+    }
+}
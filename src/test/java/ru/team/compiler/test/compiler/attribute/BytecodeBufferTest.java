@@ -0,0 +1,92 @@
+package ru.team.compiler.test.compiler.attribute;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+import ru.team.compiler.compiler.attribute.BytecodeBuffer;
+import ru.team.compiler.util.Opcodes;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+public class BytecodeBufferTest {
+
+    @Test
+    void labels() throws IOException {
+        BytecodeBuffer buffer = new BytecodeBuffer(1);
+        BytecodeBuffer.Label start = buffer.newLabel();
+        BytecodeBuffer.Label end = buffer.newLabel();
+
+        buffer.mark(start);
+        buffer.writeByte(Opcodes.ICONST_1);
+        buffer.jump(Opcodes.IFEQ, end);
+        buffer.jump(Opcodes.GOTO, start);
+        buffer.jump(Opcodes.GOTO, end);
+        buffer.mark(end);
+        buffer.writeByte(Opcodes.RETURN);
+
+        assertArrayEquals(new byte[] {
+                (byte) Opcodes.ICONST_1,
+                (byte) Opcodes.IFEQ, 0, 9,
+                (byte) Opcodes.GOTO, (byte) 0xFF, (byte) 0xFC,
+                (byte) Opcodes.GOTO, 0, 3,
+                (byte) Opcodes.RETURN}, buffer.toByteArray());
+
+        assertThrows(IllegalStateException.class, () -> buffer.mark(end));
+    }
+
+    @Test
+    void relaxation() {
+        BytecodeBuffer buffer = new BytecodeBuffer();
+        BytecodeBuffer.Label start = buffer.newLabel();
+        BytecodeBuffer.Label end = buffer.newLabel();
+
+        buffer.mark(start);
+        buffer.jump(Opcodes.IFEQ, end);
+        buffer.jump(Opcodes.GOTO, start);
+        buffer.write(new byte[40000]);
+        buffer.jump(Opcodes.GOTO, start);
+        buffer.mark(end);
+
+        ByteBuffer code = ByteBuffer.wrap(buffer.toByteArray());
+        assertEquals(40016, code.limit());
+
+        // ifne (#next); goto_w (#end); next:
+        assertEquals((byte) Opcodes.IFNE, code.get(0));
+        assertEquals(8, code.getShort(1));
+        assertEquals((byte) Opcodes.GOTO_W, code.get(3));
+        assertEquals(40013, code.getInt(4));
+
+        // Stays short, but its offset covers the widened jump
+        assertEquals((byte) Opcodes.GOTO, code.get(8));
+        assertEquals(-8, code.getShort(9));
+
+        assertEquals((byte) Opcodes.GOTO_W, code.get(40011));
+        assertEquals(-40011, code.getInt(40012));
+    }
+
+    @Test
+    void sameAsDataOutputStream() throws IOException {
+        ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+        DataOutputStream dataOutputStream = new DataOutputStream(byteArrayOutputStream);
+        BytecodeBuffer buffer = new BytecodeBuffer(1);
+
+        dataOutputStream.writeInt(0xCAFEBABE);
+        buffer.writeInt(0xCAFEBABE);
+        dataOutputStream.writeShort(-2);
+        buffer.writeShort(-2);
+        dataOutputStream.writeLong(Long.MIN_VALUE + 7);
+        buffer.writeLong(Long.MIN_VALUE + 7);
+        dataOutputStream.writeFloat(1.5f);
+        buffer.writeFloat(1.5f);
+        dataOutputStream.writeUTF("olang/Integer \0 ф 𝄞");
+        buffer.writeUTF("olang/Integer \0 ф 𝄞");
+
+        assertArrayEquals(byteArrayOutputStream.toByteArray(), buffer.toByteArray());
+        assertEquals(byteArrayOutputStream.size(), buffer.size());
+    }
+}
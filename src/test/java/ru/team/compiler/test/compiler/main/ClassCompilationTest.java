@@ -0,0 +1,127 @@
+package ru.team.compiler.test.compiler.main;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import ru.team.compiler.compiler.main.ClassCompilation;
+import ru.team.compiler.compiler.main.CompilationIndex;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+public class ClassCompilationTest {
+
+    private static final FileTime OLD_TIME = FileTime.fromMillis(0);
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void incrementalCompilation() throws IOException {
+        Path path = directory.resolve("program.olang");
+        Path outputPath = directory.resolve("out");
+
+        Files.writeString(directory.resolve("b.olang"), """
+                class B is
+                  method get(): Integer is
+                    return 1;
+                  end
+                end
+                """);
+        Files.writeString(path, """
+                include b;
+                class A is
+                  method get(b: B): Integer is
+                    return b.get();
+                  end
+                end
+                class C is
+                end
+                """);
+
+        compile(path);
+        assertTrue(Files.exists(CompilationIndex.indexPath(outputPath)));
+        byte[] a = Files.readAllBytes(outputPath.resolve("A.class"));
+
+        // Nothing changed, nothing is written
+        touchOld(outputPath);
+        compile(path);
+        assertEquals(OLD_TIME, Files.getLastModifiedTime(outputPath.resolve("A.class")));
+        assertEquals(OLD_TIME, Files.getLastModifiedTime(outputPath.resolve("C.class")));
+
+        // The body of B changed but not its signature
+        Files.writeString(directory.resolve("b.olang"), """
+                class B is
+                  method get(): Integer is
+                    return 2;
+                  end
+                end
+                """);
+        compile(path);
+        assertEquals(OLD_TIME, Files.getLastModifiedTime(outputPath.resolve("A.class")));
+
+        // The signature of B changed, so A is emitted again even though its bytes are the same
+        Files.writeString(directory.resolve("b.olang"), """
+                class B is
+                  var x: Integer;
+                  method get(): Integer is
+                    return 2;
+                  end
+                end
+                """);
+        compile(path);
+        assertNotEquals(OLD_TIME, Files.getLastModifiedTime(outputPath.resolve("A.class")));
+        assertEquals(OLD_TIME, Files.getLastModifiedTime(outputPath.resolve("C.class")));
+        assertArrayEquals(a, Files.readAllBytes(outputPath.resolve("A.class")));
+
+        // A class file overwritten by someone else is emitted again
+        Files.write(outputPath.resolve("C.class"), new byte[0]);
+        compile(path);
+        assertNotEquals(0, Files.size(outputPath.resolve("C.class")));
+    }
+
+    @Test
+    void otherCompilerVersion() throws IOException {
+        Path path = directory.resolve("program.olang");
+        Path outputPath = directory.resolve("out");
+        Path indexPath = CompilationIndex.indexPath(outputPath);
+
+        Files.writeString(path, """
+                class A is
+                end
+                """);
+
+        compile(path);
+        touchOld(outputPath);
+
+        // Written by an older code generator
+        List<String> lines = new ArrayList<>(Files.readAllLines(indexPath));
+        lines.set(0, "olang-index 1");
+        Files.write(indexPath, lines);
+
+        compile(path);
+        assertNotEquals(OLD_TIME, Files.getLastModifiedTime(outputPath.resolve("A.class")));
+        assertNotEquals("olang-index 1", Files.readAllLines(indexPath).get(0));
+    }
+
+    private static void compile(Path path) {
+        ClassCompilation.compile(path, Set.of("-incremental"));
+    }
+
+    private static void touchOld(Path outputPath) throws IOException {
+        try (var stream = Files.list(outputPath)) {
+            for (Path classPath : stream.toList()) {
+                Files.setLastModifiedTime(classPath, OLD_TIME);
+            }
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package ru.team.compiler.test.compiler.main;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import ru.team.compiler.compiler.main.CompilationWatcher;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+public class CompilationWatcherTest {
+
+    private static final FileTime OLD_TIME = FileTime.fromMillis(0);
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void recompilesOnChange() throws Exception {
+        Path path = directory.resolve("program.olang");
+        Path outputPath = directory.resolve("out");
+        Files.writeString(directory.resolve("b.olang"), "class B is end");
+        Files.writeString(path, "include b; class A is end");
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        PrintStream printStream = new PrintStream(out, true, StandardCharsets.UTF_8);
+
+        CompilationWatcher watcher = CompilationWatcher.open(path, Set.of(), printStream, printStream);
+        CompletableFuture<Void> future = CompletableFuture.runAsync(() -> {
+            try {
+                watcher.run();
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        });
+
+        try {
+            await(() -> Files.exists(outputPath.resolve("A.class")));
+            Files.setLastModifiedTime(outputPath.resolve("A.class"), OLD_TIME);
+
+            Files.writeString(path, "include b; class A is end class C extends B is end");
+            await(() -> Files.exists(outputPath.resolve("C.class")));
+            assertEquals(OLD_TIME, Files.getLastModifiedTime(outputPath.resolve("A.class")));
+
+            // C depends on the signature of the included B
+            Files.setLastModifiedTime(outputPath.resolve("C.class"), OLD_TIME);
+            Files.writeString(directory.resolve("b.olang"), "class B is var x: Integer; end");
+            await(() -> !Files.getLastModifiedTime(outputPath.resolve("C.class")).equals(OLD_TIME));
+            assertEquals(OLD_TIME, Files.getLastModifiedTime(outputPath.resolve("A.class")));
+        } finally {
+            watcher.close();
+        }
+
+        future.get(10, TimeUnit.SECONDS);
+        assertTrue(out.toString(StandardCharsets.UTF_8).startsWith("[WATCH] " + path + " | Compiled in "));
+    }
+
+    private static void await(Check check) throws Exception {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(20);
+        while (!check.test()) {
+            assertTrue(System.nanoTime() < deadline, "Timed out");
+            Thread.sleep(20);
+        }
+    }
+
+    private interface Check {
+
+        boolean test() throws IOException;
+    }
+}
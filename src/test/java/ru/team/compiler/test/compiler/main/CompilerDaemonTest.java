@@ -0,0 +1,73 @@
+package ru.team.compiler.test.compiler.main;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import ru.team.compiler.compiler.main.CompilerClient;
+import ru.team.compiler.compiler.main.CompilerDaemon;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+public class CompilerDaemonTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void compileThroughDaemon() throws Exception {
+        Path socketPath = directory.resolve("olang.sock");
+        CompletableFuture<Void> daemon = CompletableFuture.runAsync(() -> {
+            try {
+                CompilerDaemon.serve(socketPath);
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        });
+
+        while (!Files.exists(socketPath)) {
+            assertFalse(daemon.isDone());
+            Thread.sleep(10);
+        }
+
+        Path path = directory.resolve("program.olang");
+        Files.writeString(path, "class A is end");
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ByteArrayOutputStream err = new ByteArrayOutputStream();
+        assertEquals(0, send(socketPath, List.of(path.toString()), out, err));
+        assertEquals("", err.toString(StandardCharsets.UTF_8));
+        assertTrue(Files.exists(directory.resolve("out").resolve("A.class")));
+
+        Files.writeString(path, "class A extends B is end");
+        assertEquals(1, send(socketPath, List.of("-incremental", path.toString()), out, err));
+        assertTrue(err.toString(StandardCharsets.UTF_8).startsWith("[ERROR] " + path + " | Failed on semantic analysis"));
+        assertTrue(out.toString(StandardCharsets.UTF_8).contains("B"));
+
+        // Fails before the compilation starts, the daemon still answers
+        assertEquals(1, send(socketPath, List.of("a\0.olang"), out, err));
+        assertTrue(err.toString(StandardCharsets.UTF_8).startsWith("[ERROR] a\0.olang | Failed on request: "));
+
+        assertEquals(0, send(socketPath, List.of(CompilerDaemon.STOP), out, err));
+        daemon.get(10, TimeUnit.SECONDS);
+        assertFalse(Files.exists(socketPath));
+    }
+
+    private static int send(Path socketPath, List<String> arguments, ByteArrayOutputStream out,
+                            ByteArrayOutputStream err) {
+        out.reset();
+        err.reset();
+        return CompilerClient.send(socketPath, arguments,
+                new PrintStream(out, true, StandardCharsets.UTF_8), new PrintStream(err, true, StandardCharsets.UTF_8));
+    }
+}
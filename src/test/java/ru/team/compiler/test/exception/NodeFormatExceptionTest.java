@@ -0,0 +1,42 @@
+package ru.team.compiler.test.exception;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+import ru.team.compiler.exception.NodeFormatException;
+import ru.team.compiler.exception.SyntaxException;
+import ru.team.compiler.token.Token;
+import ru.team.compiler.token.TokenStream;
+import ru.team.compiler.token.TokenType;
+import ru.team.compiler.tree.node.clas.ProgramNode;
+
+public class NodeFormatExceptionTest {
+
+    @Test
+    void message() {
+        NodeFormatException exception = new NodeFormatException("colon", new Token(TokenType.IDENTIFIER, "a", 2, 8));
+        assertEquals("(at line: 2, column: 8) Expected: colon | Actual: identifier", exception.getMessage());
+
+        exception = new NodeFormatException("end", NodeFormatException.END_OF_STRING, null);
+        assertEquals("(at line: -1, column: -1) Expected: end | Actual: end of string", exception.getMessage());
+    }
+
+    @Test
+    void stackless() {
+        NodeFormatException exception = new NodeFormatException("method call", "field reference", 1, 0);
+        assertEquals(0, exception.getStackTrace().length);
+    }
+
+    @Test
+    void syntaxError() {
+        SyntaxException exception = assertThrows(SyntaxException.class,
+                () -> ProgramNode.PARSER.parse(TokenStream.tokenize("class A is this( end")));
+
+        assertInstanceOf(NodeFormatException.class, exception.getCause());
+        assertEquals(exception.getCause().getMessage(), exception.getMessage());
+        assertNotEquals(0, exception.getStackTrace().length);
+    }
+}
@@ -0,0 +1,71 @@
+package ru.team.compiler.test.token;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+import ru.team.compiler.token.BufferTokenizer;
+import ru.team.compiler.token.Token;
+import ru.team.compiler.token.Tokenizer;
+
+import java.util.List;
+import java.util.Random;
+
+public class BufferTokenizerTest {
+
+    @Test
+    void edgeCases() {
+        List<String> strings = List.of(
+                "a := b.c(1, 2.5)[Integer];",
+                "12.ab 1.2a 1.2.3 1. 1.) 1a 1a.5 1a.b",
+                "x // comment\r\ny//\n\n  z/w a/ 1.//c\n",
+                "\ta\r b\u000Bc :\n= :: := ::=",
+                "var x : Integer is end class A extends B",
+                "true false truefalse _under 1_000",
+                "٣١ ٣.١x привет   a",
+                "abc= = // //\n//",
+                ""
+        );
+
+        for (String string : strings) {
+            test(string);
+        }
+    }
+
+    @Test
+    void randomCode() {
+        Random random = new Random(12345);
+        String alphabet = " \t\n\r\n./:=;,()[]aZ_09x=٣й";
+
+        for (int i = 0; i < 2000; i++) {
+            StringBuilder codeBuilder = new StringBuilder();
+
+            int length = random.nextInt(1, 40);
+            for (int j = 0; j < length; j++) {
+                codeBuilder.append(alphabet.charAt(random.nextInt(alphabet.length())));
+            }
+
+            test(codeBuilder.toString());
+        }
+    }
+
+    private void test(@NotNull String string) {
+        Tokenizer tokenizer = new Tokenizer(string);
+        BufferTokenizer bufferTokenizer = new BufferTokenizer(string);
+
+        while (tokenizer.hasNext()) {
+            Token expected = tokenizer.next();
+
+            assertTrue(bufferTokenizer.hasNext(), () -> "Missing " + expected + " in: " + string);
+
+            Token actual = bufferTokenizer.next();
+            assertEquals(expected, actual, () -> "Failed: " + string);
+            assertEquals(expected.line(), actual.line(), () -> "Line of " + expected + " in: " + string);
+            assertEquals(expected.column(), actual.column(), () -> "Column of " + expected + " in: " + string);
+        }
+
+        assertFalse(bufferTokenizer.hasNext(), () -> "Failed: " + string);
+    }
+}
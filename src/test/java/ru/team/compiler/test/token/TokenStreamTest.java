@@ -0,0 +1,90 @@
+package ru.team.compiler.test.token;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+import ru.team.compiler.exception.NodeFormatException;
+import ru.team.compiler.token.Token;
+import ru.team.compiler.token.TokenIterator;
+import ru.team.compiler.token.TokenStream;
+import ru.team.compiler.token.TokenType;
+import ru.team.compiler.token.Tokenizer;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class TokenStreamTest {
+
+    private static final String CODE = """
+            class Program is // entry point
+              var x: Integer;
+              this() is x := Integer(1.5.toInteger()) end
+            end
+            """;
+
+    @Test
+    void tokenize() {
+        List<Token> expectedTokens = new ArrayList<>();
+        Tokenizer tokenizer = new Tokenizer(CODE);
+        while (tokenizer.hasNext()) {
+            expectedTokens.add(tokenizer.next());
+        }
+
+        TokenStream stream = TokenStream.tokenize(CODE);
+        assertEquals(expectedTokens.size(), stream.size());
+
+        for (int i = 0; i < stream.size(); i++) {
+            Token expected = expectedTokens.get(i);
+
+            assertEquals(expected.type(), stream.type(i));
+            assertEquals(expected.value(), stream.value(i));
+            assertEquals(expected.line(), stream.line(i));
+            assertEquals(expected.column(), stream.column(i));
+        }
+
+        assertEquals(expectedTokens, stream.asList());
+
+        // Tokens are created once
+        assertSame(stream.token(1), stream.token(1));
+    }
+
+    @Test
+    void listAdapter() {
+        List<Token> tokens = List.of(
+                new Token(TokenType.IDENTIFIER, "a", 1, 0),
+                new Token(TokenType.ASSIGNMENT_OPERATOR, ":=", 1, 2),
+                new Token(TokenType.REAL_LITERAL, "1.5", 2, 4)
+        );
+
+        TokenStream stream = TokenStream.of(tokens);
+        assertEquals(tokens, stream.asList());
+        assertEquals(2, stream.line(2));
+        assertEquals(4, stream.column(2));
+
+        assertSame(stream, TokenStream.of(stream.asList()));
+
+        // The list is wrapped, not copied
+        assertSame(tokens.get(1), stream.token(1));
+
+        TokenIterator iterator = new TokenIterator(tokens);
+        iterator.next();
+        assertSame(tokens.get(1), iterator.next());
+    }
+
+    @Test
+    void iterator() {
+        TokenIterator iterator = new TokenIterator(TokenStream.tokenize("a := b"));
+
+        assertEquals(TokenType.IDENTIFIER, iterator.lookupType());
+        assertEquals("a", iterator.next(TokenType.IDENTIFIER).value());
+        assertTrue(iterator.previous(TokenType.IDENTIFIER));
+        assertTrue(iterator.consume(TokenType.ASSIGNMENT_OPERATOR));
+        assertThrows(NodeFormatException.class, () -> iterator.next(TokenType.SEMICOLON));
+        assertFalse(iterator.hasNext());
+        assertThrows(NodeFormatException.class, iterator::lookupType);
+    }
+}
@@ -0,0 +1,74 @@
+package ru.team.compiler.test.tree.node;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+import ru.team.compiler.exception.NodeFormatException;
+import ru.team.compiler.token.TokenIterator;
+import ru.team.compiler.token.TokenStream;
+import ru.team.compiler.tree.node.TreeNode;
+import ru.team.compiler.tree.node.TreeNodeParser;
+import ru.team.compiler.tree.node.clas.ProgramNode;
+import ru.team.compiler.tree.node.expression.ExpressionNode;
+import ru.team.compiler.tree.node.statement.StatementNode;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class TreeNodeParserTest {
+
+    @Test
+    void memoizedTreeNodeParser() {
+        List<String> codes = List.of(
+                "a.b(c, d.e()).f",
+                "x := a.b(1)",
+                "class A is this() is end end class B extends A is method m(): Integer is return 1; end end",
+                "this.x := y"
+        );
+
+        for (String code : codes) {
+            TokenStream tokens = TokenStream.tokenize(code);
+
+            TreeNode expected = TreeNode.PARSER.parse(new TokenIterator(tokens));
+            TreeNode actual = TreeNode.PARSER.parse(new TokenIterator(tokens, true));
+            assertEquals(expected, actual, code);
+        }
+
+        TokenStream tokens = TokenStream.tokenize("class A is this() is end end class B is end");
+        assertInstanceOf(ProgramNode.class, TreeNode.PARSER.parse(new TokenIterator(tokens, true)));
+    }
+
+    @Test
+    void memoizedReuse() {
+        AtomicInteger calls = new AtomicInteger();
+        TreeNodeParser<StatementNode> parser = TreeNodeParser.memoized(new TreeNodeParser<>() {
+            @Override
+            @NotNull
+            public StatementNode parse(@NotNull TokenIterator iterator) {
+                calls.incrementAndGet();
+                return StatementNode.PARSER.parse(iterator);
+            }
+        });
+
+        TokenIterator iterator = new TokenIterator(TokenStream.tokenize("a.b() c"), true);
+
+        StatementNode first = parser.parse(iterator.copy());
+        TokenIterator copy = iterator.copy();
+        StatementNode second = parser.parse(copy);
+        assertEquals(first, second);
+        assertEquals(5, copy.index());
+        assertEquals(1, calls.get());
+
+        TokenIterator failing = new TokenIterator(TokenStream.tokenize("a.b(;"), true);
+        assertThrows(NodeFormatException.class, () -> ExpressionNode.PARSER.parse(failing.copy()));
+        assertThrows(NodeFormatException.class, () -> ExpressionNode.PARSER.parse(failing.copy()));
+
+        calls.set(0);
+        parser.parse(new TokenIterator(TokenStream.tokenize("a.b()")));
+        parser.parse(new TokenIterator(TokenStream.tokenize("a.b()")));
+        assertEquals(2, calls.get());
+    }
+}
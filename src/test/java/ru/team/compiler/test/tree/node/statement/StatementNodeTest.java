@@ -14,6 +14,7 @@ import ru.team.compiler.tree.node.primary.BooleanLiteralNode;
 import ru.team.compiler.tree.node.primary.IntegerLiteralNode;
 import ru.team.compiler.tree.node.primary.RealLiteralNode;
 import ru.team.compiler.tree.node.primary.ReferenceNode;
+import ru.team.compiler.tree.node.primary.ThisNode;
 import ru.team.compiler.tree.node.statement.AssignmentNode;
 import ru.team.compiler.tree.node.statement.BodyNode;
 import ru.team.compiler.tree.node.statement.IfNode;
@@ -159,4 +160,42 @@ public class StatementNodeTest {
                 node);
         assertFalse(iterator.hasNext());
     }
+
+    @Test
+    void parserThisTest() {
+        List<Token> tokens = List.of(
+                new Token(TokenType.THIS_KEYWORD, "this"),
+                new Token(TokenType.DOT, "."),
+                new Token(TokenType.IDENTIFIER, "a"),
+                new Token(TokenType.ASSIGNMENT_OPERATOR, ":="),
+                new Token(TokenType.INTEGER_LITERAL, "1"),
+                new Token(TokenType.SEMICOLON, ";"),
+                new Token(TokenType.THIS_KEYWORD, "this"),
+                new Token(TokenType.DOT, "."),
+                new Token(TokenType.IDENTIFIER, "a"),
+                new Token(TokenType.OPENING_PARENTHESIS, "("),
+                new Token(TokenType.CLOSING_PARENTHESIS, ")")
+        );
+
+        TokenIterator iterator = new TokenIterator(tokens);
+        StatementNode node = StatementNode.PARSER.parse(iterator);
+        assertEquals(new AssignmentNode(
+                        false,
+                        new ReferenceNode("a"),
+                        new ExpressionNode(new IntegerLiteralNode(1), List.of())),
+                node);
+
+        iterator.next(TokenType.SEMICOLON);
+
+        node = StatementNode.PARSER.parse(iterator);
+        assertEquals(new MethodCallNode(
+                        new ExpressionNode(
+                                new ThisNode(), List.of(
+                                new ExpressionNode.IdArg(
+                                        new IdentifierNode("a"),
+                                        new ArgumentsNode(List.of()))
+                        ))),
+                node);
+        assertFalse(iterator.hasNext());
+    }
 }
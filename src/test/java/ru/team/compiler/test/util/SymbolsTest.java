@@ -0,0 +1,54 @@
+package ru.team.compiler.test.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import org.junit.jupiter.api.Test;
+import ru.team.compiler.tree.node.expression.IdentifierNode;
+import ru.team.compiler.tree.node.primary.ReferenceNode;
+import ru.team.compiler.util.Symbols;
+
+import java.lang.ref.WeakReference;
+
+public class SymbolsTest {
+
+    @Test
+    void intern() {
+        String symbol = Symbols.intern(new String("Integer"));
+
+        assertSame(symbol, Symbols.intern(new String("Integer")));
+        assertSame(symbol, Symbols.intern("xIntegerx".toCharArray(), 1, 7));
+
+        for (int i = 0; i < 10_000; i++) {
+            String value = "symbol" + i;
+            assertSame(Symbols.intern(value), Symbols.intern(new String(value)));
+        }
+
+        assertSame(symbol, Symbols.intern("Integer"));
+    }
+
+    @Test
+    void unreferenced() throws InterruptedException {
+        WeakReference<String> symbol = new WeakReference<>(Symbols.intern(new String("unreferenced" + System.nanoTime())));
+
+        for (int i = 0; i < 100 && symbol.get() != null; i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+
+        assertNull(symbol.get());
+    }
+
+    @Test
+    void nodes() {
+        ReferenceNode reference = new ReferenceNode(new String("Program"));
+
+        assertSame(reference.value(), new ReferenceNode(new String("Program")).value());
+        assertEquals(reference, new ReferenceNode("Program"));
+        assertEquals(reference.hashCode(), new ReferenceNode("Program").hashCode());
+        assertEquals(reference.asIdentifier(), new IdentifierNode("Program"));
+        assertNotEquals(reference, new ReferenceNode("Programs"));
+    }
+}